@@ -4,10 +4,12 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = {"com.ideaspark"})
 @EnableMongoRepositories(basePackages = {"com.ideaspark.api.repository"})
 @EnableMongoAuditing
+@EnableScheduling
 public class IdeaSparkApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,121 @@
+package com.ideaspark.api.aspect;
+
+import com.ideaspark.api.service.interfaces.ErrorReportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Instrumentation for services, controllers and repositories: logs exceptions and, for
+ * packages enabled in {@link MethodTimings}, records call latencies. Controller calls
+ * mark the endpoint that nested service and repository calls are attributed to.
+ * Repository failures, and service failures outside of a web request (scheduled jobs,
+ * workers), are also reported as errors; failures during a request are reported by the
+ * exception handler, which knows whether they were the client's fault.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InstrumentationAspect {
+
+    private final MethodTimings methodTimings;
+
+    // Resolved lazily: the error report service is itself advised by this aspect
+    private final ObjectProvider<ErrorReportService> errorReportService;
+
+    @Around("execution(* com.ideaspark.api.service..*(..))")
+    public Object aroundService(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodTimings.MethodTimer timer = methodTimings.isActive() ? timerFor(joinPoint) : null;
+        long started = timer != null ? System.nanoTime() : 0;
+        try {
+            return joinPoint.proceed();
+        } catch (Exception exception) {
+            String methodName = joinPoint.getSignature().getName();
+            String className = joinPoint.getTarget().getClass().getSimpleName();
+
+            log.error("Exception in service {}.{}: {} - {}",
+                    className, methodName, exception.getClass().getSimpleName(), exception.getMessage());
+
+            if (RequestContextHolder.getRequestAttributes() == null) {
+                report(exception, className + "." + methodName);
+            }
+            throw exception;
+        } finally {
+            if (timer != null) {
+                methodTimings.record(timer, System.nanoTime() - started);
+            }
+        }
+    }
+
+    @Around("execution(* com.ideaspark.api.controller..*(..))")
+    public Object aroundController(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!methodTimings.isActive()) {
+            return proceedController(joinPoint);
+        }
+        MethodTimings.MethodTimer timer = timerFor(joinPoint);
+        String previousEndpoint = methodTimings.enterEndpoint(
+                joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName());
+        long started = System.nanoTime();
+        try {
+            return proceedController(joinPoint);
+        } finally {
+            if (timer != null) {
+                methodTimings.record(timer, System.nanoTime() - started);
+            }
+            methodTimings.exitEndpoint(previousEndpoint);
+        }
+    }
+
+    @Around("execution(* com.ideaspark.api.repository..*(..))")
+    public Object aroundRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodTimings.MethodTimer timer = methodTimings.isActive() ? timerFor(joinPoint) : null;
+        long started = timer != null ? System.nanoTime() : 0;
+        try {
+            return joinPoint.proceed();
+        } catch (Exception exception) {
+            String methodName = joinPoint.getSignature().getName();
+            String className = joinPoint.getTarget().getClass().getSimpleName();
+
+            log.error("Exception in repository {}.{}: {} - {}",
+                    className, methodName, exception.getClass().getSimpleName(), exception.getMessage());
+
+            report(exception, className + "." + methodName);
+            throw exception;
+        } finally {
+            if (timer != null) {
+                methodTimings.record(timer, System.nanoTime() - started);
+            }
+        }
+    }
+
+    private Object proceedController(ProceedingJoinPoint joinPoint) throws Throwable {
+        try {
+            return joinPoint.proceed();
+        } catch (Exception exception) {
+            String methodName = joinPoint.getSignature().getName();
+            String className = joinPoint.getTarget().getClass().getSimpleName();
+
+            log.error("Exception in controller {}.{}: {} - {}",
+                    className, methodName, exception.getClass().getSimpleName(), exception.getMessage());
+            throw exception;
+        }
+    }
+
+    private MethodTimings.MethodTimer timerFor(ProceedingJoinPoint joinPoint) {
+        return methodTimings.timerFor(((MethodSignature) joinPoint.getSignature()).getMethod());
+    }
+
+    private void report(Exception exception, String location) {
+        ErrorReportService service = errorReportService.getIfAvailable();
+        if (service != null) {
+            service.reportException(exception, null, location);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.ideaspark.api.aspect;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency histograms per instrumented method, broken down by the endpoint (controller
+ * method) each call was made from. Recording goes through HdrHistogram recorders, which
+ * are wait-free and do not allocate. Timing is switched on per package prefix at runtime;
+ * with no package enabled the instrumentation aspect only reads one volatile flag.
+ */
+@Component
+@Slf4j
+public class MethodTimings {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int SIGNIFICANT_DIGITS = 2;
+    private static final String NO_ENDPOINT = "-";
+
+    private volatile boolean active;
+    private volatile List<String> enabledPackages = List.of();
+
+    // Per-method decision for the current packages; cleared whenever they change
+    private final Map<Method, Optional<MethodTimer>> timerByMethod = new ConcurrentHashMap<>();
+    private final Map<String, MethodTimer> timers = new ConcurrentHashMap<>();
+    private final ThreadLocal<String> currentEndpoint = new ThreadLocal<>();
+
+    public MethodTimings(@Value("${instrumentation.timing.packages:}") List<String> packages) {
+        setEnabledPackages(packages);
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public List<String> getEnabledPackages() {
+        return enabledPackages;
+    }
+
+    /**
+     * Times methods whose declaring type is in one of the given packages (or below);
+     * an empty list switches timing off. Histograms recorded so far are kept.
+     */
+    public synchronized void setEnabledPackages(List<String> packages) {
+        List<String> enabled = new ArrayList<>();
+        if (packages != null) {
+            for (String pkg : packages) {
+                if (pkg != null && !pkg.isBlank()) {
+                    enabled.add(pkg.trim());
+                }
+            }
+        }
+        enabledPackages = List.copyOf(enabled);
+        timerByMethod.clear();
+        active = !enabled.isEmpty();
+        log.info("Method timing {}", active ? "enabled for " + enabledPackages : "disabled");
+    }
+
+    /**
+     * @return the timer of this method, or null if its package is not enabled
+     */
+    public MethodTimer timerFor(Method method) {
+        Optional<MethodTimer> timer = timerByMethod.get(method);
+        if (timer == null) {
+            timer = timerByMethod.computeIfAbsent(method, this::resolveTimer);
+        }
+        return timer.orElse(null);
+    }
+
+    /**
+     * Marks the calling thread as serving the given endpoint.
+     *
+     * @return the previous endpoint, to be restored with {@link #exitEndpoint}
+     */
+    public String enterEndpoint(String endpoint) {
+        String previous = currentEndpoint.get();
+        currentEndpoint.set(endpoint);
+        return previous;
+    }
+
+    public void exitEndpoint(String previous) {
+        if (previous == null) {
+            currentEndpoint.remove();
+        } else {
+            currentEndpoint.set(previous);
+        }
+    }
+
+    public void record(MethodTimer timer, long elapsedNanos) {
+        String endpoint = currentEndpoint.get();
+        timer.record(Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), HIGHEST_TRACKABLE_MICROS),
+                endpoint != null ? endpoint : NO_ENDPOINT);
+    }
+
+    /**
+     * Latency percentiles in microseconds since the last reset, per method and per endpoint
+     * (the methods each endpoint spent most time in come first).
+     */
+    public Map<String, Object> snapshot() {
+        List<Map<String, Object>> methods = new ArrayList<>();
+        Map<String, List<Map<String, Object>>> endpoints = new HashMap<>();
+
+        for (MethodTimer timer : timers.values()) {
+            Map<String, Histogram> histograms = timer.accumulate();
+            Histogram total = histograms.remove(null);
+            if (total.getTotalCount() == 0) {
+                continue;
+            }
+            methods.add(summary(timer.name, total));
+            histograms.forEach((endpoint, histogram) -> endpoints
+                    .computeIfAbsent(endpoint, key -> new ArrayList<>())
+                    .add(summary(timer.name, histogram)));
+        }
+
+        Comparator<Map<String, Object>> byTotalTime =
+                Comparator.comparingLong(summary -> -((Long) summary.get("totalMicros")));
+        methods.sort(byTotalTime);
+        endpoints.values().forEach(calls -> calls.sort(byTotalTime));
+
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put("enabledPackages", enabledPackages);
+        snapshot.put("methods", methods);
+        snapshot.put("endpoints", endpoints);
+        return snapshot;
+    }
+
+    public void reset() {
+        timers.values().forEach(MethodTimer::reset);
+    }
+
+    private Optional<MethodTimer> resolveTimer(Method method) {
+        String typeName = method.getDeclaringClass().getName();
+        for (String pkg : enabledPackages) {
+            if (typeName.startsWith(pkg)) {
+                String name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+                return Optional.of(timers.computeIfAbsent(name, MethodTimer::new));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Map<String, Object> summary(String method, Histogram histogram) {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("method", method);
+        summary.put("count", histogram.getTotalCount());
+        summary.put("totalMicros", (long) (histogram.getMean() * histogram.getTotalCount()));
+        summary.put("meanMicros", Math.round(histogram.getMean()));
+        summary.put("p50Micros", histogram.getValueAtPercentile(50));
+        summary.put("p90Micros", histogram.getValueAtPercentile(90));
+        summary.put("p99Micros", histogram.getValueAtPercentile(99));
+        summary.put("p999Micros", histogram.getValueAtPercentile(99.9));
+        summary.put("maxMicros", histogram.getMaxValue());
+        return summary;
+    }
+
+    public static final class MethodTimer {
+
+        private final String name;
+        private final Recorder total = newRecorder();
+        private final Map<String, Recorder> byEndpoint = new ConcurrentHashMap<>();
+
+        // Interval histograms folded into running totals on each snapshot
+        private final Histogram accumulatedTotal = newHistogram();
+        private final Map<String, Histogram> accumulatedByEndpoint = new HashMap<>();
+
+        private MethodTimer(String name) {
+            this.name = name;
+        }
+
+        private void record(long micros, String endpoint) {
+            total.recordValue(micros);
+            Recorder recorder = byEndpoint.get(endpoint);
+            if (recorder == null) {
+                recorder = byEndpoint.computeIfAbsent(endpoint, key -> newRecorder());
+            }
+            recorder.recordValue(micros);
+        }
+
+        // Totals under the null key, then one copy per endpoint
+        private synchronized Map<String, Histogram> accumulate() {
+            accumulatedTotal.add(total.getIntervalHistogram());
+            byEndpoint.forEach((endpoint, recorder) -> accumulatedByEndpoint
+                    .computeIfAbsent(endpoint, key -> newHistogram())
+                    .add(recorder.getIntervalHistogram()));
+
+            Map<String, Histogram> copies = new HashMap<>();
+            copies.put(null, accumulatedTotal.copy());
+            accumulatedByEndpoint.forEach((endpoint, histogram) -> copies.put(endpoint, histogram.copy()));
+            return copies;
+        }
+
+        private synchronized void reset() {
+            total.reset();
+            byEndpoint.values().forEach(Recorder::reset);
+            accumulatedTotal.reset();
+            accumulatedByEndpoint.clear();
+        }
+
+        private static Recorder newRecorder() {
+            return new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        }
+
+        private static Histogram newHistogram() {
+            return new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.ideaspark.api.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ideaspark.api.event.TokenRevokedEvent;
+import com.ideaspark.api.event.UserBlockChangedEvent;
+import com.ideaspark.api.event.UserChangedEvent;
+import com.ideaspark.api.event.UserStatsChangedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Carries local cache invalidations to the other API nodes over Redis pub/sub and
+ * re-publishes the ones received from them as local events (flagged as remote so they
+ * are not echoed back).
+ */
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.redis.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class CacheInvalidationRelay implements MessageListener {
+
+    static final String CHANNEL = "ideaspark:cache-invalidation";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.isRemote()) {
+            return;
+        }
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("type", "USER");
+        payload.put("userId", event.getUserId());
+        payload.put("email", event.getEmail());
+        payload.put("reason", event.getReason());
+        broadcast(payload);
+    }
+
+    @EventListener
+    public void onTokenRevoked(TokenRevokedEvent event) {
+        if (event.isRemote()) {
+            return;
+        }
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("type", "TOKEN");
+        payload.put("tokenDigest", event.getTokenDigest());
+        payload.put("expiresAtMillis", event.getExpiresAtMillis());
+        broadcast(payload);
+    }
+
+    @EventListener
+    public void onUserBlockChanged(UserBlockChangedEvent event) {
+        if (event.isRemote()) {
+            return;
+        }
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("type", "BLOCK");
+        payload.put("userId", event.getUserId());
+        payload.put("blocked", event.isBlocked());
+        payload.put("blockedUntilMillis", event.getBlockedUntilMillis());
+        broadcast(payload);
+    }
+
+    @EventListener
+    public void onUserStatsChanged(UserStatsChangedEvent event) {
+        if (event.isRemote() || event.isEmpty()) {
+            return;
+        }
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("type", "USER_STATS");
+        payload.put("totalDelta", event.getTotalDelta());
+        payload.put("activeDelta", event.getActiveDelta());
+        payload.put("premiumDelta", event.getPremiumDelta());
+        payload.put("freeDelta", event.getFreeDelta());
+        payload.put("createdAt", event.getCreatedAt() != null ? event.getCreatedAt().toString() : null);
+        broadcast(payload);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            Map<?, ?> payload = objectMapper.readValue(
+                    new String(message.getBody(), StandardCharsets.UTF_8), Map.class);
+            if (nodeId.equals(payload.get("origin"))) {
+                return;
+            }
+            if ("TOKEN".equals(payload.get("type"))) {
+                eventPublisher.publishEvent(new TokenRevokedEvent(
+                        (String) payload.get("tokenDigest"),
+                        ((Number) payload.get("expiresAtMillis")).longValue(),
+                        true));
+            } else if ("BLOCK".equals(payload.get("type"))) {
+                eventPublisher.publishEvent(new UserBlockChangedEvent(
+                        (String) payload.get("userId"),
+                        Boolean.TRUE.equals(payload.get("blocked")),
+                        ((Number) payload.get("blockedUntilMillis")).longValue(),
+                        true));
+            } else if ("USER_STATS".equals(payload.get("type"))) {
+                String createdAt = (String) payload.get("createdAt");
+                eventPublisher.publishEvent(new UserStatsChangedEvent(
+                        ((Number) payload.get("totalDelta")).longValue(),
+                        ((Number) payload.get("activeDelta")).longValue(),
+                        ((Number) payload.get("premiumDelta")).longValue(),
+                        ((Number) payload.get("freeDelta")).longValue(),
+                        createdAt != null ? LocalDateTime.parse(createdAt) : null,
+                        true));
+            } else {
+                eventPublisher.publishEvent(new UserChangedEvent(
+                        (String) payload.get("userId"),
+                        (String) payload.get("email"),
+                        (String) payload.get("reason"),
+                        true));
+            }
+        } catch (Exception e) {
+            log.error("Error handling cache invalidation message: {}", e.getMessage());
+        }
+    }
+
+    private void broadcast(Map<String, Object> payload) {
+        try {
+            payload.put("origin", nodeId);
+            stringRedisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(payload));
+        } catch (Exception e) {
+            // Remote nodes fall back to their cache TTL if the broadcast is lost
+            log.warn("Failed to broadcast cache invalidation: {}", e.getMessage());
+        }
+    }
+}
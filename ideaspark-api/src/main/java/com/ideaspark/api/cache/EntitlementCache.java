@@ -0,0 +1,141 @@
+package com.ideaspark.api.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.ideaspark.api.event.UserChangedEvent;
+import com.ideaspark.api.repository.SubscriptionRepository;
+import com.ideaspark.shared.entity.Subscription;
+import com.ideaspark.shared.entity.User;
+import com.ideaspark.shared.enums.SubscriptionType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Active subscription plan and expiry per user id, for feature gating without a
+ * subscriptions query. An entry expires at the subscription's expiresAt (and is checked
+ * against it on every read), or after max-ttl at the latest. Entries are dropped on
+ * {@link UserChangedEvent}, which subscribe/cancel and the expiry job publish for every
+ * subscription change and which is relayed between nodes.
+ */
+@Component
+@Slf4j
+public class EntitlementCache {
+
+    private static final Entitlement NONE = new Entitlement(null, Long.MAX_VALUE);
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final boolean enabled;
+    private final Cache<String, Entitlement> entitlementsByUserId;
+
+    public EntitlementCache(
+            SubscriptionRepository subscriptionRepository,
+            @Value("${cache.entitlements.enabled:true}") boolean enabled,
+            @Value("${cache.entitlements.max-size:100000}") long maxSize,
+            @Value("${cache.entitlements.max-ttl:PT10M}") Duration maxTtl) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.enabled = enabled;
+        this.entitlementsByUserId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilExpiresAt(maxTtl.toNanos()))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @return true if the user has an active, unexpired subscription of the required type
+     */
+    public boolean isEntitled(String userId, SubscriptionType requiredType) {
+        Entitlement entitlement = enabled
+                ? entitlementsByUserId.get(userId, this::load)
+                : load(userId);
+        return entitlement.type == requiredType && entitlement.expiresAtMillis > System.currentTimeMillis();
+    }
+
+    public void invalidate(String userId) {
+        if (userId != null) {
+            entitlementsByUserId.invalidate(userId);
+        }
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getUserId() != null) {
+            entitlementsByUserId.invalidate(event.getUserId());
+        } else {
+            entitlementsByUserId.invalidateAll();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = entitlementsByUserId.stats();
+        Map<String, Object> result = new HashMap<>();
+        result.put("enabled", enabled);
+        result.put("size", entitlementsByUserId.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        return result;
+    }
+
+    private Entitlement load(String userId) {
+        Subscription subscription = subscriptionRepository
+                .findByUserAndStatus(User.builder().id(userId).build(), "active")
+                .orElse(null);
+        if (subscription == null) {
+            return NONE;
+        }
+        long expiresAt = subscription.getExpiresAt() == null
+                ? Long.MAX_VALUE
+                : subscription.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return new Entitlement(subscription.getType(), expiresAt);
+    }
+
+    private static final class Entitlement {
+
+        private final SubscriptionType type; // null when the user has no active subscription
+        private final long expiresAtMillis;
+
+        private Entitlement(SubscriptionType type, long expiresAtMillis) {
+            this.type = type;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    private static final class UntilExpiresAt implements Expiry<String, Entitlement> {
+
+        private final long maxTtlNanos;
+
+        private UntilExpiresAt(long maxTtlNanos) {
+            this.maxTtlNanos = maxTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String userId, Entitlement entitlement, long currentTime) {
+            if (entitlement.expiresAtMillis == Long.MAX_VALUE) {
+                return maxTtlNanos;
+            }
+            long remainingNanos = Duration.ofMillis(
+                    Math.max(0, entitlement.expiresAtMillis - System.currentTimeMillis())).toNanos();
+            return Math.min(maxTtlNanos, remainingNanos);
+        }
+
+        @Override
+        public long expireAfterUpdate(String userId, Entitlement entitlement, long currentTime, long currentDuration) {
+            return expireAfterCreate(userId, entitlement, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String userId, Entitlement entitlement, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
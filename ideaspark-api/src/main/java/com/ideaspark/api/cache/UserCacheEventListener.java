@@ -0,0 +1,34 @@
+package com.ideaspark.api.cache;
+
+import com.ideaspark.api.event.UserChangedEvent;
+import com.ideaspark.shared.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns every repository save/delete of a {@link User} into a {@link UserChangedEvent},
+ * so caches stay correct even for write paths that do not publish their own event
+ * (last-login updates, subscription changes, ...).
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCacheEventListener extends AbstractMongoEventListener<User> {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<User> event) {
+        User user = event.getSource();
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail(), "SAVE"));
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<User> event) {
+        Object id = event.getSource().get("_id");
+        eventPublisher.publishEvent(new UserChangedEvent(id != null ? id.toString() : null, null, "DELETE"));
+    }
+}
@@ -0,0 +1,100 @@
+package com.ideaspark.api.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.ideaspark.api.event.UserChangedEvent;
+import com.ideaspark.api.repository.UserRepository;
+import com.ideaspark.shared.entity.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-process cache of users by email, sitting in front of {@link UserRepository#findByEmail}.
+ * Callers always receive a copy, so mutating the returned entity before saving it never
+ * leaks into the cache. Entries are dropped on {@link UserChangedEvent}, which is published
+ * locally for every user write and relayed from other nodes over Redis.
+ */
+@Component
+@Slf4j
+public class UserNearCache {
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final Cache<String, User> usersByEmail;
+
+    public UserNearCache(
+            UserRepository userRepository,
+            @Value("${cache.users.enabled:true}") boolean enabled,
+            @Value("${cache.users.max-size:10000}") long maxSize,
+            @Value("${cache.users.ttl:PT2M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.usersByEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<User> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        if (!enabled) {
+            return userRepository.findByEmail(email);
+        }
+        // Absent users are not cached, so a later registration is visible immediately
+        User cached = usersByEmail.get(email, key -> userRepository.findByEmail(key).orElse(null));
+        return Optional.ofNullable(cached).map(user -> user.toBuilder().build());
+    }
+
+    /**
+     * Id of the user with this email, without copying the cached entity.
+     */
+    public Optional<String> findIdByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        if (!enabled) {
+            return userRepository.findByEmail(email).map(User::getId);
+        }
+        User cached = usersByEmail.get(email, key -> userRepository.findByEmail(key).orElse(null));
+        return Optional.ofNullable(cached).map(User::getId);
+    }
+
+    public void invalidate(String email) {
+        if (email != null) {
+            usersByEmail.invalidate(email);
+        }
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getEmail() != null) {
+            usersByEmail.invalidate(event.getEmail());
+        } else if (event.getUserId() != null) {
+            // Only the id is known (e.g. a delete by id): drop whichever entry holds it
+            usersByEmail.asMap().values().removeIf(user -> event.getUserId().equals(user.getId()));
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = usersByEmail.stats();
+        Map<String, Object> result = new HashMap<>();
+        result.put("enabled", enabled);
+        result.put("size", usersByEmail.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+}
@@ -0,0 +1,89 @@
+package com.ideaspark.api.config;
+
+import com.ideaspark.api.cache.EntitlementCache;
+import com.ideaspark.api.cache.UserNearCache;
+import com.ideaspark.api.notification.NotificationDispatcher;
+import com.ideaspark.api.notification.PooledSmtpEmailTransport;
+import com.ideaspark.api.security.JwtClaimsCache;
+import com.ideaspark.api.service.ExportJobProcessor;
+import com.ideaspark.api.service.UserActivityWriter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Publishes the numeric entries of the components' getStats() maps as meters named
+ * ideaspark.&lt;component&gt;.&lt;stat&gt;, so the figures the admin endpoints report are
+ * also scraped by Prometheus. Running totals are counters, so rate() and increase() see a
+ * restart as a reset; everything else (sizes, queue depths, ratios, timings) is a gauge.
+ * Flags are published as 1 or 0.
+ */
+@Configuration
+public class MetricsConfig {
+
+    private static final Set<String> CACHE_COUNTERS = Set.of("hits", "misses", "evictions");
+    private static final Set<String> WRITER_COUNTERS = Set.of("written", "dropped", "failed", "batches");
+    private static final Set<String> NOTIFICATION_COUNTERS = Set.of("accepted", "sent", "retried", "failed");
+    private static final Set<String> EXPORT_COUNTERS = Set.of("completedJobs");
+    private static final Set<String> SMTP_COUNTERS = Set.of(
+            "connectionsOpened", "connectionsClosed", "connectionsReused", "messagesSent", "sendFailures");
+
+    @Bean
+    public MeterBinder componentStatsMetrics(
+            UserNearCache userNearCache,
+            EntitlementCache entitlementCache,
+            JwtClaimsCache jwtClaimsCache,
+            UserActivityWriter userActivityWriter,
+            NotificationDispatcher notificationDispatcher,
+            ExportJobProcessor exportJobProcessor,
+            ObjectProvider<PooledSmtpEmailTransport> smtpPool) {
+        return registry -> {
+            bind(registry, "cache.users", userNearCache, UserNearCache::getStats, CACHE_COUNTERS);
+            bind(registry, "cache.entitlements", entitlementCache, EntitlementCache::getStats, CACHE_COUNTERS);
+            bind(registry, "cache.jwt.claims", jwtClaimsCache, JwtClaimsCache::getStats, CACHE_COUNTERS);
+            bind(registry, "activity.writer", userActivityWriter, UserActivityWriter::getStats, WRITER_COUNTERS);
+            bind(registry, "notifications", notificationDispatcher, NotificationDispatcher::getStats, NOTIFICATION_COUNTERS);
+            bind(registry, "export.jobs", exportJobProcessor, ExportJobProcessor::getStats, EXPORT_COUNTERS);
+            smtpPool.ifAvailable(pool -> bind(registry, "smtp.pool", pool, PooledSmtpEmailTransport::getStats, SMTP_COUNTERS));
+        };
+    }
+
+    // The stat keys are fixed per component, so the meters are registered once from a first read.
+    // Meters only hold a weak reference to what they read, hence the component bean rather than a lambda
+    private static <T> void bind(MeterRegistry registry, String component, T source,
+                                 Function<T, Map<String, Object>> stats, Set<String> counters) {
+        stats.apply(source).forEach((key, value) -> {
+            String name = "ideaspark." + component + "." + dotted(key);
+            if (counters.contains(key)) {
+                FunctionCounter.builder(name, source, current -> toDouble(stats.apply(current).get(key)))
+                        .register(registry);
+            } else if (value instanceof Number || value instanceof Boolean) {
+                Gauge.builder(name, source, current -> toDouble(stats.apply(current).get(key)))
+                        .register(registry);
+            }
+        });
+    }
+
+    private static double toDouble(Object value) {
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        if (value instanceof Boolean flag) {
+            return flag ? 1 : 0;
+        }
+        return Double.NaN;
+    }
+
+    // hitRate -> hit.rate
+    private static String dotted(String key) {
+        return key.replaceAll("([a-z0-9])([A-Z])", "$1.$2").toLowerCase();
+    }
+}
@@ -0,0 +1,64 @@
+package com.ideaspark.api.config;
+
+import com.ideaspark.api.notification.FakeNotificationTransport;
+import com.ideaspark.api.notification.NotificationTransport;
+import com.ideaspark.api.notification.PooledSmtpEmailTransport;
+import com.ideaspark.api.notification.SmtpEmailTransport;
+import com.ideaspark.api.notification.TwilioSmsTransport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.time.Duration;
+import java.util.Properties;
+
+@Configuration
+public class NotificationConfig {
+
+    @Value("${notification.fake.failure-rate:0}")
+    private double fakeFailureRate;
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnExpression("'${notification.email.transport:smtp}' == 'smtp' and ${notification.smtp.pool.enabled:true}")
+    public PooledSmtpEmailTransport pooledSmtpEmailTransport(
+            MailProperties mailProperties,
+            @Value("${notification.smtp.pool.size:4}") int poolSize,
+            @Value("${notification.smtp.pool.idle-timeout:PT30S}") Duration idleTimeout,
+            @Value("${notification.smtp.pool.max-messages-per-connection:100}") int maxMessagesPerConnection,
+            @Value("${notification.smtp.pool.borrow-timeout:PT10S}") Duration borrowTimeout) {
+        Properties properties = new Properties();
+        properties.putAll(mailProperties.getProperties());
+        return new PooledSmtpEmailTransport(properties, mailProperties.getProtocol(),
+                mailProperties.getHost(), mailProperties.getPort() != null ? mailProperties.getPort() : -1,
+                mailProperties.getUsername(), mailProperties.getPassword(),
+                poolSize, idleTimeout, maxMessagesPerConnection, borrowTimeout);
+    }
+
+    @Bean
+    @ConditionalOnExpression("'${notification.email.transport:smtp}' == 'smtp' and !${notification.smtp.pool.enabled:true}")
+    public NotificationTransport smtpEmailTransport(JavaMailSender mailSender) {
+        return new SmtpEmailTransport(mailSender);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "notification.email.transport", havingValue = "fake")
+    public NotificationTransport fakeEmailTransport() {
+        return new FakeNotificationTransport("EMAIL", fakeFailureRate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "notification.sms.transport", havingValue = "twilio", matchIfMissing = true)
+    public NotificationTransport twilioSmsTransport(@Value("${twilio.phoneNumber}") String twilioPhoneNumber) {
+        return new TwilioSmsTransport(twilioPhoneNumber);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "notification.sms.transport", havingValue = "fake")
+    public NotificationTransport fakeSmsTransport() {
+        return new FakeNotificationTransport("SMS", fakeFailureRate);
+    }
+}
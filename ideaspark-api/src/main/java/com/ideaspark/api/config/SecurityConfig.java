@@ -1,7 +1,10 @@
 package com.ideaspark.api.config;
 
 import com.ideaspark.api.security.JwtAuthenticationFilter;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -16,6 +19,8 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 @Configuration
 @EnableWebSecurity
@@ -25,6 +30,24 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
+    /**
+     * Actuator endpoints are only opened up on their own port; sharing the API port would
+     * publish them on the public ingress.
+     */
+    @PostConstruct
+    void checkManagementPort() {
+        if (managementPort > 0 && managementPort == serverPort) {
+            throw new IllegalStateException("management.server.port must differ from server.port ("
+                    + serverPort + "); actuator endpoints are served without authentication");
+        }
+    }
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -37,11 +60,13 @@ public class SecurityConfig {
                     "/auth/**"
                 ).permitAll()
                 .requestMatchers("/subscription/plans").permitAll()
-                .requestMatchers("/actuator/health").permitAll()
+                // Actuator (health, Prometheus) is only served on the management port, which stays
+                // off the public ingress; scrapers and probes reach it without a token
+                .requestMatchers(managementEndpoints()).permitAll()
                 // Swagger/OpenAPI endpoints
                 .requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/v3/api-docs/**").permitAll()
                 // Admin endpoints
-                .requestMatchers("/users/list", "/users/*/status", "/users/*/delete", "/users/stats").hasRole("ADMIN")
+                .requestMatchers("/users/list", "/users/*/status", "/users/*/delete", "/users/stats", "/admin/**").hasRole("ADMIN")
                 // Protected endpoints
                 .anyRequest().authenticated()
             )
@@ -50,6 +75,12 @@ public class SecurityConfig {
         return http.build();
     }
 
+    private RequestMatcher managementEndpoints() {
+        return new AndRequestMatcher(
+                request -> managementPort > 0 && request.getLocalPort() == managementPort,
+                EndpointRequest.toAnyEndpoint());
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -0,0 +1,155 @@
+package com.ideaspark.api.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reports the threading mode at startup and, with virtual threads on, listens for JFR
+ * {@code jdk.VirtualThreadPinned} events: a virtual thread that blocks inside a
+ * synchronized block or a native frame keeps its carrier thread, which caps throughput
+ * at the carrier count. Each pinning site (first frame of our code, otherwise the top
+ * frame) is counted and logged with its stack the first time it is seen.
+ */
+@Component
+@Slf4j
+public class VirtualThreadDiagnostics {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String OWN_PACKAGE = "com.ideaspark.";
+    private static final int LOGGED_FRAMES = 12;
+
+    private final boolean virtualThreads;
+    private final boolean monitorEnabled;
+    private final Duration threshold;
+    private final Counter pinnedOwnCode;
+    private final Counter pinnedLibraries;
+    private final Timer pinnedTime;
+
+    private final Map<String, LongAdder> pinsBySite = new ConcurrentHashMap<>();
+    private volatile boolean active;
+    private RecordingStream recording;
+
+    public VirtualThreadDiagnostics(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${threads.pinning.monitor-enabled:true}") boolean monitorEnabled,
+            @Value("${threads.pinning.threshold:PT0.02S}") Duration threshold,
+            MeterRegistry meterRegistry) {
+        this.virtualThreads = virtualThreads;
+        this.monitorEnabled = monitorEnabled;
+        this.threshold = threshold;
+        this.pinnedOwnCode = Counter.builder("ideaspark.threads.pinned")
+                .tag("source", "application")
+                .register(meterRegistry);
+        this.pinnedLibraries = Counter.builder("ideaspark.threads.pinned")
+                .tag("source", "library")
+                .register(meterRegistry);
+        this.pinnedTime = Timer.builder("ideaspark.threads.pinned.time").register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!virtualThreads) {
+            log.info("Request, async and scheduled work run on platform thread pools");
+            return;
+        }
+        int javaVersion = Runtime.version().feature();
+        if (javaVersion < 21) {
+            log.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; "
+                    + "running on platform thread pools", javaVersion);
+            return;
+        }
+        log.info("Request, async and scheduled work run on virtual threads");
+        if (!monitorEnabled) {
+            return;
+        }
+        try {
+            recording = new RecordingStream();
+            recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+            recording.onEvent(PINNED_EVENT, this::onPinned);
+            recording.startAsync();
+            active = true;
+            log.info("Reporting virtual threads pinned for longer than {}", threshold);
+        } catch (Exception e) {
+            log.warn("Virtual thread pinning monitor unavailable: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        List<Map<String, Object>> sites = new ArrayList<>();
+        pinsBySite.forEach((site, count) -> {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("site", site);
+            entry.put("count", count.sum());
+            sites.add(entry);
+        });
+        sites.sort(Comparator.comparingLong(entry -> -((Long) entry.get("count"))));
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("virtualThreads", virtualThreads && Runtime.version().feature() >= 21);
+        stats.put("pinningMonitorActive", active);
+        stats.put("pinnedApplication", (long) pinnedOwnCode.count());
+        stats.put("pinnedLibrary", (long) pinnedLibraries.count());
+        stats.put("pinnedSites", sites);
+        return stats;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedTime.record(event.getDuration());
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : List.of();
+
+        RecordedFrame site = null;
+        for (RecordedFrame frame : frames) {
+            if (frame.isJavaFrame() && frame.getMethod().getType().getName().startsWith(OWN_PACKAGE)) {
+                site = frame;
+                break;
+            }
+        }
+        (site != null ? pinnedOwnCode : pinnedLibraries).increment();
+        if (site == null && !frames.isEmpty()) {
+            site = frames.get(0);
+        }
+
+        String key = site != null ? describe(site) : "unknown";
+        LongAdder count = pinsBySite.computeIfAbsent(key, k -> new LongAdder());
+        count.increment();
+        if (count.sum() == 1) {
+            StringBuilder stack = new StringBuilder();
+            for (int i = 0; i < Math.min(LOGGED_FRAMES, frames.size()); i++) {
+                stack.append("\n\tat ").append(describe(frames.get(i)));
+            }
+            log.warn("Virtual thread pinned for {} ms at {}{}", event.getDuration().toMillis(), key, stack);
+        }
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + (frame.getLineNumber() > 0 ? ":" + frame.getLineNumber() : "");
+    }
+}
@@ -1,14 +1,12 @@
 package com.ideaspark.api.controller;
 
-import com.ideaspark.api.repository.AIGenerationRepository;
-import com.ideaspark.api.repository.IdeaRepository;
-import com.ideaspark.api.repository.UserActivityRepository;
+import com.ideaspark.api.service.interfaces.ExportStatsService;
 import com.ideaspark.api.service.interfaces.PdfExportService;
 import com.ideaspark.shared.dto.ExportRequest;
 import com.ideaspark.shared.dto.ResponseDTO;
+import com.ideaspark.shared.entity.UserDataCounters;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -16,11 +14,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayOutputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -30,10 +29,12 @@ import java.util.Map;
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:19006", "exp://192.168.1.100:8081"})
 public class EnhancedExportController {
 
+    private static final List<String> AI_GENERATION_TYPES = List.of(
+            "CHAT", "WRITER", "CODE", "IMAGE", "IDEA", "NEWS_DETECTION", "TEXT_TOOLS", "VOICE_TOOLS");
+    private static final List<String> IDEA_STATUSES = List.of("DRAFT", "ACTIVE", "COMPLETED", "ARCHIVED");
+
     private final PdfExportService pdfExportService;
-    private final IdeaRepository ideaRepository;
-    private final AIGenerationRepository aiGenerationRepository;
-    private final UserActivityRepository userActivityRepository;
+    private final ExportStatsService exportStatsService;
 
     /**
      * Export user's ideas as PDF
@@ -55,18 +56,8 @@ public class EnhancedExportController {
             String userId = getUserIdFromAuth(auth);
             log.info("Exporting ideas PDF for user: {}", userId);
             
-            ByteArrayOutputStream pdfStream = pdfExportService.generateIdeasPdf(userId, exportRequest);
-            
-            String filename = "IdeaSpark_Ideas_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".pdf";
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", filename);
-            headers.setContentLength(pdfStream.size());
-            
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(new ByteArrayResource(pdfStream.toByteArray()));
+            return pdfResponse("IdeaSpark_Ideas_",
+                    out -> pdfExportService.writeIdeasPdf(userId, exportRequest, out));
                     
         } catch (Exception e) {
             log.error("Error exporting ideas PDF: {}", e.getMessage());
@@ -89,18 +80,8 @@ public class EnhancedExportController {
             String userId = getUserIdFromAuth(auth);
             log.info("Exporting chat history PDF for user: {}", userId);
             
-            ByteArrayOutputStream pdfStream = pdfExportService.generateChatHistoryPdf(userId, exportRequest);
-            
-            String filename = "IdeaSpark_ChatHistory_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".pdf";
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", filename);
-            headers.setContentLength(pdfStream.size());
-            
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(new ByteArrayResource(pdfStream.toByteArray()));
+            return pdfResponse("IdeaSpark_ChatHistory_",
+                    out -> pdfExportService.writeChatHistoryPdf(userId, exportRequest, out));
                     
         } catch (Exception e) {
             log.error("Error exporting chat history PDF: {}", e.getMessage());
@@ -123,18 +104,8 @@ public class EnhancedExportController {
             String userId = getUserIdFromAuth(auth);
             log.info("Exporting AI generations PDF for user: {}", userId);
             
-            ByteArrayOutputStream pdfStream = pdfExportService.generateAIGenerationsPdf(userId, exportRequest);
-            
-            String filename = "IdeaSpark_AIGenerations_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".pdf";
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", filename);
-            headers.setContentLength(pdfStream.size());
-            
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(new ByteArrayResource(pdfStream.toByteArray()));
+            return pdfResponse("IdeaSpark_AIGenerations_",
+                    out -> pdfExportService.writeAIGenerationsPdf(userId, exportRequest, out));
                     
         } catch (Exception e) {
             log.error("Error exporting AI generations PDF: {}", e.getMessage());
@@ -157,18 +128,8 @@ public class EnhancedExportController {
             String userId = getUserIdFromAuth(auth);
             log.info("Exporting user activity PDF for user: {}", userId);
             
-            ByteArrayOutputStream pdfStream = pdfExportService.generateUserActivityPdf(userId, exportRequest);
-            
-            String filename = "IdeaSpark_Activity_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".pdf";
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", filename);
-            headers.setContentLength(pdfStream.size());
-            
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(new ByteArrayResource(pdfStream.toByteArray()));
+            return pdfResponse("IdeaSpark_Activity_",
+                    out -> pdfExportService.writeUserActivityPdf(userId, exportRequest, out));
                     
         } catch (Exception e) {
             log.error("Error exporting user activity PDF: {}", e.getMessage());
@@ -191,18 +152,8 @@ public class EnhancedExportController {
             String userId = getUserIdFromAuth(auth);
             log.info("Exporting complete user data PDF for user: {}", userId);
             
-            ByteArrayOutputStream pdfStream = pdfExportService.generateCompleteUserPdf(userId, exportRequest);
-            
-            String filename = "IdeaSpark_CompleteExport_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".pdf";
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", filename);
-            headers.setContentLength(pdfStream.size());
-            
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(new ByteArrayResource(pdfStream.toByteArray()));
+            return pdfResponse("IdeaSpark_CompleteExport_",
+                    out -> pdfExportService.writeCompleteUserPdf(userId, exportRequest, out));
                     
         } catch (Exception e) {
             log.error("Error exporting complete user data PDF: {}", e.getMessage());
@@ -224,31 +175,17 @@ public class EnhancedExportController {
         try {
             String userId = getUserIdFromAuth(auth);
             
+            // One $facet aggregation per collection, run concurrently
+            UserDataCounters counters = exportStatsService.getUserDataStats(userId);
+
             Map<String, Object> stats = new HashMap<>();
-            stats.put("ideasCount", ideaRepository.countByUserId(userId));
-            stats.put("aiGenerationsCount", aiGenerationRepository.countByUserId(userId));
-            stats.put("chatHistoryCount", aiGenerationRepository.countByUserIdAndType(userId, "CHAT"));
-            stats.put("activitiesCount", userActivityRepository.countByUserId(userId));
-            
-            // AI generations by type
-            Map<String, Long> aiGenerationsByType = new HashMap<>();
-            aiGenerationsByType.put("CHAT", aiGenerationRepository.countByUserIdAndType(userId, "CHAT"));
-            aiGenerationsByType.put("WRITER", aiGenerationRepository.countByUserIdAndType(userId, "WRITER"));
-            aiGenerationsByType.put("CODE", aiGenerationRepository.countByUserIdAndType(userId, "CODE"));
-            aiGenerationsByType.put("IMAGE", aiGenerationRepository.countByUserIdAndType(userId, "IMAGE"));
-            aiGenerationsByType.put("IDEA", aiGenerationRepository.countByUserIdAndType(userId, "IDEA"));
-            aiGenerationsByType.put("NEWS_DETECTION", aiGenerationRepository.countByUserIdAndType(userId, "NEWS_DETECTION"));
-            aiGenerationsByType.put("TEXT_TOOLS", aiGenerationRepository.countByUserIdAndType(userId, "TEXT_TOOLS"));
-            aiGenerationsByType.put("VOICE_TOOLS", aiGenerationRepository.countByUserIdAndType(userId, "VOICE_TOOLS"));
-            stats.put("aiGenerationsByType", aiGenerationsByType);
-            
-            // Ideas by status
-            Map<String, Long> ideasByStatus = new HashMap<>();
-            ideasByStatus.put("DRAFT", ideaRepository.countByUserIdAndStatus(userId, "DRAFT"));
-            ideasByStatus.put("ACTIVE", ideaRepository.countByUserIdAndStatus(userId, "ACTIVE"));
-            ideasByStatus.put("COMPLETED", ideaRepository.countByUserIdAndStatus(userId, "COMPLETED"));
-            ideasByStatus.put("ARCHIVED", ideaRepository.countByUserIdAndStatus(userId, "ARCHIVED"));
-            stats.put("ideasByStatus", ideasByStatus);
+            stats.put("ideasCount", counters.getIdeasCount());
+            stats.put("aiGenerationsCount", counters.getAiGenerationsCount());
+            stats.put("chatHistoryCount", counters.getChatHistoryCount());
+            stats.put("activitiesCount", counters.getActivitiesCount());
+            stats.put("aiGenerationsByType", bucketCounts(counters.getAiGenerationsByType(), AI_GENERATION_TYPES));
+            stats.put("ideasByStatus", bucketCounts(counters.getIdeasByStatus(), IDEA_STATUSES));
+            stats.put("computedAt", counters.getUpdatedAt());
             
             return ResponseEntity.ok(ResponseDTO.<Map<String, Object>>builder()
                     .success(true)
@@ -334,41 +271,42 @@ public class EnhancedExportController {
         try {
             String userId = getUserIdFromAuth(auth);
             
+            UserDataCounters counters = exportStatsService.getUserDataStats(userId);
             Map<String, Object> preview = new HashMap<>();
             
             switch (exportRequest.getDataType().toUpperCase()) {
                 case "IDEAS":
-                    long ideasCount = ideaRepository.countByUserId(userId);
+                    long ideasCount = counters.getIdeasCount();
                     preview.put("totalItems", ideasCount);
                     preview.put("type", "Ideas");
                     preview.put("description", "Your creative ideas and concepts");
                     break;
                     
                 case "CHAT_HISTORY":
-                    long chatCount = aiGenerationRepository.countByUserIdAndType(userId, "CHAT");
+                    long chatCount = counters.getChatHistoryCount();
                     preview.put("totalItems", chatCount);
                     preview.put("type", "Chat History");
                     preview.put("description", "AI chat conversations and interactions");
                     break;
                     
                 case "AI_GENERATIONS":
-                    long aiCount = aiGenerationRepository.countByUserId(userId);
+                    long aiCount = counters.getAiGenerationsCount();
                     preview.put("totalItems", aiCount);
                     preview.put("type", "AI Generations");
                     preview.put("description", "All AI-generated content across different tools");
                     break;
                     
                 case "USER_ACTIVITY":
-                    long activityCount = userActivityRepository.countByUserId(userId);
+                    long activityCount = counters.getActivitiesCount();
                     preview.put("totalItems", activityCount);
                     preview.put("type", "User Activity");
                     preview.put("description", "Your usage patterns and activity log");
                     break;
                     
                 case "ALL":
-                    long totalIdeas = ideaRepository.countByUserId(userId);
-                    long totalAI = aiGenerationRepository.countByUserId(userId);
-                    long totalActivity = userActivityRepository.countByUserId(userId);
+                    long totalIdeas = counters.getIdeasCount();
+                    long totalAI = counters.getAiGenerationsCount();
+                    long totalActivity = counters.getActivitiesCount();
                     preview.put("totalItems", totalIdeas + totalAI + totalActivity);
                     preview.put("type", "Complete Export");
                     preview.put("description", "All your data including ideas, AI generations, and activity");
@@ -406,6 +344,29 @@ public class EnhancedExportController {
         }
     }
 
+    /**
+     * The PDF is written straight to the response as it is rendered, so no content length
+     * is sent. Failures after the first bytes abort the download instead of returning JSON.
+     */
+    private ResponseEntity<StreamingResponseBody> pdfResponse(String filenamePrefix, StreamingResponseBody body) {
+        String filename = filenamePrefix + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".pdf";
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", filename);
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
+    }
+
+    // Keeps the response shape stable: every known bucket is present, zero if empty
+    private Map<String, Long> bucketCounts(Map<String, Long> counts, List<String> buckets) {
+        Map<String, Long> result = new HashMap<>();
+        buckets.forEach(bucket -> result.put(bucket, counts.getOrDefault(bucket, 0L)));
+        return result;
+    }
+
     private String getUserIdFromAuth(Authentication auth) {
         // Extract user ID from authentication token
         // This depends on your JWT implementation
@@ -13,9 +13,11 @@ import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -462,12 +464,14 @@ public class ExportControllerLegacy {
         }
 
         String email = authService.extractEmailFromToken(token);
-        ResponseDTO<byte[]> response = exportService.downloadExportFile(exportId, email);
+        ResponseDTO<Resource> response = exportService.downloadExportFile(exportId, email);
         
         if (response.isSuccess()) {
+            // The artifact is streamed from the export file store, not loaded into memory
+            Resource artifact = response.getData();
             HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-            headers.setContentDispositionFormData("attachment", "user_data_export.json");
+            headers.setContentType(MediaTypeFactory.getMediaType(artifact).orElse(MediaType.APPLICATION_OCTET_STREAM));
+            headers.setContentDispositionFormData("attachment", "IdeaSpark_" + artifact.getFilename());
             
             return ResponseEntity.ok()
                     .headers(headers)
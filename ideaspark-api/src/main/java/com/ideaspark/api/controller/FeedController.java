@@ -0,0 +1,70 @@
+package com.ideaspark.api.controller;
+
+import com.ideaspark.api.service.interfaces.FeedService;
+import com.ideaspark.shared.dto.CursorPage;
+import com.ideaspark.shared.dto.ResponseDTO;
+import com.ideaspark.shared.entity.AIGeneration;
+import com.ideaspark.shared.entity.Idea;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Infinite-scroll listings of the authenticated user's content, newest first. Each
+ * response carries a nextCursor to pass back for the following page.
+ */
+@RestController
+@RequestMapping("/feed")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class FeedController {
+
+    private final FeedService feedService;
+
+    @GetMapping("/ideas")
+        @io.swagger.v3.oas.annotations.Operation(
+            summary = "List ideas",
+            description = "Returns the user's ideas newest first, one page per cursor."
+        )
+    public ResponseEntity<ResponseDTO<CursorPage<Idea>>> getIdeas(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Authentication auth) {
+        return respond(feedService.getIdeas(auth.getName(), cursor, limit));
+    }
+
+    @GetMapping("/ai-generations")
+        @io.swagger.v3.oas.annotations.Operation(
+            summary = "List AI generations",
+            description = "Returns the user's AI generations newest first, one page per cursor."
+        )
+    public ResponseEntity<ResponseDTO<CursorPage<AIGeneration>>> getAIGenerations(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Authentication auth) {
+        return respond(feedService.getAIGenerations(auth.getName(), cursor, limit));
+    }
+
+    @GetMapping("/activity")
+        @io.swagger.v3.oas.annotations.Operation(
+            summary = "List activity",
+            description = "Returns the user's activity log newest first, one page per cursor."
+        )
+    public ResponseEntity<ResponseDTO<CursorPage<Map<String, Object>>>> getActivity(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Authentication auth) {
+        return respond(feedService.getActivity(auth.getName(), cursor, limit));
+    }
+
+    private static <T> ResponseEntity<ResponseDTO<T>> respond(ResponseDTO<T> response) {
+        if (!response.isSuccess() && response.getError() != null
+                && "INVALID_CURSOR".equals(response.getError().getCode())) {
+            return ResponseEntity.badRequest().body(response);
+        }
+        return ResponseEntity.ok(response);
+    }
+}
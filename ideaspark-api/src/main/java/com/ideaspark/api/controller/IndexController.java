@@ -0,0 +1,47 @@
+package com.ideaspark.api.controller;
+
+import com.ideaspark.api.index.IndexManager;
+import com.ideaspark.shared.dto.ResponseDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/indexes")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class IndexController {
+
+    private final IndexManager indexManager;
+
+    @GetMapping
+        @io.swagger.v3.oas.annotations.Operation(
+            summary = "Get index build status (admin)",
+            description = "Returns the outcome of the last build attempt for every declared index. Admin only."
+        )
+    public ResponseEntity<ResponseDTO<Map<String, Object>>> getStatus() {
+        return ResponseEntity.ok(ResponseDTO.success(indexManager.getStatus()));
+    }
+
+    @PostMapping("/build")
+        @io.swagger.v3.oas.annotations.Operation(
+            summary = "Build declared indexes (admin)",
+            description = "Builds every declared index that does not exist yet and applies changed TTLs. Admin only."
+        )
+    public ResponseEntity<ResponseDTO<Map<String, Object>>> build() {
+        indexManager.build(false);
+        return ResponseEntity.ok(ResponseDTO.success(indexManager.getStatus()));
+    }
+
+    @GetMapping("/report")
+        @io.swagger.v3.oas.annotations.Operation(
+            summary = "Get index coverage report (admin)",
+            description = "Explains every declared query and lists those not served by an index, those sorted in memory, and missing or undeclared indexes. Admin only."
+        )
+    public ResponseEntity<ResponseDTO<Map<String, Object>>> getCoverageReport() {
+        return ResponseEntity.ok(ResponseDTO.success(indexManager.coverageReport()));
+    }
+}
@@ -0,0 +1,60 @@
+package com.ideaspark.api.controller;
+
+import com.ideaspark.api.aspect.MethodTimings;
+import com.ideaspark.api.config.VirtualThreadDiagnostics;
+import com.ideaspark.shared.dto.ResponseDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/instrumentation")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class InstrumentationController {
+
+    private final MethodTimings methodTimings;
+    private final VirtualThreadDiagnostics virtualThreadDiagnostics;
+
+    @GetMapping("/timings")
+        @io.swagger.v3.oas.annotations.Operation(
+            summary = "Get method timings (admin)",
+            description = "Returns latency percentiles per method and, per endpoint, the methods it spent most time in. Admin only."
+        )
+    public ResponseEntity<ResponseDTO<Map<String, Object>>> getTimings() {
+        return ResponseEntity.ok(ResponseDTO.success(methodTimings.snapshot()));
+    }
+
+    @PutMapping("/timings/packages")
+        @io.swagger.v3.oas.annotations.Operation(
+            summary = "Set timed packages (admin)",
+            description = "Switches method timing on for the given package prefixes; an empty list switches it off. Admin only."
+        )
+    public ResponseEntity<ResponseDTO<List<String>>> setTimedPackages(@RequestBody Map<String, List<String>> request) {
+        methodTimings.setEnabledPackages(request.get("packages"));
+        return ResponseEntity.ok(ResponseDTO.success(methodTimings.getEnabledPackages()));
+    }
+
+    @DeleteMapping("/timings")
+        @io.swagger.v3.oas.annotations.Operation(
+            summary = "Reset method timings (admin)",
+            description = "Clears all recorded latency histograms. Admin only."
+        )
+    public ResponseEntity<ResponseDTO<String>> resetTimings() {
+        methodTimings.reset();
+        return ResponseEntity.ok(ResponseDTO.success("Method timings reset"));
+    }
+
+    @GetMapping("/threads")
+        @io.swagger.v3.oas.annotations.Operation(
+            summary = "Get threading diagnostics (admin)",
+            description = "Returns whether requests run on virtual threads and where virtual threads were pinned to their carrier. Admin only."
+        )
+    public ResponseEntity<ResponseDTO<Map<String, Object>>> getThreadDiagnostics() {
+        return ResponseEntity.ok(ResponseDTO.success(virtualThreadDiagnostics.getStats()));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.ideaspark.api.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published when a single access token is revoked (e.g. on logout).
+ * Carries only the token digest, never the token itself.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class TokenRevokedEvent {
+
+    private final String tokenDigest;
+
+    private final long expiresAtMillis;
+
+    // true when the event was received from another node and must not be re-broadcast
+    private final boolean remote;
+
+    public TokenRevokedEvent(String tokenDigest, long expiresAtMillis) {
+        this(tokenDigest, expiresAtMillis, false);
+    }
+}
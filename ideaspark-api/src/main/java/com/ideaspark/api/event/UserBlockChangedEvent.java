@@ -0,0 +1,29 @@
+package com.ideaspark.api.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published when a user is blocked or unblocked, so every node can update its local
+ * blocked-user set.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class UserBlockChangedEvent {
+
+    private final String userId;
+
+    private final boolean blocked;
+
+    // Long.MAX_VALUE for permanent blocks, ignored when unblocked
+    private final long blockedUntilMillis;
+
+    // true when the event was received from another node and must not be re-broadcast
+    private final boolean remote;
+
+    public UserBlockChangedEvent(String userId, boolean blocked, long blockedUntilMillis) {
+        this(userId, blocked, blockedUntilMillis, false);
+    }
+}
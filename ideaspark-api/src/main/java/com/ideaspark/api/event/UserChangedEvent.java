@@ -0,0 +1,28 @@
+package com.ideaspark.api.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published whenever a user document changes in a way other nodes may have cached
+ * (profile, status, deletion, password, blocking). Listeners drop any local state for the user.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class UserChangedEvent {
+
+    private final String userId;
+
+    private final String email;
+
+    private final String reason; // "STATUS_UPDATE", "USER_DELETE", "PASSWORD_CHANGE", "SAVE", ...
+
+    // true when the event was received from another node and must not be re-broadcast
+    private final boolean remote;
+
+    public UserChangedEvent(String userId, String email, String reason) {
+        this(userId, email, reason, false);
+    }
+}
@@ -0,0 +1,61 @@
+package com.ideaspark.api.event;
+
+import com.ideaspark.shared.entity.User;
+import com.ideaspark.shared.enums.UserStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Change to the admin user statistics caused by one user write, expressed as deltas
+ * so it can be applied (and relayed to other nodes) without re-reading the user.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class UserStatsChangedEvent {
+
+    private final long totalDelta;
+
+    private final long activeDelta;
+
+    private final long premiumDelta;
+
+    private final long freeDelta;
+
+    // Registration date of the user, to place totalDelta in the "new users" buckets
+    private final LocalDateTime createdAt;
+
+    private final boolean remote;
+
+    /**
+     * @param before user state before the write, or null for a registration
+     * @param after user state after the write, or null for a hard delete
+     */
+    public static UserStatsChangedEvent between(User before, User after) {
+        long total = present(after) - present(before);
+        long active = active(after) - active(before);
+        long premium = premium(after, true) - premium(before, true);
+        long free = premium(after, false) - premium(before, false);
+        User subject = after != null ? after : before;
+        return new UserStatsChangedEvent(total, active, premium, free, subject.getCreatedAt(), false);
+    }
+
+    public boolean isEmpty() {
+        return totalDelta == 0 && activeDelta == 0 && premiumDelta == 0 && freeDelta == 0;
+    }
+
+    private static long present(User user) {
+        return user != null ? 1 : 0;
+    }
+
+    private static long active(User user) {
+        return user != null && user.getStatus() == UserStatus.ACTIVE ? 1 : 0;
+    }
+
+    private static long premium(User user, boolean premium) {
+        return user != null && Boolean.valueOf(premium).equals(user.getIsPremium()) ? 1 : 0;
+    }
+}
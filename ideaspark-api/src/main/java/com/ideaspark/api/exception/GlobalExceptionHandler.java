@@ -1,15 +1,20 @@
 package com.ideaspark.api.exception;
 
+import com.ideaspark.api.security.JwtUserPrincipal;
+import com.ideaspark.api.service.interfaces.ErrorReportService;
 import com.ideaspark.shared.dto.ErrorResponseDTO;
 import com.ideaspark.shared.dto.FieldErrorDTO;
 import com.ideaspark.shared.dto.ResponseDTO;
 import com.ideaspark.shared.exception.*;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.BindException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
@@ -34,9 +39,12 @@ import java.util.Set;
  * Provides centralized error handling and standardized error responses
  */
 @RestControllerAdvice
+@RequiredArgsConstructor
 @Slf4j
 public class GlobalExceptionHandler {
 
+    private final ErrorReportService errorReportService;
+
     // =================================================================================
     // CUSTOM APPLICATION EXCEPTIONS
     // =================================================================================
@@ -81,6 +89,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ResponseDTO<Object>> handleServiceException(
             ServiceException ex, HttpServletRequest request) {
         log.error("Service error: {}", ex.getMessage(), ex);
+        report(ex, request);
         
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(ResponseDTO.error("SERVICE_ERROR", ex.getMessage()));
@@ -90,6 +99,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ResponseDTO<Object>> handleEmailServiceException(
             EmailServiceException ex, HttpServletRequest request) {
         log.error("Email service error: {}", ex.getMessage(), ex);
+        report(ex, request);
         
         return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
                 .body(ResponseDTO.error("EMAIL_SERVICE_ERROR", 
@@ -100,6 +110,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ResponseDTO<Object>> handleSmsServiceException(
             SmsServiceException ex, HttpServletRequest request) {
         log.error("SMS service error: {}", ex.getMessage(), ex);
+        report(ex, request);
         
         return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
                 .body(ResponseDTO.error("SMS_SERVICE_ERROR", 
@@ -110,6 +121,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ResponseDTO<Object>> handleCloudinaryException(
             CloudinaryException ex, HttpServletRequest request) {
         log.error("Cloudinary service error: {}", ex.getMessage(), ex);
+        report(ex, request);
         
         return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
                 .body(ResponseDTO.error("IMAGE_SERVICE_ERROR", 
@@ -120,6 +132,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ResponseDTO<Object>> handleExportException(
             ExportException ex, HttpServletRequest request) {
         log.error("Export error: {}", ex.getMessage(), ex);
+        report(ex, request);
         
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(ResponseDTO.error("EXPORT_ERROR", ex.getMessage()));
@@ -301,6 +314,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ResponseDTO<Object>> handleRuntimeException(
             RuntimeException ex, HttpServletRequest request) {
         log.error("Runtime exception: {}", ex.getMessage(), ex);
+        report(ex, request);
         
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(ResponseDTO.error("RUNTIME_ERROR", "An unexpected error occurred"));
@@ -310,8 +324,19 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ResponseDTO<Object>> handleGenericException(
             Exception ex, HttpServletRequest request) {
         log.error("Unexpected error: {}", ex.getMessage(), ex);
+        report(ex, request);
         
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(ResponseDTO.error("INTERNAL_SERVER_ERROR", "An unexpected error occurred"));
     }
+
+    // Server-side failures only; client errors (4xx) are not worth an error report
+    private void report(Exception ex, HttpServletRequest request) {
+        String userId = null;
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof JwtUserPrincipal principal) {
+            userId = principal.getUserId();
+        }
+        errorReportService.reportException(ex, userId, request.getMethod() + " " + request.getRequestURI());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,301 @@
+package com.ideaspark.api.index;
+
+import com.mongodb.MongoServerException;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Builds the indexes declared in {@link IndexRegistry} and reports how well they cover the
+ * declared query shapes. The build runs on a background thread once the application is up,
+ * so a large collection does not hold up startup; an index that could not be built because
+ * MongoDB was unreachable is retried later, one whose definition conflicts with an existing
+ * index of the same name is left for an operator to resolve. A changed TTL is applied to
+ * the existing index in place.
+ */
+@Component
+@Slf4j
+public class IndexManager {
+
+    public enum Outcome { CREATED, EXISTS, TTL_UPDATED }
+
+    private static final String FAILED = "FAILED";
+    private static final String CONFLICT = "CONFLICT";
+    private static final Set<Integer> CONFLICT_CODES = Set.of(85, 86); // IndexOptionsConflict, IndexKeySpecsConflict
+
+    private final MongoTemplate mongoTemplate;
+    private final IndexRegistry registry;
+    private final boolean buildOnStartup;
+    private final boolean reportOnStartup;
+
+    private final ReentrantLock buildLock = new ReentrantLock();
+    // "collection.index" -> outcome of the last attempt
+    private final Map<String, Map<String, Object>> status = new ConcurrentHashMap<>();
+    private volatile boolean building;
+    private volatile LocalDateTime lastBuildAt;
+
+    public IndexManager(
+            MongoTemplate mongoTemplate,
+            IndexRegistry registry,
+            @Value("${mongo.indexes.build-on-startup:true}") boolean buildOnStartup,
+            @Value("${mongo.indexes.report-on-startup:false}") boolean reportOnStartup) {
+        this.mongoTemplate = mongoTemplate;
+        this.registry = registry;
+        this.buildOnStartup = buildOnStartup;
+        this.reportOnStartup = reportOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!buildOnStartup && !reportOnStartup) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            if (buildOnStartup) {
+                build(false);
+            }
+            if (reportOnStartup) {
+                logCoverage();
+            }
+        }, "index-builder");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Builds the declared indexes that are missing. With {@code retryOnly} set, only
+     * indexes whose last attempt failed are tried again.
+     */
+    public void build(boolean retryOnly) {
+        // A lock rather than a monitor: the build blocks on Mongo and would pin a virtual thread
+        if (!buildLock.tryLock()) {
+            return;
+        }
+        building = true;
+        try {
+            int built = 0;
+            int failed = 0;
+            for (IndexRegistry.Declaration declaration : registry.getIndexes()) {
+                String key = key(declaration);
+                Map<String, Object> previous = status.get(key);
+                if (retryOnly && (previous == null || !FAILED.equals(previous.get("outcome")))) {
+                    continue;
+                }
+
+                Map<String, Object> entry = new HashMap<>();
+                entry.put("collection", collection(declaration.getEntity()));
+                entry.put("index", declaration.getName());
+                entry.put("keys", declaration.getIndex().getIndexKeys());
+                try {
+                    Outcome outcome = ensure(declaration.getEntity(), declaration.getIndex());
+                    entry.put("outcome", outcome.name());
+                    if (outcome != Outcome.EXISTS) {
+                        built++;
+                    }
+                } catch (Exception e) {
+                    boolean conflict = isConflict(e);
+                    entry.put("outcome", conflict ? CONFLICT : FAILED);
+                    entry.put("error", e.getMessage());
+                    failed++;
+                    log.warn("Could not build index {}: {}", key, e.getMessage());
+                }
+                entry.put("at", LocalDateTime.now());
+                status.put(key, entry);
+            }
+            lastBuildAt = LocalDateTime.now();
+            if (built > 0 || failed > 0) {
+                log.info("Index build finished: {} created or updated, {} failed", built, failed);
+            }
+        } finally {
+            building = false;
+            buildLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${mongo.indexes.retry-interval:PT5M}", initialDelayString = "${mongo.indexes.retry-interval:PT5M}")
+    public void retryFailed() {
+        if (status.values().stream().anyMatch(entry -> FAILED.equals(entry.get("outcome")))) {
+            build(true);
+        }
+    }
+
+    /**
+     * Creates the index if it does not exist yet; a TTL index whose expiry differs from
+     * the existing one is changed in place with collMod instead of being rebuilt.
+     */
+    public Outcome ensure(Class<?> entity, Index index) {
+        IndexOperations indexOps = mongoTemplate.indexOps(entity);
+        Document options = index.getIndexOptions();
+        String name = options.getString("name");
+        IndexInfo existing = indexOps.getIndexInfo().stream()
+                .filter(info -> info.getName().equals(name))
+                .findFirst()
+                .orElse(null);
+
+        Object expireAfter = options.get("expireAfterSeconds");
+        if (existing != null && expireAfter instanceof Number) {
+            long seconds = ((Number) expireAfter).longValue();
+            if (existing.getExpireAfter().map(Duration::getSeconds).orElse(-1L) != seconds) {
+                mongoTemplate.executeCommand(new Document("collMod", collection(entity))
+                        .append("index", new Document("name", name).append("expireAfterSeconds", seconds)));
+                log.info("Expiry of index {}.{} changed to {}", collection(entity), name, Duration.ofSeconds(seconds));
+                return Outcome.TTL_UPDATED;
+            }
+        }
+
+        // A no-op for an identical index; fails if an index of that name is defined differently
+        indexOps.ensureIndex(index);
+        if (existing == null) {
+            log.info("Created index {}.{}", collection(entity), name);
+            return Outcome.CREATED;
+        }
+        return Outcome.EXISTS;
+    }
+
+    /**
+     * Explains one query shape against the current data and indexes.
+     *
+     * @param verbosity "queryPlanner" to only choose a plan, "executionStats" to also run it
+     */
+    public QueryPlan explain(QueryShape shape, String verbosity) {
+        Document find = new Document("find", collection(shape.getEntity()))
+                .append("filter", shape.getFilter());
+        if (!shape.getSort().isEmpty()) {
+            find.append("sort", shape.getSort());
+        }
+        return QueryPlan.from(mongoTemplate.executeCommand(
+                new Document("explain", find).append("verbosity", verbosity)));
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("building", building);
+        result.put("lastBuildAt", lastBuildAt);
+        result.put("declared", registry.getIndexes().size());
+        result.put("indexes", new ArrayList<>(status.values()));
+        return result;
+    }
+
+    /**
+     * Explains every declared query shape and compares the declared indexes with the ones
+     * that exist: shapes answered by a collection scan are reported as uncovered, shapes
+     * sorted in memory separately. Existing indexes nobody declared are listed as candidates
+     * for removal, since every index slows down writes to its collection.
+     */
+    public Map<String, Object> coverageReport() {
+        List<Map<String, Object>> shapes = new ArrayList<>();
+        List<String> uncovered = new ArrayList<>();
+        List<String> inMemorySorts = new ArrayList<>();
+
+        for (QueryShape shape : registry.getQueryShapes()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("query", shape.getName());
+            entry.put("collection", collection(shape.getEntity()));
+            try {
+                QueryPlan plan = explain(shape, "queryPlanner");
+                entry.put("stages", plan.getStages());
+                entry.put("indexes", plan.getIndexNames());
+                entry.put("covered", plan.isIndexed());
+                if (!plan.isIndexed()) {
+                    uncovered.add(shape.getName());
+                } else if (plan.isBlockingSort()) {
+                    inMemorySorts.add(shape.getName());
+                }
+            } catch (Exception e) {
+                entry.put("error", e.getMessage());
+                uncovered.add(shape.getName());
+            }
+            shapes.add(entry);
+        }
+
+        Map<String, Set<String>> declaredByCollection = new LinkedHashMap<>();
+        for (IndexRegistry.Declaration declaration : registry.getIndexes()) {
+            declaredByCollection.computeIfAbsent(collection(declaration.getEntity()), key -> new TreeSet<>())
+                    .add(declaration.getName());
+        }
+        Map<String, Object> missing = new LinkedHashMap<>();
+        Map<String, Object> undeclared = new LinkedHashMap<>();
+        declaredByCollection.forEach((collection, declared) -> {
+            Set<String> existing = new TreeSet<>();
+            mongoTemplate.indexOps(collection).getIndexInfo().forEach(info -> existing.add(info.getName()));
+            existing.remove("_id_");
+
+            Set<String> notBuilt = new TreeSet<>(declared);
+            notBuilt.removeAll(existing);
+            existing.removeAll(declared);
+            if (!notBuilt.isEmpty()) {
+                missing.put(collection, notBuilt);
+            }
+            if (!existing.isEmpty()) {
+                undeclared.put(collection, existing);
+            }
+        });
+
+        Map<String, Object> report = new HashMap<>();
+        report.put("queries", shapes);
+        report.put("uncovered", uncovered);
+        report.put("inMemorySorts", inMemorySorts);
+        report.put("missingIndexes", missing);
+        report.put("undeclaredIndexes", undeclared);
+        report.put("generatedAt", LocalDateTime.now());
+        return report;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void logCoverage() {
+        try {
+            Map<String, Object> report = coverageReport();
+            List<String> uncovered = (List<String>) report.get("uncovered");
+            for (String query : uncovered) {
+                log.warn("Query not covered by an index: {}", query);
+            }
+            for (String query : (List<String>) report.get("inMemorySorts")) {
+                log.info("Query sorts in memory: {}", query);
+            }
+            if (!((Map<String, Object>) report.get("undeclaredIndexes")).isEmpty()) {
+                log.info("Indexes not declared in the registry: {}", report.get("undeclaredIndexes"));
+            }
+            log.info("Index coverage: {} of {} declared queries served by an index",
+                    registry.getQueryShapes().size() - uncovered.size(), registry.getQueryShapes().size());
+        } catch (Exception e) {
+            log.warn("Could not produce the index coverage report: {}", e.getMessage());
+        }
+    }
+
+    private static boolean isConflict(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoServerException server && CONFLICT_CODES.contains(server.getCode())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String key(IndexRegistry.Declaration declaration) {
+        return collection(declaration.getEntity()) + "." + declaration.getName();
+    }
+
+    private String collection(Class<?> entity) {
+        return mongoTemplate.getCollectionName(entity);
+    }
+}
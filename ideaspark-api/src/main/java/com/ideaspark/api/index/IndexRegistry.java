@@ -0,0 +1,319 @@
+package com.ideaspark.api.index;
+
+import com.ideaspark.shared.entity.AIGeneration;
+import com.ideaspark.shared.entity.ErrorReport;
+import com.ideaspark.shared.entity.ErrorRollup;
+import com.ideaspark.shared.entity.ExportJob;
+import com.ideaspark.shared.entity.Idea;
+import com.ideaspark.shared.entity.OtpVerification;
+import com.ideaspark.shared.entity.OutboundNotification;
+import com.ideaspark.shared.entity.Subscription;
+import com.ideaspark.shared.entity.User;
+import com.ideaspark.shared.entity.UserActivity;
+import com.mongodb.DBRef;
+import lombok.Getter;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Every index the application relies on, next to the queries it serves. Automatic index
+ * creation is off and the entities carry no index annotations, so this is the one place
+ * indexes are declared; {@link IndexManager} builds them at startup and
+ * explains the query shapes listed here to check that each one is served by an index.
+ * A new repository method or query belongs here together with the index it needs.
+ */
+@Component
+public class IndexRegistry {
+
+    private static final String FEED_INDEX = "user_created_id_idx";
+    private static final String ERROR_REPORT_TTL_INDEX = "timestamp_ttl_idx";
+
+    // Sample values for the query shapes; the planner only looks at the fields and operators
+    private static final String USER_ID = "000000000000000000000000";
+    private static final ObjectId OBJECT_ID = new ObjectId(USER_ID);
+    private static final Date TIME = new Date(0);
+
+    private final List<Declaration> indexes = new ArrayList<>();
+    private final List<QueryShape> queryShapes = new ArrayList<>();
+
+    public IndexRegistry(@Value("${errors.report.retention-days:30}") int reportRetentionDays) {
+        declareUsers();
+        declareIdeas();
+        declareAIGenerations();
+        declareUserActivities();
+        declareSubscriptions();
+        declareOtps();
+        declareExportJobs();
+        declareNotifications();
+        declareErrors(Duration.ofDays(reportRetentionDays));
+    }
+
+    public List<Declaration> getIndexes() {
+        return List.copyOf(indexes);
+    }
+
+    public List<QueryShape> getQueryShapes() {
+        return List.copyOf(queryShapes);
+    }
+
+    // Expires full error reports after errors.report.retention-days; a changed retention is applied at startup
+    private static Index errorReportTtlIndex(Duration retention) {
+        return new Index()
+                .on("timestamp", Sort.Direction.ASC)
+                .named(ERROR_REPORT_TTL_INDEX)
+                .expire(retention.getSeconds())
+                .background();
+    }
+
+    private void declareUsers() {
+        // Unique lookups keep the names the entity annotations used to give them
+        index(User.class, asc("email").named("email").unique());
+        index(User.class, asc("username").named("username").unique());
+        index(User.class, asc("phone").named("phone").unique());
+        index(User.class, asc("googleId").named("google_id_idx").sparse());
+        index(User.class, asc("resetPasswordToken").named("reset_token_idx").sparse());
+        index(User.class, asc("role").on("status", Sort.Direction.ASC).named("role_status_idx"));
+        index(User.class, asc("status").named("status_idx"));
+        index(User.class, asc("isPremium").on("premiumExpiresAt", Sort.Direction.ASC).named("premium_expires_idx"));
+        index(User.class, asc("isBlocked").named("blocked_idx")
+                .partial(PartialIndexFilter.of(Criteria.where("isBlocked").is(true))));
+        index(User.class, asc("createdAt").named("created_at_idx"));
+        index(User.class, asc("lastLoginAt").named("last_login_idx"));
+
+        shape("UserRepository.findByEmail", User.class, new Document("email", "user@example.com"));
+        shape("UserRepository.findByUsername", User.class, new Document("username", "user"));
+        shape("UserRepository.findByPhone", User.class, new Document("phone", "+10000000000"));
+        shape("UserRepository.findByGoogleId", User.class, new Document("googleId", "google"));
+        shape("UserRepository.findByEmailOrUsernameOrPhone", User.class, new Document("$or", List.of(
+                new Document("email", "user"), new Document("username", "user"), new Document("phone", "user"))));
+        shape("UserRepository.findByRole", User.class, new Document("role", "USER"));
+        shape("UserRepository.findByStatus", User.class, new Document("status", "ACTIVE"));
+        shape("UserRepository.findByRoleAndStatus", User.class, new Document("role", "USER").append("status", "ACTIVE"));
+        shape("UserRepository.countByIsPremium", User.class, new Document("isPremium", true));
+        shape("UserRepository.findByIsPremiumTrueAndPremiumExpiresAtBefore", User.class,
+                new Document("isPremium", true).append("premiumExpiresAt", lt(TIME)));
+        shape("UserRepository.findByResetPasswordToken", User.class, new Document("resetPasswordToken", "token"));
+        shape("UserRepository.findByIsBlockedTrue", User.class, new Document("isBlocked", true));
+        shape("UserRepository.countByCreatedAtBetween", User.class, new Document("createdAt", between(TIME, TIME)));
+        shape("UserRepository.countByLastLoginAtAfter", User.class, new Document("lastLoginAt", gte(TIME)));
+        shape("SubscriptionExpiryProcessor.downgradeUsers", User.class,
+                new Document("_id", new Document("$in", List.of(OBJECT_ID))).append("isPremium", true));
+    }
+
+    private void declareIdeas() {
+        index(Idea.class, feedIndex());
+        index(Idea.class, asc("userId").on("status", Sort.Direction.ASC).named("user_status_idx"));
+        index(Idea.class, asc("userId").on("category", Sort.Direction.ASC).named("user_category_idx"));
+        index(Idea.class, asc("userId").on("isFavorite", Sort.Direction.ASC).named("user_favorite_idx"));
+        index(Idea.class, asc("userId").on("tags", Sort.Direction.ASC).named("user_tags_idx"));
+
+        shape("IdeaRepository.findByUserIdAndCreatedAtBetween", Idea.class,
+                new Document("userId", USER_ID).append("createdAt", new Document("$gt", TIME).append("$lt", TIME)));
+        shape("IdeaRepository.findByUserIdAndCategory", Idea.class, new Document("userId", USER_ID).append("category", "tech"));
+        shape("IdeaRepository.findByUserIdAndStatus", Idea.class, new Document("userId", USER_ID).append("status", "ACTIVE"));
+        shape("IdeaRepository.findByUserIdAndIsFavoriteTrue", Idea.class, new Document("userId", USER_ID).append("isFavorite", true));
+        shape("IdeaRepository.findByUserIdAndTagsIn", Idea.class,
+                new Document("userId", USER_ID).append("tags", new Document("$in", List.of("tag"))));
+        shape("IdeaRepository.countByUserId", Idea.class, new Document("userId", USER_ID));
+        shape("PdfExportService.ideas (date range)", Idea.class,
+                new Document("userId", USER_ID).append("createdAt", between(TIME, TIME)));
+        shape("FeedService.getIdeas", Idea.class, feedFilter(), feedSort());
+    }
+
+    private void declareAIGenerations() {
+        index(AIGeneration.class, feedIndex());
+        // Also serves the chat export, which reads a user's chats ordered by session and time
+        index(AIGeneration.class, asc("userId").on("type", Sort.Direction.ASC).on("sessionId", Sort.Direction.ASC)
+                .on("createdAt", Sort.Direction.ASC).named("user_type_session_created_idx"));
+        index(AIGeneration.class, asc("userId").on("sessionId", Sort.Direction.ASC).named("user_session_idx"));
+        index(AIGeneration.class, asc("userId").on("isBookmarked", Sort.Direction.ASC).named("user_bookmarked_idx"));
+
+        shape("AIGenerationRepository.findByUserIdAndCreatedAtBetween", AIGeneration.class,
+                new Document("userId", USER_ID).append("createdAt", new Document("$gt", TIME).append("$lt", TIME)));
+        shape("AIGenerationRepository.findByUserIdAndType", AIGeneration.class,
+                new Document("userId", USER_ID).append("type", "CODE"));
+        shape("AIGenerationRepository.findByUserIdAndSessionId", AIGeneration.class,
+                new Document("userId", USER_ID).append("sessionId", "session"));
+        shape("AIGenerationRepository.findByUserIdAndIsBookmarkedTrue", AIGeneration.class,
+                new Document("userId", USER_ID).append("isBookmarked", true));
+        shape("AIGenerationRepository.findByUserIdOrderByCreatedAtDesc", AIGeneration.class,
+                new Document("userId", USER_ID), new Document("createdAt", -1));
+        shape("PdfExportService.chatHistory", AIGeneration.class,
+                new Document("userId", USER_ID).append("type", "CHAT"), new Document("sessionId", 1).append("createdAt", 1));
+        shape("ExportJobProcessor.chatHistory (date range)", AIGeneration.class,
+                new Document("userId", USER_ID).append("type", "CHAT").append("createdAt", new Document("$gte", TIME).append("$lte", TIME)));
+        shape("FeedService.getAIGenerations", AIGeneration.class, feedFilter(), feedSort());
+    }
+
+    private void declareUserActivities() {
+        index(UserActivity.class, feedIndex());
+        index(UserActivity.class, asc("userId").on("action", Sort.Direction.ASC).on("createdAt", Sort.Direction.DESC)
+                .named("user_action_created_idx"));
+        index(UserActivity.class, asc("action").on("createdAt", Sort.Direction.ASC).named("action_created_idx"));
+        index(UserActivity.class, asc("featureName").on("createdAt", Sort.Direction.ASC).named("feature_created_idx"));
+
+        shape("UserActivityRepository.findByUserIdOrderByCreatedAtDesc", UserActivity.class,
+                new Document("userId", USER_ID), new Document("createdAt", -1));
+        shape("UserActivityRepository.findByUserIdAndActionOrderByCreatedAtDesc", UserActivity.class,
+                new Document("userId", USER_ID).append("action", "LOGIN"), new Document("createdAt", -1));
+        shape("UserActivityRepository.countByFeatureNameAndCreatedAtAfter", UserActivity.class,
+                new Document("featureName", "chat").append("createdAt", gte(TIME)));
+        shape("UserActivityRepository.countByActionAndCreatedAtBetween", UserActivity.class,
+                new Document("action", "LOGIN").append("createdAt", between(TIME, TIME)));
+        shape("UserActivityRepository.findByUserIdAndTimestampBetween", UserActivity.class,
+                new Document("userId", USER_ID).append("createdAt", between(TIME, TIME)), new Document("createdAt", -1));
+        shape("UserActivityRepository.deleteByUserIdAndCreatedAtBefore", UserActivity.class,
+                new Document("userId", USER_ID).append("createdAt", lt(TIME)));
+        shape("FeedService.getActivity", UserActivity.class, feedFilter(), feedSort());
+    }
+
+    private void declareSubscriptions() {
+        index(Subscription.class, asc("status").on("expiresAt", Sort.Direction.ASC).named("status_expires_idx"));
+        index(Subscription.class, asc("user").on("status", Sort.Direction.ASC).named("user_status_idx"));
+        index(Subscription.class, asc("user").on("createdAt", Sort.Direction.DESC).named("user_created_idx"));
+        index(Subscription.class, asc("subscriptionId").named("subscription_id_idx").sparse());
+        index(Subscription.class, asc("type").named("type_idx"));
+
+        DBRef user = new DBRef("users", OBJECT_ID);
+        shape("SubscriptionRepository.findByUserAndStatus", Subscription.class,
+                new Document("user", user).append("status", "active"));
+        shape("SubscriptionRepository.findByUserOrderByCreatedAtDesc", Subscription.class,
+                new Document("user", user), new Document("createdAt", -1));
+        shape("SubscriptionRepository.findBySubscriptionId", Subscription.class, new Document("subscriptionId", "sub"));
+        shape("SubscriptionRepository.findByStatus", Subscription.class, new Document("status", "active"));
+        shape("SubscriptionRepository.findByType", Subscription.class, new Document("type", "MONTHLY"));
+        shape("SubscriptionRepository.findExpiringSubscriptions", Subscription.class,
+                new Document("expiresAt", between(TIME, TIME)).append("status", "active"));
+        shape("SubscriptionExpiryProcessor.run", Subscription.class,
+                new Document("status", "active").append("expiresAt", lt(TIME)).append("_id", new Document("$gt", OBJECT_ID)),
+                new Document("_id", 1));
+        shape("SubscriptionExpiryProcessor.downgradeUsers (still active)", Subscription.class,
+                new Document("user", new Document("$in", List.of(user))).append("status", "active")
+                        .append("$or", List.of(new Document("expiresAt", new Document("$gte", TIME)), new Document("expiresAt", null))));
+    }
+
+    private void declareOtps() {
+        index(OtpVerification.class, asc("phoneOrEmail").on("purpose", Sort.Direction.ASC).named("phone_purpose_idx").unique());
+        // Expired codes are removed by MongoDB rather than by a cleanup job
+        index(OtpVerification.class, asc("expiresAt").named("expires_at_ttl_idx").expire(0));
+
+        shape("OtpVerificationRepository.findByPhoneOrEmailAndPurposeAndVerifiedFalse", OtpVerification.class,
+                new Document("phoneOrEmail", "user@example.com").append("purpose", "EMAIL_VERIFICATION").append("verified", false));
+        shape("OtpVerificationRepository.deleteByExpiresAtBefore", OtpVerification.class,
+                new Document("expiresAt", lt(TIME)));
+    }
+
+    private void declareExportJobs() {
+        index(ExportJob.class, asc("userId").on("createdAt", Sort.Direction.DESC).named("user_created_idx"));
+        index(ExportJob.class, asc("nodeId").on("status", Sort.Direction.ASC).on("completedAt", Sort.Direction.ASC).named("node_status_completed_idx"));
+        index(ExportJob.class, asc("status").on("updatedAt", Sort.Direction.ASC).named("status_updated_idx"));
+
+        shape("ExportJobRepository.findByIdAndUserId", ExportJob.class,
+                new Document("_id", OBJECT_ID).append("userId", USER_ID));
+        shape("ExportJobRepository.findByNodeIdAndStatusAndCompletedAtBefore", ExportJob.class,
+                new Document("nodeId", "node-1").append("status", "COMPLETED").append("completedAt", lt(TIME)));
+        shape("ExportJobRepository.findByNodeIdAndStatusOrderByCompletedAtAsc", ExportJob.class,
+                new Document("nodeId", "node-1").append("status", "COMPLETED"), new Document("completedAt", 1));
+        shape("ExportJobProcessor.failStalledJobs", ExportJob.class,
+                new Document("status", "PROCESSING").append("updatedAt", lt(TIME)));
+    }
+
+    private void declareNotifications() {
+        index(OutboundNotification.class, asc("status").on("nextAttemptAt", Sort.Direction.ASC).named("status_next_attempt_idx"));
+        index(OutboundNotification.class, asc("status").on("updatedAt", Sort.Direction.ASC).named("status_updated_idx"));
+
+        shape("NotificationDispatcher.poll (due)", OutboundNotification.class,
+                new Document("status", "PENDING").append("nextAttemptAt", new Document("$lte", TIME)),
+                new Document("nextAttemptAt", 1));
+        shape("NotificationDispatcher.poll (stale)", OutboundNotification.class,
+                new Document("status", "SENDING").append("updatedAt", lt(TIME)));
+        shape("NotificationDispatcher.purgeDelivered", OutboundNotification.class,
+                new Document("status", new Document("$in", List.of("SENT", "FAILED"))).append("updatedAt", lt(TIME)));
+    }
+
+    private void declareErrors(Duration reportRetention) {
+        index(ErrorReport.class, asc("fingerprint").on("timestamp", Sort.Direction.DESC).named("fingerprint_timestamp_idx"));
+        index(ErrorReport.class, errorReportTtlIndex(reportRetention));
+        index(ErrorRollup.class, asc("granularity").on("bucketStart", Sort.Direction.ASC).named("granularity_bucket_idx"));
+        // Each rollup carries its own expiry time
+        index(ErrorRollup.class, asc("expireAt").named("expire_at_ttl_idx").expire(0));
+
+        shape("ErrorReportService.rollups (range)", ErrorRollup.class,
+                new Document("granularity", "MINUTE").append("bucketStart", between(TIME, TIME)));
+    }
+
+    // Keyset pages seek on (createdAt, _id) within one user, newest first
+    private static Index feedIndex() {
+        return asc("userId")
+                .on("createdAt", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC)
+                .named(FEED_INDEX);
+    }
+
+    private static Document feedFilter() {
+        return new Document("userId", USER_ID)
+                .append("createdAt", new Document("$lte", TIME))
+                .append("$or", List.of(
+                        new Document("createdAt", new Document("$lt", TIME)),
+                        new Document("_id", new Document("$lt", OBJECT_ID))));
+    }
+
+    private static Document feedSort() {
+        return new Document("createdAt", -1).append("_id", -1);
+    }
+
+    private static Index asc(String field) {
+        return new Index().on(field, Sort.Direction.ASC).background();
+    }
+
+    private static Document lt(Object value) {
+        return new Document("$lt", value);
+    }
+
+    private static Document gte(Object value) {
+        return new Document("$gte", value);
+    }
+
+    private static Document between(Object from, Object to) {
+        return new Document("$gte", from).append("$lt", to);
+    }
+
+    private void index(Class<?> entity, Index index) {
+        indexes.add(new Declaration(entity, index));
+    }
+
+    private void shape(String name, Class<?> entity, Document filter) {
+        shape(name, entity, filter, null);
+    }
+
+    private void shape(String name, Class<?> entity, Document filter, Document sort) {
+        queryShapes.add(new QueryShape(name, entity, filter, sort));
+    }
+
+    @Getter
+    public static final class Declaration {
+
+        private final Class<?> entity;
+        private final Index index;
+
+        private Declaration(Class<?> entity, Index index) {
+            this.entity = entity;
+            this.index = index;
+        }
+
+        public String getName() {
+            return index.getIndexOptions().getString("name");
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.ideaspark.api.index;
+
+import lombok.Getter;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The parts of an {@code explain} result that tell whether a query is served by an index:
+ * the stages of the winning plan, the indexes it scans and, when explained with
+ * executionStats, how many keys and documents it examined. Operations recorded by the
+ * database profiler are read into the same form.
+ */
+@Getter
+public final class QueryPlan {
+
+    private static final Set<String> INDEX_STAGES = Set.of(
+            "IXSCAN", "IDHACK", "COUNT_SCAN", "DISTINCT_SCAN", "EXPRESS_IXSCAN", "EXPRESS_IDHACK");
+
+    // "IXSCAN { userId: 1, createdAt: -1 }, IXSCAN { ... }" in a profiler entry's planSummary
+    private static final Pattern PLAN_SUMMARY_STAGE = Pattern.compile("(?:^|, )([A-Z_]+)(?: (\\{[^}]*\\}))?");
+
+    private final List<String> stages;
+    private final List<String> indexNames;
+    private final long keysExamined;
+    private final long docsExamined;
+    private final long returned;
+    private final long executionMillis;
+
+    private QueryPlan(List<String> stages, List<String> indexNames, Document executionStats) {
+        this.stages = stages;
+        this.indexNames = indexNames;
+        this.keysExamined = longValue(executionStats, "totalKeysExamined");
+        this.docsExamined = longValue(executionStats, "totalDocsExamined");
+        this.returned = longValue(executionStats, "nReturned");
+        this.executionMillis = longValue(executionStats, "executionTimeMillis");
+    }
+
+    /**
+     * @param explain the reply of an explain command
+     */
+    public static QueryPlan from(Document explain) {
+        Document queryPlanner = explain.get("queryPlanner", Document.class);
+        Document winningPlan = queryPlanner != null ? queryPlanner.get("winningPlan", Document.class) : null;
+        if (winningPlan != null && winningPlan.containsKey("queryPlan")) {
+            // Plans run by the slot-based engine nest the classic stage tree one level down
+            winningPlan = winningPlan.get("queryPlan", Document.class);
+        }
+
+        List<String> stages = new ArrayList<>();
+        Set<String> indexNames = new LinkedHashSet<>();
+        collect(winningPlan, stages, indexNames);
+        return new QueryPlan(stages, new ArrayList<>(indexNames), explain.get("executionStats", Document.class));
+    }
+
+    /**
+     * The profiler names the key patterns of the scanned indexes rather than their names;
+     * those take the place of the index names.
+     *
+     * @param entry a system.profile document of a find, count, delete or update
+     */
+    public static QueryPlan fromProfile(Document entry) {
+        List<String> stages = new ArrayList<>();
+        List<String> indexKeys = new ArrayList<>();
+        String summary = entry.getString("planSummary");
+        Matcher matcher = PLAN_SUMMARY_STAGE.matcher(summary != null ? summary : "");
+        while (matcher.find()) {
+            stages.add(matcher.group(1));
+            if (matcher.group(2) != null) {
+                indexKeys.add(matcher.group(2));
+            }
+        }
+        if (Boolean.TRUE.equals(entry.getBoolean("hasSortStage"))) {
+            stages.add("SORT");
+        }
+
+        Document stats = new Document()
+                .append("totalKeysExamined", entry.get("keysExamined"))
+                .append("totalDocsExamined", entry.get("docsExamined"))
+                .append("nReturned", entry.containsKey("nreturned") ? entry.get("nreturned")
+                        : entry.containsKey("ndeleted") ? entry.get("ndeleted") : entry.get("nModified"))
+                .append("executionTimeMillis", entry.get("millis"));
+        return new QueryPlan(stages, indexKeys, stats);
+    }
+
+    public boolean isCollectionScan() {
+        return stages.contains("COLLSCAN");
+    }
+
+    public boolean isIndexed() {
+        return !isCollectionScan() && stages.stream().anyMatch(INDEX_STAGES::contains);
+    }
+
+    /**
+     * @return true if the results are sorted in memory instead of read in index order
+     */
+    public boolean isBlockingSort() {
+        return stages.contains("SORT");
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> plan = new HashMap<>();
+        plan.put("stages", stages);
+        plan.put("indexes", indexNames);
+        plan.put("collectionScan", isCollectionScan());
+        plan.put("blockingSort", isBlockingSort());
+        plan.put("keysExamined", keysExamined);
+        plan.put("docsExamined", docsExamined);
+        plan.put("returned", returned);
+        plan.put("executionMillis", executionMillis);
+        return plan;
+    }
+
+    private static void collect(Document stage, List<String> stages, Set<String> indexNames) {
+        if (stage == null) {
+            return;
+        }
+        String name = stage.getString("stage");
+        if (name != null) {
+            stages.add(name);
+        }
+        if (stage.getString("indexName") != null) {
+            indexNames.add(stage.getString("indexName"));
+        }
+        collect(stage.get("inputStage", Document.class), stages, indexNames);
+        for (Document input : stage.getList("inputStages", Document.class, List.of())) {
+            collect(input, stages, indexNames);
+        }
+    }
+
+    private static long longValue(Document document, String key) {
+        Object value = document != null ? document.get(key) : null;
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+}
@@ -0,0 +1,25 @@
+package com.ideaspark.api.index;
+
+import lombok.Getter;
+import org.bson.Document;
+
+/**
+ * A query the application runs, written out as the filter and sort it sends to MongoDB
+ * with sample values. Only the shape matters to the planner, so the values need not match
+ * any document.
+ */
+@Getter
+public final class QueryShape {
+
+    private final String name;
+    private final Class<?> entity;
+    private final Document filter;
+    private final Document sort;
+
+    QueryShape(String name, Class<?> entity, Document filter, Document sort) {
+        this.name = name;
+        this.entity = entity;
+        this.filter = filter;
+        this.sort = sort != null ? sort : new Document();
+    }
+}
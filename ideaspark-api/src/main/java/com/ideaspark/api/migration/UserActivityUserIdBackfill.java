@@ -0,0 +1,217 @@
+package com.ideaspark.api.migration;
+
+import com.ideaspark.api.service.JobLock;
+import com.ideaspark.shared.entity.UserActivity;
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One-off migration that copies the id out of the legacy {@code user} DBRef of each
+ * user_activities document into the denormalized {@code userId} field.
+ * Works in _id-ordered chunks and records the last processed _id after each chunk,
+ * so a restarted node continues where the previous run stopped. Re-running is harmless.
+ * Runs once per cluster: the node holding the {@link JobLock} lease does the work, and
+ * the others check back periodically in case it died before recording completion.
+ */
+@Component
+@Slf4j
+public class UserActivityUserIdBackfill {
+
+    static final String MIGRATION_ID = "user_activities.userId-backfill";
+    private static final String CHECKPOINT_COLLECTION = "migration_checkpoints";
+
+    private final MongoTemplate mongoTemplate;
+    private final JobLock jobLock;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final boolean removeLegacyRef;
+    private final Duration lease;
+
+    // JobLock leases are re-entrant per node, so threads of this node are kept apart locally
+    private final ReentrantLock runLock = new ReentrantLock();
+    private volatile boolean running;
+    private volatile boolean completed;
+    private volatile long processed;
+
+    public UserActivityUserIdBackfill(
+            MongoTemplate mongoTemplate,
+            JobLock jobLock,
+            @Value("${migration.user-activity-backfill.enabled:true}") boolean enabled,
+            @Value("${migration.user-activity-backfill.chunk-size:1000}") int chunkSize,
+            @Value("${migration.user-activity-backfill.remove-legacy-ref:false}") boolean removeLegacyRef,
+            @Value("${migration.user-activity-backfill.lease:PT2M}") Duration lease) {
+        this.mongoTemplate = mongoTemplate;
+        this.jobLock = jobLock;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.removeLegacyRef = removeLegacyRef;
+        this.lease = lease;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new Thread(this::run, "user-activity-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Scheduled(fixedDelayString = "${migration.user-activity-backfill.retry-interval:PT10M}",
+            initialDelayString = "${migration.user-activity-backfill.retry-interval:PT10M}")
+    public void resumeIfUnfinished() {
+        if (enabled && !completed) {
+            run();
+        }
+    }
+
+    public void run() {
+        // A lock rather than a monitor: the run blocks on Mongo and would pin a virtual thread
+        if (!runLock.tryLock()) {
+            return;
+        }
+        boolean leased = false;
+        try {
+            Document checkpoint = loadCheckpoint();
+            if (checkpoint != null && Boolean.TRUE.equals(checkpoint.getBoolean("completed"))) {
+                completed = true;
+                return;
+            }
+            if (!jobLock.tryAcquire(MIGRATION_ID, lease)) {
+                log.debug("User activity userId backfill is running on another node");
+                return;
+            }
+            leased = true;
+            running = true;
+            // Read again under the lease: the previous holder may have finished meanwhile
+            checkpoint = loadCheckpoint();
+            if (checkpoint != null && Boolean.TRUE.equals(checkpoint.getBoolean("completed"))) {
+                completed = true;
+                return;
+            }
+            Object lastId = checkpoint != null ? checkpoint.get("lastId") : null;
+            processed = checkpoint != null ? checkpoint.get("processed", Number.class).longValue() : 0L;
+
+            MongoCollection<Document> collection = mongoTemplate.getCollection(
+                    mongoTemplate.getCollectionName(UserActivity.class));
+            log.info("Starting user activity userId backfill (resuming after {}, {} already processed)", lastId, processed);
+
+            while (true) {
+                Bson filter = lastId == null
+                        ? Filters.exists("user")
+                        : Filters.and(Filters.gt("_id", lastId), Filters.exists("user"));
+
+                List<Document> chunk = collection.find(filter)
+                        .projection(Projections.include("_id", "user", "userId"))
+                        .sort(Sorts.ascending("_id"))
+                        .limit(chunkSize)
+                        .into(new ArrayList<>(chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+
+                List<WriteModel<Document>> updates = new ArrayList<>(chunk.size());
+                for (Document doc : chunk) {
+                    String userId = extractUserId(doc.get("user"));
+                    if (userId == null) {
+                        continue;
+                    }
+                    Bson update = removeLegacyRef
+                            ? Updates.combine(Updates.set("userId", userId), Updates.unset("user"))
+                            : Updates.set("userId", userId);
+                    updates.add(new UpdateOneModel<>(Filters.eq("_id", doc.get("_id")), update));
+                }
+                if (!updates.isEmpty()) {
+                    collection.bulkWrite(updates);
+                }
+
+                lastId = chunk.get(chunk.size() - 1).get("_id");
+                processed += chunk.size();
+                saveCheckpoint(lastId, false);
+
+                if (!jobLock.renew(MIGRATION_ID, lease)) {
+                    log.warn("Lost user activity backfill lease after {} documents; stopping", processed);
+                    return;
+                }
+            }
+
+            saveCheckpoint(lastId, true);
+            completed = true;
+            log.info("User activity userId backfill completed ({} documents)", processed);
+        } catch (Exception e) {
+            // The checkpoint keeps the progress made so far; the next start resumes from it
+            log.error("User activity userId backfill interrupted after {} documents: {}", processed, e.getMessage());
+        } finally {
+            if (leased) {
+                jobLock.release(MIGRATION_ID);
+            }
+            running = false;
+            runLock.unlock();
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        Document checkpoint = loadCheckpoint();
+        status.put("running", running);
+        status.put("processed", checkpoint != null ? checkpoint.get("processed") : processed);
+        status.put("completed", checkpoint != null && Boolean.TRUE.equals(checkpoint.getBoolean("completed")));
+        status.put("updatedAt", checkpoint != null ? checkpoint.getDate("updatedAt") : null);
+        return status;
+    }
+
+    private String extractUserId(Object legacyRef) {
+        Object id = null;
+        if (legacyRef instanceof DBRef dbRef) {
+            id = dbRef.getId();
+        } else if (legacyRef instanceof Document refDoc) {
+            id = refDoc.get("$id");
+        }
+        if (id instanceof ObjectId objectId) {
+            return objectId.toHexString();
+        }
+        return id != null ? id.toString() : null;
+    }
+
+    private Document loadCheckpoint() {
+        return mongoTemplate.getCollection(CHECKPOINT_COLLECTION)
+                .find(Filters.eq("_id", MIGRATION_ID))
+                .first();
+    }
+
+    private void saveCheckpoint(Object lastId, boolean completed) {
+        Document checkpoint = new Document("_id", MIGRATION_ID)
+                .append("lastId", lastId)
+                .append("processed", processed)
+                .append("completed", completed)
+                .append("updatedAt", new Date());
+        mongoTemplate.getCollection(CHECKPOINT_COLLECTION)
+                .replaceOne(Filters.eq("_id", MIGRATION_ID), checkpoint, new ReplaceOptions().upsert(true));
+    }
+}
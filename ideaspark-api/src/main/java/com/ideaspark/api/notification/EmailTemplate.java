@@ -0,0 +1,87 @@
+package com.ideaspark.api.notification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A template parsed once into alternating literal and {{variable}} segments.
+ * Variable values are HTML-escaped when rendered.
+ */
+public final class EmailTemplate {
+
+    private final String[] literals; // one more than variables
+    private final String[] variables;
+
+    private EmailTemplate(String[] literals, String[] variables) {
+        this.literals = literals;
+        this.variables = variables;
+    }
+
+    public static EmailTemplate compile(String name, String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = source.indexOf("{{", position);
+            if (open < 0) {
+                break;
+            }
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed {{ in email template " + name + " at offset " + open);
+            }
+            literals.add(source.substring(position, open));
+            variables.add(source.substring(open + 2, close).trim());
+            position = close + 2;
+        }
+        literals.add(source.substring(position));
+        return new EmailTemplate(literals.toArray(new String[0]), variables.toArray(new String[0]));
+    }
+
+    /**
+     * Render into a string of exactly the final length: values are escaped only if they
+     * contain markup characters, and literal and value parts are joined in one copy.
+     */
+    public String render(Map<String, String> model) {
+        if (variables.length == 0) {
+            return literals[0];
+        }
+        String[] parts = new String[literals.length + variables.length];
+        for (int i = 0; i < variables.length; i++) {
+            parts[2 * i] = literals[i];
+            parts[2 * i + 1] = escape(model.get(variables[i]));
+        }
+        parts[parts.length - 1] = literals[variables.length];
+        return String.join("", parts);
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder out = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String entity = switch (c) {
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '&' -> "&amp;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            if (entity != null && out == null) {
+                out = new StringBuilder(value.length() + 16).append(value, 0, i);
+            }
+            if (out != null) {
+                if (entity != null) {
+                    out.append(entity);
+                } else {
+                    out.append(c);
+                }
+            }
+        }
+        return out != null ? out.toString() : value;
+    }
+}
@@ -0,0 +1,96 @@
+package com.ideaspark.api.notification;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Email templates from {@code templates/email}, compiled once at startup.
+ * A template "welcome" is read from welcome.html and its subject from subjects.properties;
+ * a localized variant (welcome_es.html, subjects_es.properties) is used when it exists for
+ * the recipient's language.
+ */
+@Component
+@Slf4j
+public class EmailTemplateEngine {
+
+    // template name -> language ("" for the default) -> compiled template
+    private final Map<String, Map<String, EmailTemplate>> bodies = new HashMap<>();
+    private final Map<String, Map<String, EmailTemplate>> subjects = new HashMap<>();
+
+    public EmailTemplateEngine(@Value("${email.templates.location:classpath:templates/email/}") String location)
+            throws IOException {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+
+        for (Resource resource : resolver.getResources(location + "*.html")) {
+            String name = stripExtension(resource.getFilename());
+            register(bodies, name, EmailTemplate.compile(name, resource.getContentAsString(StandardCharsets.UTF_8)));
+        }
+
+        for (Resource resource : resolver.getResources(location + "subjects*.properties")) {
+            String suffix = stripExtension(resource.getFilename()).substring("subjects".length());
+            Properties properties = new Properties();
+            try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            for (String name : properties.stringPropertyNames()) {
+                register(subjects, name + suffix, EmailTemplate.compile(name + suffix, properties.getProperty(name)));
+            }
+        }
+
+        log.info("Compiled {} email templates from {}", bodies.size(), location);
+    }
+
+    /**
+     * @param name template name, e.g. "welcome"
+     * @param language recipient language ("en", "es", ...); null or unknown falls back to the default
+     * @param model values for the template's {{variables}}
+     */
+    public RenderedEmail render(String name, String language, Map<String, String> model) {
+        EmailTemplate body = lookup(bodies, name, language);
+        if (body == null) {
+            throw new IllegalArgumentException("Unknown email template: " + name);
+        }
+        EmailTemplate subject = lookup(subjects, name, language);
+        return new RenderedEmail(
+                subject != null ? subject.render(model) : "",
+                body.render(model));
+    }
+
+    private static void register(Map<String, Map<String, EmailTemplate>> templates, String fileName, EmailTemplate template) {
+        int separator = fileName.lastIndexOf('_');
+        String name = separator < 0 ? fileName : fileName.substring(0, separator);
+        String language = separator < 0 ? "" : fileName.substring(separator + 1).toLowerCase(Locale.ROOT);
+        templates.computeIfAbsent(name, key -> new HashMap<>()).put(language, template);
+    }
+
+    private static EmailTemplate lookup(Map<String, Map<String, EmailTemplate>> templates, String name, String language) {
+        Map<String, EmailTemplate> byLanguage = templates.get(name);
+        if (byLanguage == null) {
+            return null;
+        }
+        if (language != null) {
+            EmailTemplate localized = byLanguage.get(language.toLowerCase(Locale.ROOT));
+            if (localized != null) {
+                return localized;
+            }
+        }
+        return byLanguage.get("");
+    }
+
+    private static String stripExtension(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? fileName : fileName.substring(0, dot);
+    }
+}
@@ -0,0 +1,60 @@
+package com.ideaspark.api.notification;
+
+import com.ideaspark.shared.entity.OutboundNotification;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Offline stand-in for a provider: logs each message and keeps the most recent ones in
+ * memory. A failure rate above zero makes sends fail at random to exercise retries.
+ */
+@Slf4j
+public class FakeNotificationTransport implements NotificationTransport {
+
+    private static final int RETAINED_MESSAGES = 100;
+
+    private final String channel;
+    private final double failureRate;
+    private final Deque<OutboundNotification> sent = new ArrayDeque<>();
+
+    public FakeNotificationTransport(String channel, double failureRate) {
+        this.channel = channel;
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public String getChannel() {
+        return channel;
+    }
+
+    @Override
+    public String send(OutboundNotification notification) {
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new IllegalStateException("Simulated " + channel + " provider failure");
+        }
+        log.info("[fake {}] to={} subject={} body={}", channel,
+                notification.getRecipient(), notification.getSubject(), notification.getBody());
+        synchronized (sent) {
+            if (sent.size() == RETAINED_MESSAGES) {
+                sent.removeFirst();
+            }
+            sent.addLast(notification);
+        }
+        return "fake-" + UUID.randomUUID();
+    }
+
+    /**
+     * @return most recent messages accepted by this transport, oldest first
+     */
+    public List<OutboundNotification> getSent() {
+        synchronized (sent) {
+            return new ArrayList<>(sent);
+        }
+    }
+}
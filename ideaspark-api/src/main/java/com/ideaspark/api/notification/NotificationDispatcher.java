@@ -0,0 +1,268 @@
+package com.ideaspark.api.notification;
+
+import com.ideaspark.shared.entity.OutboundNotification;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends email and SMS off the request threads. A notification is first written to the
+ * outbox collection, which is what the caller's "accepted" means; it is then delivered on
+ * the channel's own worker pool, whose size caps concurrent calls to that provider.
+ * Failed sends are retried with jittered exponential backoff by the outbox poller, which
+ * also picks up anything a full queue or a restarted node left behind.
+ */
+@Component
+@Slf4j
+public class NotificationDispatcher {
+
+    private final MongoTemplate mongoTemplate;
+    private final Map<String, NotificationTransport> transports = new HashMap<>();
+    private final Map<String, ThreadPoolExecutor> executors = new HashMap<>();
+    // Ids waiting in a local queue, so the poller does not queue them twice
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration staleAfter;
+    private final Duration retention;
+    private final int pollBatchSize;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public NotificationDispatcher(
+            MongoTemplate mongoTemplate,
+            List<NotificationTransport> transports,
+            @Value("${notification.email.concurrency:4}") int emailConcurrency,
+            @Value("${notification.sms.concurrency:2}") int smsConcurrency,
+            @Value("${notification.queue-capacity:1000}") int queueCapacity,
+            @Value("${notification.retry.max-attempts:5}") int maxAttempts,
+            @Value("${notification.retry.initial-backoff:PT2S}") Duration initialBackoff,
+            @Value("${notification.retry.max-backoff:PT5M}") Duration maxBackoff,
+            @Value("${notification.outbox.stale-after:PT2M}") Duration staleAfter,
+            @Value("${notification.outbox.retention:P7D}") Duration retention,
+            @Value("${notification.outbox.batch-size:100}") int pollBatchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.staleAfter = staleAfter;
+        this.retention = retention;
+        this.pollBatchSize = pollBatchSize;
+
+        for (NotificationTransport transport : transports) {
+            this.transports.put(transport.getChannel(), transport);
+        }
+        this.executors.put("EMAIL", newExecutor("email", emailConcurrency, queueCapacity));
+        this.executors.put("SMS", newExecutor("sms", smsConcurrency, queueCapacity));
+    }
+
+    /**
+     * Record a notification in the outbox and schedule its delivery.
+     * @return true if the notification was accepted; delivery is confirmed on the outbox record
+     */
+    public boolean dispatch(String channel, String recipient, String subject, String body) {
+        if (!transports.containsKey(channel)) {
+            log.error("No transport configured for {} notifications", channel);
+            return false;
+        }
+        try {
+            OutboundNotification notification = mongoTemplate.insert(OutboundNotification.builder()
+                    .channel(channel)
+                    .recipient(recipient)
+                    .subject(subject)
+                    .body(body)
+                    .build());
+            accepted.incrementAndGet();
+            schedule(notification);
+            return true;
+        } catch (Exception e) {
+            log.error("Failed to queue {} notification to {}: {}", channel, recipient, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Hand due retries to the workers and recover notifications whose worker died mid-send.
+     */
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval:PT5S}")
+    public void pollOutbox() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+
+            mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("status").is("SENDING").and("updatedAt").lt(now.minus(staleAfter))),
+                    new Update().set("status", "PENDING").set("nextAttemptAt", now).set("updatedAt", now),
+                    OutboundNotification.class);
+
+            Query due = Query.query(Criteria.where("status").is("PENDING").and("nextAttemptAt").lte(now))
+                    .with(Sort.by("nextAttemptAt"))
+                    .limit(pollBatchSize);
+            due.fields().exclude("body");
+            for (OutboundNotification notification : mongoTemplate.find(due, OutboundNotification.class)) {
+                if (!schedule(notification)) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error polling notification outbox: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.outbox.cleanup-interval:PT1H}")
+    public void purgeDelivered() {
+        try {
+            mongoTemplate.remove(
+                    Query.query(Criteria.where("status").in("SENT", "FAILED")
+                            .and("updatedAt").lt(LocalDateTime.now().minus(retention))),
+                    OutboundNotification.class);
+        } catch (Exception e) {
+            log.error("Error purging notification outbox: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("accepted", accepted.get());
+        stats.put("sent", sent.get());
+        stats.put("retried", retried.get());
+        stats.put("failed", failed.get());
+        executors.forEach((channel, executor) -> {
+            stats.put(channel.toLowerCase() + "Active", executor.getActiveCount());
+            stats.put(channel.toLowerCase() + "Queued", executor.getQueue().size());
+        });
+        return stats;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Undelivered notifications stay PENDING in the outbox and are retried after restart
+        for (ThreadPoolExecutor executor : executors.values()) {
+            executor.shutdown();
+        }
+        for (ThreadPoolExecutor executor : executors.values()) {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private boolean schedule(OutboundNotification notification) {
+        ThreadPoolExecutor executor = executors.get(notification.getChannel());
+        if (executor == null || !queued.add(notification.getId())) {
+            return true;
+        }
+        try {
+            executor.execute(() -> {
+                queued.remove(notification.getId());
+                deliver(notification.getId());
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            // Left PENDING; the poller picks it up once the queue drains
+            queued.remove(notification.getId());
+            return false;
+        }
+    }
+
+    private void deliver(String id) {
+        try {
+            send(id);
+        } catch (Exception e) {
+            // Outbox unavailable; the notification is recovered by the poller
+            log.error("Error delivering notification {}: {}", id, e.getMessage());
+        }
+    }
+
+    private void send(String id) {
+        LocalDateTime now = LocalDateTime.now();
+        // Claim the notification so another worker or node does not send it as well
+        OutboundNotification notification = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(id).and("status").is("PENDING").and("nextAttemptAt").lte(now)),
+                new Update().set("status", "SENDING").inc("attempts", 1).set("updatedAt", now),
+                FindAndModifyOptions.options().returnNew(true),
+                OutboundNotification.class);
+        if (notification == null) {
+            return;
+        }
+
+        try {
+            String providerMessageId = transports.get(notification.getChannel()).send(notification);
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id)),
+                    new Update().set("status", "SENT")
+                            .set("providerMessageId", providerMessageId)
+                            .set("sentAt", LocalDateTime.now())
+                            .set("updatedAt", LocalDateTime.now())
+                            .unset("body")
+                            .unset("lastError"),
+                    OutboundNotification.class);
+            sent.incrementAndGet();
+            log.info("{} notification {} delivered to {}", notification.getChannel(), id, notification.getRecipient());
+        } catch (Exception e) {
+            failed(notification, e);
+        }
+    }
+
+    private void failed(OutboundNotification notification, Exception e) {
+        Update update = new Update().set("lastError", e.getMessage()).set("updatedAt", LocalDateTime.now());
+        if (notification.getAttempts() >= maxAttempts) {
+            update.set("status", "FAILED").unset("body");
+            failed.incrementAndGet();
+            log.error("{} notification {} to {} failed after {} attempts: {}", notification.getChannel(),
+                    notification.getId(), notification.getRecipient(), notification.getAttempts(), e.getMessage());
+        } else {
+            update.set("status", "PENDING").set("nextAttemptAt", LocalDateTime.now().plus(backoff(notification.getAttempts())));
+            retried.incrementAndGet();
+            log.warn("{} notification {} to {} failed (attempt {}), will retry: {}", notification.getChannel(),
+                    notification.getId(), notification.getRecipient(), notification.getAttempts(), e.getMessage());
+        }
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(notification.getId())),
+                update, OutboundNotification.class);
+    }
+
+    /**
+     * Exponential backoff with "equal jitter": half the delay is fixed, the other half
+     * random, so retries from a provider outage do not arrive in lockstep.
+     */
+    private Duration backoff(int attempts) {
+        long ceiling = Math.min(maxBackoff.toMillis(),
+                initialBackoff.toMillis() << Math.min(attempts - 1, 20));
+        long half = ceiling / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    private static ThreadPoolExecutor newExecutor(String name, int concurrency, int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "notification-" + name + "-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+}
@@ -0,0 +1,20 @@
+package com.ideaspark.api.notification;
+
+import com.ideaspark.shared.entity.OutboundNotification;
+
+/**
+ * Delivers one notification through a provider. Called from the dispatcher's worker
+ * threads; any exception is treated as a retryable failure.
+ */
+public interface NotificationTransport {
+
+    /**
+     * @return channel served by this transport ("EMAIL", "SMS")
+     */
+    String getChannel();
+
+    /**
+     * @return provider message id, if the provider returns one
+     */
+    String send(OutboundNotification notification) throws Exception;
+}
@@ -0,0 +1,214 @@
+package com.ideaspark.api.notification;
+
+import com.ideaspark.shared.entity.OutboundNotification;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SMTP transport that keeps authenticated connections open and sends many messages per
+ * session instead of connecting, negotiating STARTTLS and logging in for every email.
+ * At most pool-size connections are in use at once; idle ones are reused most recent
+ * first, closed after the idle timeout, and every connection is retired after a fixed
+ * number of messages so long-lived sessions do not run into server-side limits.
+ */
+@Slf4j
+public class PooledSmtpEmailTransport implements NotificationTransport, AutoCloseable {
+
+    private final Session session;
+    private final String protocol;
+    private final String host;
+    private final int port;
+    private final String username;
+    private final String password;
+    private final long idleTimeoutMillis;
+    private final int maxMessagesPerConnection;
+    private final long borrowTimeoutMillis;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final ScheduledExecutorService evictor;
+
+    private final AtomicLong opened = new AtomicLong();
+    private final AtomicLong closed = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong connectMillis = new AtomicLong();
+    private final AtomicLong sendMillis = new AtomicLong();
+
+    public PooledSmtpEmailTransport(Properties mailProperties, String protocol, String host, int port,
+                                    String username, String password, int poolSize,
+                                    Duration idleTimeout, int maxMessagesPerConnection, Duration borrowTimeout) {
+        this.session = Session.getInstance(mailProperties);
+        this.protocol = protocol;
+        this.host = host;
+        this.port = port;
+        this.username = username;
+        this.password = password;
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.borrowTimeoutMillis = borrowTimeout.toMillis();
+        this.permits = new Semaphore(poolSize, true);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "smtp-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long evictEvery = Math.max(1000L, idleTimeoutMillis / 2);
+        this.evictor.scheduleWithFixedDelay(this::evictIdle, evictEvery, evictEvery, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public String getChannel() {
+        return "EMAIL";
+    }
+
+    @Override
+    public String send(OutboundNotification notification) throws Exception {
+        MimeMessage message = new MimeMessage(session);
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+        helper.setTo(notification.getRecipient());
+        helper.setSubject(notification.getSubject());
+        helper.setText(notification.getBody(), true);
+        helper.setFrom("noreply@ideaspark.com");
+        message.saveChanges();
+
+        if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            failures.incrementAndGet();
+            throw new IllegalStateException("No SMTP connection available within " + borrowTimeoutMillis + "ms");
+        }
+        try {
+            PooledConnection connection = idle.pollFirst();
+            while (connection != null && connection.isExpired(System.currentTimeMillis())) {
+                close(connection);
+                connection = idle.pollFirst();
+            }
+
+            if (connection != null) {
+                reused.incrementAndGet();
+                try {
+                    return sendOn(connection, message);
+                } catch (MessagingException e) {
+                    // The server may have dropped an idle session; retry once on a new one
+                    log.debug("Pooled SMTP connection failed, reconnecting: {}", e.getMessage());
+                }
+            }
+            return sendOn(open(), message);
+        } catch (Exception e) {
+            failures.incrementAndGet();
+            throw e;
+        } finally {
+            permits.release();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long opens = opened.get();
+        long messages = sent.get();
+        stats.put("idleConnections", idle.size());
+        stats.put("activeConnections", opens - closed.get() - idle.size());
+        stats.put("connectionsOpened", opens);
+        stats.put("connectionsClosed", closed.get());
+        stats.put("connectionsReused", reused.get());
+        stats.put("messagesSent", messages);
+        stats.put("sendFailures", failures.get());
+        stats.put("messagesPerConnection", opens == 0 ? 0.0 : (double) messages / opens);
+        stats.put("avgConnectMs", opens == 0 ? 0L : connectMillis.get() / opens);
+        stats.put("avgSendMs", messages == 0 ? 0L : sendMillis.get() / messages);
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+        PooledConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            close(connection);
+        }
+    }
+
+    private String sendOn(PooledConnection connection, MimeMessage message) throws MessagingException {
+        long start = System.currentTimeMillis();
+        try {
+            connection.transport.sendMessage(message, message.getAllRecipients());
+        } catch (MessagingException | RuntimeException e) {
+            close(connection);
+            throw e;
+        }
+        long now = System.currentTimeMillis();
+        sendMillis.addAndGet(now - start);
+        sent.incrementAndGet();
+
+        connection.messages++;
+        connection.lastUsedAt = now;
+        if (connection.messages >= maxMessagesPerConnection) {
+            close(connection);
+        } else {
+            idle.offerFirst(connection);
+        }
+        return message.getMessageID();
+    }
+
+    private PooledConnection open() throws MessagingException {
+        long start = System.currentTimeMillis();
+        Transport transport = session.getTransport(protocol);
+        transport.connect(host, port, username, password);
+        connectMillis.addAndGet(System.currentTimeMillis() - start);
+        opened.incrementAndGet();
+        return new PooledConnection(transport);
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        Iterator<PooledConnection> oldestFirst = idle.descendingIterator();
+        while (oldestFirst.hasNext()) {
+            PooledConnection connection = oldestFirst.next();
+            if (connection.isExpired(now) && idle.remove(connection)) {
+                close(connection);
+            }
+        }
+    }
+
+    private void close(PooledConnection connection) {
+        closed.incrementAndGet();
+        try {
+            connection.transport.close();
+        } catch (Exception e) {
+            log.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    private final class PooledConnection {
+
+        private final Transport transport;
+        private int messages;
+        private long lastUsedAt = System.currentTimeMillis();
+
+        private PooledConnection(Transport transport) {
+            this.transport = transport;
+        }
+
+        private boolean isExpired(long now) {
+            return now - lastUsedAt > idleTimeoutMillis;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.ideaspark.api.notification;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class RenderedEmail {
+
+    private final String subject;
+
+    private final String html;
+}
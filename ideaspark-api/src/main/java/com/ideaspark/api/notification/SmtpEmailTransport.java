@@ -0,0 +1,32 @@
+package com.ideaspark.api.notification;
+
+import com.ideaspark.shared.entity.OutboundNotification;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+@RequiredArgsConstructor
+public class SmtpEmailTransport implements NotificationTransport {
+
+    private final JavaMailSender mailSender;
+
+    @Override
+    public String getChannel() {
+        return "EMAIL";
+    }
+
+    @Override
+    public String send(OutboundNotification notification) throws Exception {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+        helper.setTo(notification.getRecipient());
+        helper.setSubject(notification.getSubject());
+        helper.setText(notification.getBody(), true);
+        helper.setFrom("noreply@ideaspark.com");
+
+        mailSender.send(message);
+        return message.getMessageID();
+    }
+}
@@ -0,0 +1,27 @@
+package com.ideaspark.api.notification;
+
+import com.ideaspark.shared.entity.OutboundNotification;
+import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.type.PhoneNumber;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class TwilioSmsTransport implements NotificationTransport {
+
+    private final String fromPhoneNumber;
+
+    @Override
+    public String getChannel() {
+        return "SMS";
+    }
+
+    @Override
+    public String send(OutboundNotification notification) {
+        Message message = Message.creator(
+                new PhoneNumber(notification.getRecipient()),
+                new PhoneNumber(fromPhoneNumber),
+                notification.getBody()
+        ).create();
+        return message.getSid();
+    }
+}
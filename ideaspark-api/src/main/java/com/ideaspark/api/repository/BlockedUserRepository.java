@@ -4,8 +4,6 @@ import com.ideaspark.shared.entity.BlockedUser;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,7 +11,5 @@ public interface BlockedUserRepository extends CrudRepository<BlockedUser, Strin
     
     Optional<BlockedUser> findByUserId(String userId);
     
-    List<BlockedUser> findByPermanentFalseAndUnblockAtBefore(LocalDateTime dateTime);
-    
     void deleteByUserId(String userId);
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.ideaspark.api.repository;
+
+import com.ideaspark.shared.entity.ExportJob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ExportJobRepository extends MongoRepository<ExportJob, String> {
+
+    Optional<ExportJob> findByIdAndUserId(String id, String userId);
+
+    List<ExportJob> findByNodeIdAndStatusAndCompletedAtBefore(String nodeId, String status, LocalDateTime date);
+
+    List<ExportJob> findByNodeIdAndStatusOrderByCompletedAtAsc(String nodeId, String status);
+}
@@ -1,6 +1,5 @@
 package com.ideaspark.api.repository;
 
-import com.ideaspark.shared.entity.User;
 import com.ideaspark.shared.entity.UserActivity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -14,12 +13,13 @@ import java.util.List;
 @Repository
 public interface UserActivityRepository extends MongoRepository<UserActivity, String> {
 
-    Page<UserActivity> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
+    // Activity feed: only the fields the API returns
+    @Query(value = "{'userId': ?0}",
+            fields = "{'action': 1, 'createdAt': 1, 'ipAddress': 1, 'deviceInfo': 1, 'details': 1}",
+            sort = "{'createdAt': -1}")
+    Page<UserActivity> findByUserIdOrderByCreatedAtDesc(String userId, Pageable pageable);
 
-    List<UserActivity> findByUserAndActionOrderByCreatedAtDesc(User user, String action);
-
-    @Query("{'user': ?0, 'createdAt': {$gte: ?1, $lt: ?2}}")
-    List<UserActivity> findByUserAndCreatedAtBetween(User user, LocalDateTime start, LocalDateTime end);
+    List<UserActivity> findByUserIdAndActionOrderByCreatedAtDesc(String userId, String action);
 
     @Query("{'featureName': ?0, 'createdAt': {$gte: ?1}}")
     long countByFeatureNameAndCreatedAtAfter(String featureName, LocalDateTime date);
@@ -27,24 +27,15 @@ public interface UserActivityRepository extends MongoRepository<UserActivity, St
     @Query("{'action': ?0, 'createdAt': {$gte: ?1, $lt: ?2}}")
     long countByActionAndCreatedAtBetween(String action, LocalDateTime start, LocalDateTime end);
 
-    // Add count method for user ID
-    @Query("{'user._id': ?0}")
     long countByUserId(String userId);
 
-    // Add find method for user ID (for PDF export)
-    @Query("{'user._id': ?0}")
-    List<UserActivity> findByUserId(String userId);
-
-    @Query("{'user._id': ?0}")
-    Page<UserActivity> findByUserId(String userId, Pageable pageable);
-
-    // Add methods for finding by user ID and timestamp range
-    @Query("{'user._id': ?0, 'createdAt': {$gte: ?1, $lt: ?2}}")
+    // Find by user ID and timestamp range, newest first
+    @Query(value = "{'userId': ?0, 'createdAt': {$gte: ?1, $lt: ?2}}", sort = "{'createdAt': -1}")
     List<UserActivity> findByUserIdAndTimestampBetween(String userId, LocalDateTime start, LocalDateTime end);
 
-    // Add method for finding by user ID ordered by timestamp
-    @Query("{'user._id': ?0}")
+    // Find by user ID ordered by timestamp
+    @Query(value = "{'userId': ?0}", sort = "{'createdAt': -1}")
     List<UserActivity> findByUserIdOrderByTimestampDesc(String userId);
 
-    void deleteByUserAndCreatedAtBefore(User user, LocalDateTime date);
-}
\ No newline at end of file
+    void deleteByUserIdAndCreatedAtBefore(String userId, LocalDateTime date);
+}
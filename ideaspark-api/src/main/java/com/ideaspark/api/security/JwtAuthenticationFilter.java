@@ -2,11 +2,13 @@ package com.ideaspark.api.security;
 
 import com.ideaspark.api.service.JwtService;
 import com.ideaspark.api.service.UserDetailsServiceImpl;
+import com.ideaspark.api.service.interfaces.UserBlockingService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,11 +19,26 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsServiceImpl userDetailsService;
+    private final UserAccessCache userAccessCache;
+    private final UserBlockingService userBlockingService;
+    private final boolean claimsMode;
+
+    public JwtAuthenticationFilter(
+            JwtService jwtService,
+            UserDetailsServiceImpl userDetailsService,
+            UserAccessCache userAccessCache,
+            UserBlockingService userBlockingService,
+            @Value("${jwt.authentication-mode:claims}") String authenticationMode) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.userAccessCache = userAccessCache;
+        this.userBlockingService = userBlockingService;
+        this.claimsMode = "claims".equalsIgnoreCase(authenticationMode);
+    }
 
     @Override
     protected void doFilterInternal(
@@ -29,7 +46,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             HttpServletResponse response,
             FilterChain filterChain
     ) throws ServletException, IOException {
-        
+
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
         final String userEmail;
@@ -40,14 +57,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        
+
         try {
-            userEmail = jwtService.extractUsername(jwt);
+            // Single verified parse per request, shared through the claims cache
+            Claims claims = jwtService.extractAllClaims(jwt);
+            userEmail = claims.getSubject();
 
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                UserDetails userDetails = resolveUserDetails(jwt, claims, userEmail);
 
-                if (jwtService.validateToken(jwt, userDetails)) {
+                if (userDetails != null && jwtService.validateToken(claims, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -63,4 +82,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    /**
+     * In claims mode, access tokens carrying userId and role are trusted as-is after the
+     * local access check. Tokens without those claims (e.g. refresh tokens) and the
+     * "database" mode fall back to loading the user from MongoDB. Blocked users and revoked
+     * tokens are rejected first, in either mode.
+     */
+    private UserDetails resolveUserDetails(String jwt, Claims claims, String userEmail) {
+        String userId = claims.get("userId", String.class);
+        String role = claims.get("role", String.class);
+
+        if (userBlockingService.isUserBlocked(userId) || userAccessCache.isTokenRevoked(jwt)) {
+            return null;
+        }
+
+        if (!claimsMode || userId == null || role == null) {
+            return this.userDetailsService.loadUserByUsername(userEmail);
+        }
+
+        if (!userAccessCache.isAccessAllowed(userId)) {
+            return null;
+        }
+
+        return new JwtUserPrincipal(userId, userEmail, role, claims.get("subscriptionType", String.class));
+    }
+}
@@ -0,0 +1,120 @@
+package com.ideaspark.api.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of already verified JWT claims.
+ * Entries are keyed by a SHA-256 digest of the token (the raw token is never kept)
+ * and expire no later than the token's own "exp" claim.
+ */
+@Component
+public class JwtClaimsCache {
+
+    private final boolean enabled;
+    private final long maxTtlNanos;
+    private final Cache<String, Claims> cache;
+
+    public JwtClaimsCache(
+            @Value("${jwt.claims-cache.enabled:true}") boolean enabled,
+            @Value("${jwt.claims-cache.max-size:10000}") long maxSize,
+            @Value("${jwt.claims-cache.max-ttl:PT15M}") Duration maxTtl) {
+        this.enabled = enabled;
+        this.maxTtlNanos = maxTtl.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ClaimsExpiry())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Return cached claims for the token, or verify it with the given parser and cache the result.
+     * Parsing failures (bad signature, expired, malformed) are propagated and never cached.
+     */
+    public Claims get(String token, Function<String, Claims> parser) {
+        if (!enabled) {
+            return parser.apply(token);
+        }
+        return cache.get(digest(token), key -> parser.apply(token));
+    }
+
+    public void invalidate(String token) {
+        cache.invalidate(digest(token));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new HashMap<>();
+        result.put("enabled", enabled);
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+
+    /**
+     * Digest used as the cache key and wherever a token has to be referenced without storing it.
+     */
+    public static String digest(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] hash = md.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private final class ClaimsExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return maxTtlNanos;
+            }
+            long remainingNanos = Duration.ofMillis(expiration.getTime() - System.currentTimeMillis()).toNanos();
+            return Math.max(0, Math.min(remainingNanos, maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
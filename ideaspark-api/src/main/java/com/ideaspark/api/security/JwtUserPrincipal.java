@@ -0,0 +1,62 @@
+package com.ideaspark.api.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Principal built straight from verified token claims (no database lookup).
+ * The username stays the user's email so {@code Authentication.getName()} behaves
+ * exactly like the database-backed principal.
+ */
+@Getter
+public class JwtUserPrincipal implements UserDetails {
+
+    private final String userId;
+    private final String email;
+    private final String role;
+    private final String subscriptionType;
+    private final Collection<? extends GrantedAuthority> authorities;
+
+    public JwtUserPrincipal(String userId, String email, String role, String subscriptionType) {
+        this.userId = userId;
+        this.email = email;
+        this.role = role;
+        this.subscriptionType = subscriptionType;
+        this.authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
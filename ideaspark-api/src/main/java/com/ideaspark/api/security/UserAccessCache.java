@@ -0,0 +1,111 @@
+package com.ideaspark.api.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.ideaspark.api.event.TokenRevokedEvent;
+import com.ideaspark.api.event.UserChangedEvent;
+import com.ideaspark.api.repository.UserRepository;
+import com.ideaspark.shared.entity.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Local, event-invalidated view of the per-user checks needed by claims-based authentication:
+ * whether the account may still authenticate, and which individual tokens have been revoked.
+ * The database is read at most once per user per TTL instead of once per request.
+ */
+@Component
+@Slf4j
+public class UserAccessCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, Boolean> accessByUserId;
+    private final Cache<String, Long> revokedTokens;
+
+    public UserAccessCache(
+            UserRepository userRepository,
+            @Value("${jwt.access-cache.max-size:50000}") long maxSize,
+            @Value("${jwt.access-cache.ttl:PT5M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.accessByUserId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.revokedTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new RevocationExpiry())
+                .build();
+    }
+
+    /**
+     * @return true if the user still exists, is active and is not blocked
+     */
+    public boolean isAccessAllowed(String userId) {
+        Boolean allowed = accessByUserId.get(userId, this::loadAccess);
+        return Boolean.TRUE.equals(allowed);
+    }
+
+    public boolean isTokenRevoked(String token) {
+        return revokedTokens.getIfPresent(JwtClaimsCache.digest(token)) != null;
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getUserId() != null) {
+            accessByUserId.invalidate(event.getUserId());
+        } else {
+            accessByUserId.invalidateAll();
+        }
+        log.debug("Access state invalidated: {}", event);
+    }
+
+    @EventListener
+    public void onTokenRevoked(TokenRevokedEvent event) {
+        if (event.getExpiresAtMillis() > System.currentTimeMillis()) {
+            revokedTokens.put(event.getTokenDigest(), event.getExpiresAtMillis());
+        }
+    }
+
+    public long accessCacheHits() {
+        return accessByUserId.stats().hitCount();
+    }
+
+    public long accessCacheMisses() {
+        return accessByUserId.stats().missCount();
+    }
+
+    private Boolean loadAccess(String userId) {
+        return userRepository.findById(userId)
+                .map(this::canAuthenticate)
+                .orElse(false);
+    }
+
+    private boolean canAuthenticate(User user) {
+        return Boolean.TRUE.equals(user.getIsActive()) && !user.isBlocked();
+    }
+
+    // Revocation entries are only needed until the token would have expired anyway
+    private static final class RevocationExpiry implements Expiry<String, Long> {
+
+        @Override
+        public long expireAfterCreate(String key, Long expiresAtMillis, long currentTime) {
+            return Duration.ofMillis(Math.max(0, expiresAtMillis - System.currentTimeMillis())).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Long expiresAtMillis, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, expiresAtMillis, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Long expiresAtMillis, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
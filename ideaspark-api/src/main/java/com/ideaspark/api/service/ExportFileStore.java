@@ -0,0 +1,123 @@
+package com.ideaspark.api.service;
+
+import com.ideaspark.shared.entity.ExportJob;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.stream.Stream;
+
+/**
+ * Local directory holding generated export artifacts.
+ * Artifacts are written to a temporary name and moved into place once complete, so a
+ * download never sees a half-written file. The directory is local to this node, so jobs
+ * record the {@link #getNodeId() node id} of the store that holds their artifact; nodes
+ * sharing one directory (a shared volume) must be configured with the same id.
+ */
+@Component
+@Slf4j
+public class ExportFileStore {
+
+    private final Path root;
+    private final String nodeId;
+
+    public ExportFileStore(
+            @Value("${export.storage.dir:${java.io.tmpdir}/ideaspark-exports}") String dir,
+            @Value("${export.storage.node-id:}") String nodeId) {
+        this.root = Paths.get(dir).toAbsolutePath().normalize();
+        // Must survive restarts: artifacts written before a restart are still owned by this node
+        this.nodeId = nodeId == null || nodeId.isBlank() ? hostName() : nodeId;
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(root);
+        log.info("Export artifacts are stored in {} (node {})", root, nodeId);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * @return true if this store holds the artifacts of the given job
+     */
+    public boolean owns(ExportJob job) {
+        return nodeId.equals(job.getNodeId());
+    }
+
+    public OutputStream openForWrite(String fileName) {
+        try {
+            return Files.newOutputStream(resolve(fileName + ".part"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Publish a fully written artifact under its final name.
+     * @return size of the artifact in bytes
+     */
+    public long commit(String fileName) {
+        try {
+            Path target = resolve(fileName);
+            Files.move(resolve(fileName + ".part"), target,
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return Files.size(target);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Resource getResource(String fileName) {
+        Path path = resolve(fileName);
+        return Files.isRegularFile(path) ? new FileSystemResource(path) : null;
+    }
+
+    public void delete(String fileName) {
+        try {
+            Files.deleteIfExists(resolve(fileName));
+            Files.deleteIfExists(resolve(fileName + ".part"));
+        } catch (IOException e) {
+            log.warn("Failed to delete export artifact {}: {}", fileName, e.getMessage());
+        }
+    }
+
+    public long totalSize() {
+        try (Stream<Path> files = Files.list(root)) {
+            return files.filter(Files::isRegularFile)
+                    .mapToLong(path -> path.toFile().length())
+                    .sum();
+        } catch (IOException e) {
+            log.warn("Failed to compute export store size: {}", e.getMessage());
+            return 0L;
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown";
+        }
+    }
+
+    private Path resolve(String fileName) {
+        Path path = root.resolve(fileName).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Invalid export file name: " + fileName);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,444 @@
+package com.ideaspark.api.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ideaspark.api.repository.ExportJobRepository;
+import com.ideaspark.api.service.interfaces.PdfExportService;
+import com.ideaspark.shared.dto.ExportRequest;
+import com.ideaspark.shared.entity.AIGeneration;
+import com.ideaspark.shared.entity.ExportJob;
+import com.ideaspark.shared.entity.Idea;
+import com.ideaspark.shared.entity.User;
+import com.ideaspark.shared.entity.UserActivity;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Runs export jobs on a small bounded worker pool, off the request threads.
+ * Records are read through Mongo cursors and written straight into an artifact in the
+ * {@link ExportFileStore}; progress is persisted on the job document at a fixed interval
+ * so any node can report it.
+ */
+@Component
+@Slf4j
+public class ExportJobProcessor {
+
+    private final ExportJobRepository exportJobRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ExportFileStore fileStore;
+    private final PdfExportService pdfExportService;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor executor;
+    private final long progressIntervalMillis;
+    private final int cursorBatchSize;
+
+    public ExportJobProcessor(
+            ExportJobRepository exportJobRepository,
+            MongoTemplate mongoTemplate,
+            ExportFileStore fileStore,
+            PdfExportService pdfExportService,
+            ObjectMapper objectMapper,
+            @Value("${export.jobs.pool-size:2}") int poolSize,
+            @Value("${export.jobs.queue-capacity:100}") int queueCapacity,
+            @Value("${export.jobs.progress-interval:PT1S}") Duration progressInterval,
+            @Value("${export.pdf.cursor-batch-size:200}") int cursorBatchSize) {
+        this.exportJobRepository = exportJobRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.fileStore = fileStore;
+        this.pdfExportService = pdfExportService;
+        this.objectMapper = objectMapper;
+        this.progressIntervalMillis = progressInterval.toMillis();
+        this.cursorBatchSize = cursorBatchSize;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "export-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * @return false if the pool and its queue are full; the job is left untouched
+     */
+    public boolean submit(ExportJob job) {
+        try {
+            executor.execute(() -> run(job.getId()));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Fails PROCESSING jobs whose worker has not written a heartbeat since the cutoff.
+     * QUEUED jobs are left alone: nothing refreshes them while they wait for a worker.
+     * The status condition is part of the update, so a job that completed or made
+     * progress since it was last read is not touched.
+     *
+     * @return number of jobs marked as failed
+     */
+    public long failStalledJobs(Duration staleAfter) {
+        LocalDateTime now = LocalDateTime.now();
+        return mongoTemplate.updateMulti(
+                Query.query(Criteria.where("status").is("PROCESSING").and("updatedAt").lt(now.minus(staleAfter))),
+                new Update().set("status", "FAILED")
+                        .set("errorMessage", "Export was interrupted")
+                        .set("updatedAt", now),
+                ExportJob.class).getModifiedCount();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("activeWorkers", executor.getActiveCount());
+        stats.put("queuedJobs", executor.getQueue().size());
+        stats.put("completedJobs", executor.getCompletedTaskCount());
+        return stats;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Interrupted jobs stay PROCESSING and are failed later by the stale-job sweep
+        executor.shutdownNow();
+    }
+
+    private void run(String jobId) {
+        ExportJob job = exportJobRepository.findById(jobId).orElse(null);
+        if (job == null || !"QUEUED".equals(job.getStatus())) {
+            return;
+        }
+
+        String fileName = job.getId() + "." + extension(job.getFormat());
+        try {
+            job.setStatus("PROCESSING");
+            job.setStartedAt(LocalDateTime.now());
+            job.setUpdatedAt(LocalDateTime.now());
+            job.setTotalItems(countItems(job));
+            exportJobRepository.save(job);
+
+            Progress progress = new Progress(job);
+            try (OutputStream out = new BufferedOutputStream(fileStore.openForWrite(fileName))) {
+                switch (job.getFormat()) {
+                    case "PDF":
+                        // The renderer reports no per-record progress; its output keeps the job alive
+                        writePdf(job, new HeartbeatOutputStream(out, progress));
+                        break;
+                    case "CSV":
+                        writeCsv(job, out, progress);
+                        break;
+                    default:
+                        writeJson(job, out, progress);
+                }
+            }
+
+            long size = fileStore.commit(fileName);
+            job.setStatus("COMPLETED");
+            job.setFileName(fileName);
+            job.setFileSize(size);
+            job.setProgress(100);
+            job.setProcessedItems(Math.max(progress.processed, job.getTotalItems()));
+            job.setCompletedAt(LocalDateTime.now());
+            job.setUpdatedAt(LocalDateTime.now());
+            exportJobRepository.save(job);
+            log.info("Export {} completed ({} items, {} bytes)", job.getId(), job.getProcessedItems(), size);
+
+        } catch (Exception e) {
+            log.error("Export {} failed: {}", jobId, e.getMessage());
+            fileStore.delete(fileName);
+            job.setStatus("FAILED");
+            job.setErrorMessage(e.getMessage());
+            job.setCompletedAt(LocalDateTime.now());
+            job.setUpdatedAt(LocalDateTime.now());
+            exportJobRepository.save(job);
+        }
+    }
+
+    private void writeJson(ExportJob job, OutputStream out, Progress progress) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeStringField("exportId", job.getId());
+            generator.writeStringField("exportedAt", LocalDateTime.now().toString());
+
+            if ("USER_DATA".equals(job.getJobType())) {
+                User user = mongoTemplate.findById(job.getUserId(), User.class);
+                if (user != null) {
+                    generator.writeObjectField("user", profileOf(user));
+                }
+            }
+
+            for (String dataType : job.getDataTypes()) {
+                generator.writeArrayFieldStart(jsonField(dataType));
+                try (Stream<?> records = stream(job, dataType)) {
+                    records.forEach(record -> {
+                        try {
+                            generator.writeObject(record);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        progress.increment();
+                    });
+                }
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    private void writeCsv(ExportJob job, OutputStream out, Progress progress) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("dataType,id,createdAt,category,title,content\n");
+        for (String dataType : job.getDataTypes()) {
+            try (Stream<?> records = stream(job, dataType)) {
+                records.forEach(record -> {
+                    try {
+                        writer.write(csvRow(dataType, record));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    progress.increment();
+                });
+            }
+        }
+        writer.flush();
+    }
+
+    private void writePdf(ExportJob job, OutputStream out) {
+        ExportRequest request = ExportRequest.builder()
+                .exportType("PDF")
+                .dateFrom(job.getStartDate() != null ? job.getStartDate().toString() : null)
+                .dateTo(job.getEndDate() != null ? job.getEndDate().toString() : null)
+                .build();
+
+        // A PDF holds one report; multi-type exports use the complete-user report
+        String single = job.getDataTypes().size() == 1 ? job.getDataTypes().get(0) : null;
+        if ("USER_DATA".equals(job.getJobType()) || single == null) {
+            pdfExportService.writeCompleteUserPdf(job.getUserId(), request, out);
+            return;
+        }
+        switch (single) {
+            case "IDEAS":
+                pdfExportService.writeIdeasPdf(job.getUserId(), request, out);
+                break;
+            case "AI_GENERATIONS":
+                pdfExportService.writeAIGenerationsPdf(job.getUserId(), request, out);
+                break;
+            case "CHAT_HISTORY":
+                pdfExportService.writeChatHistoryPdf(job.getUserId(), request, out);
+                break;
+            default:
+                pdfExportService.writeUserActivityPdf(job.getUserId(), request, out);
+        }
+    }
+
+    private long countItems(ExportJob job) {
+        long total = 0;
+        for (String dataType : job.getDataTypes()) {
+            total += mongoTemplate.count(query(job, dataType), entityClass(dataType));
+        }
+        return total;
+    }
+
+    private Stream<?> stream(ExportJob job, String dataType) {
+        Query query = query(job, dataType).cursorBatchSize(cursorBatchSize);
+        if ("USER_ACTIVITY".equals(dataType)) {
+            query.with(Sort.by(Sort.Direction.DESC, "createdAt"));
+        }
+        return mongoTemplate.stream(query, entityClass(dataType));
+    }
+
+    private Query query(ExportJob job, String dataType) {
+        Criteria criteria = Criteria.where("userId").is(job.getUserId());
+        if ("CHAT_HISTORY".equals(dataType)) {
+            criteria = criteria.and("type").is("CHAT");
+        }
+        if (job.getStartDate() != null && job.getEndDate() != null) {
+            criteria = criteria.and("createdAt").gte(job.getStartDate()).lte(job.getEndDate());
+        }
+        return new Query(criteria);
+    }
+
+    private Class<?> entityClass(String dataType) {
+        switch (dataType) {
+            case "IDEAS":
+                return Idea.class;
+            case "AI_GENERATIONS":
+            case "CHAT_HISTORY":
+                return AIGeneration.class;
+            case "USER_ACTIVITY":
+                return UserActivity.class;
+            default:
+                throw new IllegalArgumentException("Unsupported data type: " + dataType);
+        }
+    }
+
+    private String jsonField(String dataType) {
+        switch (dataType) {
+            case "IDEAS":
+                return "ideas";
+            case "AI_GENERATIONS":
+                return "aiGenerations";
+            case "CHAT_HISTORY":
+                return "chatHistory";
+            default:
+                return "activities";
+        }
+    }
+
+    private String csvRow(String dataType, Object record) {
+        String id;
+        LocalDateTime createdAt;
+        String category;
+        String title;
+        String content;
+        if (record instanceof Idea idea) {
+            id = idea.getId();
+            createdAt = idea.getCreatedAt();
+            category = idea.getCategory();
+            title = idea.getTitle();
+            content = idea.getDescription();
+        } else if (record instanceof AIGeneration generation) {
+            id = generation.getId();
+            createdAt = generation.getCreatedAt();
+            category = generation.getType();
+            title = generation.getModel();
+            content = generation.getPrompt();
+        } else {
+            UserActivity activity = (UserActivity) record;
+            id = activity.getId();
+            createdAt = activity.getCreatedAt();
+            category = activity.getFeatureName();
+            title = activity.getAction();
+            content = activity.getDetails();
+        }
+        return String.join(",", csv(dataType), csv(id), csv(createdAt != null ? createdAt.toString() : null),
+                csv(category), csv(title), csv(content)) + "\n";
+    }
+
+    private String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    // Only profile fields belong in a data export; credentials and OTP state are left out
+    private Map<String, Object> profileOf(User user) {
+        Map<String, Object> profile = new LinkedHashMap<>();
+        profile.put("id", user.getId());
+        profile.put("username", user.getUsername());
+        profile.put("email", user.getEmail());
+        profile.put("fullName", user.getFullName());
+        profile.put("phone", user.getPhone());
+        profile.put("country", user.getCountry());
+        profile.put("timezone", user.getTimezone());
+        profile.put("language", user.getLanguage());
+        profile.put("role", user.getRole());
+        profile.put("isPremium", user.getIsPremium());
+        profile.put("createdAt", user.getCreatedAt());
+        profile.put("lastLoginAt", user.getLastLoginAt());
+        return profile;
+    }
+
+    private String extension(String format) {
+        switch (format) {
+            case "PDF":
+                return "pdf";
+            case "CSV":
+                return "csv";
+            default:
+                return "json";
+        }
+    }
+
+    // Persists progress at most once per interval so large exports don't hammer MongoDB
+    private final class Progress {
+        private final ExportJob job;
+        private long processed;
+        private long lastFlush = System.currentTimeMillis();
+
+        private Progress(ExportJob job) {
+            this.job = job;
+        }
+
+        void increment() {
+            processed++;
+            heartbeat();
+        }
+
+        void heartbeat() {
+            long now = System.currentTimeMillis();
+            if (now - lastFlush >= progressIntervalMillis) {
+                lastFlush = now;
+                int percent = job.getTotalItems() > 0
+                        ? (int) Math.min(99, processed * 100 / job.getTotalItems())
+                        : 0;
+                mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(job.getId())),
+                        new Update().set("processedItems", processed)
+                                .set("progress", percent)
+                                .set("updatedAt", LocalDateTime.now()),
+                        ExportJob.class);
+            }
+        }
+    }
+
+    // Lets the stale-job sweep see that a long PDF render is still producing output
+    private static final class HeartbeatOutputStream extends FilterOutputStream {
+        private final Progress progress;
+
+        private HeartbeatOutputStream(OutputStream out, Progress progress) {
+            super(out);
+            this.progress = progress;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            progress.heartbeat();
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            progress.heartbeat();
+        }
+
+        @Override
+        public void close() {
+            // The artifact stream is closed by the caller
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.ideaspark.api.service;
+
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a newest-first listing: the (createdAt, _id) of the last item returned.
+ * Handed to clients as an opaque url-safe token.
+ */
+public final class FeedCursor {
+
+    private static final String VERSION = "1";
+
+    private final LocalDateTime createdAt;
+    private final String id;
+
+    private FeedCursor(LocalDateTime createdAt, String id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the item has no createdAt or its id is not an
+     *                                  ObjectId, since no page could seek past it
+     */
+    public static String encode(LocalDateTime createdAt, String id) {
+        if (createdAt == null || id == null || !ObjectId.isValid(id)) {
+            throw new IllegalArgumentException("Cursor needs a createdAt and an ObjectId, got " + createdAt + "/" + id);
+        }
+        String raw = VERSION + "|" + createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode}
+     */
+    public static FeedCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            // A non-ObjectId id would be compared as a string against ObjectIds and match nothing
+            if (parts.length != 3 || !VERSION.equals(parts[0]) || !ObjectId.isValid(parts[2])) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new FeedCursor(LocalDateTime.parse(parts[1]), parts[2]);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.ideaspark.api.service;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.Updates;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Lease-based lock in the job_locks collection, so a scheduled job runs on one node at a
+ * time. A lease is held until it is released or its expiry passes; the holder renews it
+ * while working, and a node that dies simply lets it lapse.
+ */
+@Component
+@Slf4j
+public class JobLock {
+
+    private static final String COLLECTION = "job_locks";
+
+    private final MongoTemplate mongoTemplate;
+    private final String nodeId;
+
+    public JobLock(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        this.nodeId = hostName() + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * @return true if this node now holds the lease (newly acquired or re-entered)
+     */
+    public boolean tryAcquire(String name, Duration lease) {
+        Date now = new Date();
+        try {
+            locks().findOneAndUpdate(
+                    Filters.and(Filters.eq("_id", name),
+                            Filters.or(Filters.lt("lockedUntil", now), Filters.eq("owner", nodeId))),
+                    Updates.combine(
+                            Updates.set("owner", nodeId),
+                            Updates.set("lockedUntil", new Date(now.getTime() + lease.toMillis())),
+                            Updates.set("acquiredAt", now)),
+                    new FindOneAndUpdateOptions().upsert(true));
+            return true;
+        } catch (MongoWriteException e) {
+            if (e.getError().getCategory() == ErrorCategory.DUPLICATE_KEY) {
+                return false;
+            }
+            throw e;
+        } catch (MongoCommandException e) {
+            // Held by another node: the filter missed and the upsert collided with its lock document
+            if (ErrorCategory.fromErrorCode(e.getErrorCode()) == ErrorCategory.DUPLICATE_KEY) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return false if the lease was lost (expired and taken over), in which case the caller must stop
+     */
+    public boolean renew(String name, Duration lease) {
+        return locks().updateOne(
+                Filters.and(Filters.eq("_id", name), Filters.eq("owner", nodeId)),
+                Updates.set("lockedUntil", new Date(System.currentTimeMillis() + lease.toMillis()))
+        ).getMatchedCount() == 1;
+    }
+
+    public void release(String name) {
+        try {
+            locks().updateOne(
+                    Filters.and(Filters.eq("_id", name), Filters.eq("owner", nodeId)),
+                    Updates.set("lockedUntil", new Date()));
+        } catch (Exception e) {
+            // The lease expires on its own
+            log.warn("Failed to release job lock {}: {}", name, e.getMessage());
+        }
+    }
+
+    private MongoCollection<Document> locks() {
+        return mongoTemplate.getCollection(COLLECTION);
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown";
+        }
+    }
+}
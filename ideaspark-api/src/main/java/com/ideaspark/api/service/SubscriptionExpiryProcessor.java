@@ -0,0 +1,253 @@
+package com.ideaspark.api.service;
+
+import com.ideaspark.api.event.UserChangedEvent;
+import com.ideaspark.api.event.UserStatsChangedEvent;
+import com.ideaspark.shared.entity.Subscription;
+import com.ideaspark.shared.entity.User;
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateManyModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.result.UpdateResult;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Expires active subscriptions whose expiresAt has passed, in _id-ordered chunks: each
+ * chunk is one bulk update of the subscriptions and one of their users. A run covers
+ * everything that expired before its cutoff; the cutoff and the last processed _id are
+ * checkpointed after each chunk so a run interrupted by a crash resumes where it stopped.
+ * The job holds a {@link JobLock} lease while running, so only one node works at a time.
+ */
+@Component
+@Slf4j
+public class SubscriptionExpiryProcessor {
+
+    static final String JOB_ID = "subscription-expiry";
+    private static final String CHECKPOINT_COLLECTION = "job_checkpoints";
+
+    private final MongoTemplate mongoTemplate;
+    private final JobLock jobLock;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final Duration lease;
+
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    public SubscriptionExpiryProcessor(
+            MongoTemplate mongoTemplate,
+            JobLock jobLock,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${subscription.expiry.chunk-size:1000}") int chunkSize,
+            @Value("${subscription.expiry.lease:PT2M}") Duration lease) {
+        this.mongoTemplate = mongoTemplate;
+        this.jobLock = jobLock;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.lease = lease;
+    }
+
+    /**
+     * @return number of subscriptions expired by this call (0 if another node holds the lease)
+     */
+    @Scheduled(fixedDelayString = "${subscription.expiry.interval:PT1M}", initialDelayString = "${subscription.expiry.interval:PT1M}")
+    public long run() {
+        if (!jobLock.tryAcquire(JOB_ID, lease)) {
+            log.debug("Subscription expiry is running on another node");
+            return 0;
+        }
+        long started = System.currentTimeMillis();
+        long expired = 0;
+        long usersDowngraded = 0;
+        try {
+            Document checkpoint = loadCheckpoint();
+            boolean resume = checkpoint != null && !Boolean.TRUE.equals(checkpoint.getBoolean("completed"));
+            Date cutoff = resume ? checkpoint.getDate("cutoff") : new Date();
+            Object lastId = resume ? checkpoint.get("lastId") : null;
+            if (resume) {
+                log.info("Resuming subscription expiry run (cutoff {}, after {})", cutoff, lastId);
+            }
+
+            MongoCollection<Document> subscriptions = mongoTemplate.getCollection(
+                    mongoTemplate.getCollectionName(Subscription.class));
+            MongoCollection<Document> users = mongoTemplate.getCollection(
+                    mongoTemplate.getCollectionName(User.class));
+
+            while (true) {
+                Bson filter = Filters.and(
+                        Filters.eq("status", "active"),
+                        Filters.lt("expiresAt", cutoff));
+                if (lastId != null) {
+                    filter = Filters.and(filter, Filters.gt("_id", lastId));
+                }
+
+                List<Document> chunk = subscriptions.find(filter)
+                        .projection(Projections.include("_id", "user"))
+                        .sort(Sorts.ascending("_id"))
+                        .limit(chunkSize)
+                        .into(new ArrayList<>(chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+
+                List<Object> subscriptionIds = new ArrayList<>(chunk.size());
+                Set<Object> userRefs = new LinkedHashSet<>();
+                for (Document doc : chunk) {
+                    subscriptionIds.add(doc.get("_id"));
+                    if (refId(doc.get("user")) != null) {
+                        userRefs.add(doc.get("user"));
+                    }
+                }
+
+                Date now = new Date();
+                // Users first: if the run dies in between, the subscriptions are still active
+                // and the (idempotent) user update is repeated on resume
+                usersDowngraded += downgradeUsers(users, subscriptions, userRefs, now);
+
+                // The status condition keeps a subscription renewed or cancelled meanwhile untouched
+                UpdateResult updated = subscriptions.updateMany(
+                        Filters.and(Filters.in("_id", subscriptionIds), Filters.eq("status", "active")),
+                        Updates.combine(Updates.set("status", "expired"), Updates.set("updatedAt", now)));
+                expired += updated.getModifiedCount();
+
+                lastId = chunk.get(chunk.size() - 1).get("_id");
+                saveCheckpoint(cutoff, lastId, expired, false);
+
+                if (!jobLock.renew(JOB_ID, lease)) {
+                    log.warn("Lost subscription expiry lease after {} subscriptions; stopping", expired);
+                    return expired;
+                }
+            }
+
+            saveCheckpoint(cutoff, lastId, expired, true);
+            if (expired > 0) {
+                log.info("Expired {} subscriptions and downgraded {} users in {} ms",
+                        expired, usersDowngraded, System.currentTimeMillis() - started);
+            }
+            return expired;
+        } catch (Exception e) {
+            // The checkpoint keeps the progress made so far; the next run resumes from it
+            log.error("Subscription expiry interrupted after {} subscriptions", expired, e);
+            return expired;
+        } finally {
+            jobLock.release(JOB_ID);
+            recordRun(started, expired, usersDowngraded);
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>(lastRun);
+        Document checkpoint = loadCheckpoint();
+        if (checkpoint != null) {
+            status.put("completed", checkpoint.getBoolean("completed"));
+            status.put("cutoff", checkpoint.getDate("cutoff"));
+            status.put("checkpointAt", checkpoint.getDate("updatedAt"));
+        }
+        return status;
+    }
+
+    /**
+     * Downgrades the owners of the expiring subscriptions, except those who still hold
+     * another active subscription that has not expired (or never expires).
+     */
+    private long downgradeUsers(MongoCollection<Document> users, MongoCollection<Document> subscriptions,
+                                Set<Object> userRefs, Date now) {
+        Set<Object> userIds = new LinkedHashSet<>();
+        for (Object ref : userRefs) {
+            userIds.add(refId(ref));
+        }
+        // Matched on the whole reference, so the { user, status } index serves the lookup
+        for (Document stillActive : subscriptions.find(Filters.and(
+                        Filters.in("user", userRefs),
+                        Filters.eq("status", "active"),
+                        Filters.or(Filters.gte("expiresAt", now), Filters.eq("expiresAt", null))))
+                .projection(Projections.include("user"))) {
+            userIds.remove(refId(stillActive.get("user")));
+        }
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        Bson premiumUsers = Filters.and(Filters.in("_id", userIds), Filters.eq("isPremium", true));
+
+        // Emails are needed to drop the users from the near-cache, which is keyed by email
+        List<Document> affected = users.find(premiumUsers)
+                .projection(Projections.include("_id", "email"))
+                .into(new ArrayList<>(userIds.size()));
+        if (affected.isEmpty()) {
+            return 0;
+        }
+
+        long downgraded = users.bulkWrite(List.of(new UpdateManyModel<>(premiumUsers, Updates.combine(
+                Updates.set("isPremium", false),
+                Updates.unset("premiumExpiresAt"),
+                Updates.set("updatedAt", now))))).getModifiedCount();
+
+        for (Document user : affected) {
+            eventPublisher.publishEvent(new UserChangedEvent(
+                    idString(user.get("_id")), user.getString("email"), "SUBSCRIPTION_EXPIRED"));
+        }
+        if (downgraded > 0) {
+            eventPublisher.publishEvent(new UserStatsChangedEvent(0, 0, -downgraded, downgraded, null, false));
+        }
+        return downgraded;
+    }
+
+    private Object refId(Object ref) {
+        if (ref instanceof DBRef dbRef) {
+            return dbRef.getId();
+        } else if (ref instanceof Document refDoc) {
+            return refDoc.get("$id");
+        }
+        return null;
+    }
+
+    private String idString(Object id) {
+        return id instanceof ObjectId objectId ? objectId.toHexString() : String.valueOf(id);
+    }
+
+    private void recordRun(long started, long expired, long usersDowngraded) {
+        Map<String, Object> run = new HashMap<>();
+        run.put("lastRunAt", new Date(started));
+        run.put("lastRunMs", System.currentTimeMillis() - started);
+        run.put("lastRunExpired", expired);
+        run.put("lastRunUsersDowngraded", usersDowngraded);
+        lastRun = run;
+    }
+
+    private Document loadCheckpoint() {
+        return mongoTemplate.getCollection(CHECKPOINT_COLLECTION)
+                .find(Filters.eq("_id", JOB_ID))
+                .first();
+    }
+
+    private void saveCheckpoint(Date cutoff, Object lastId, long processed, boolean completed) {
+        Document checkpoint = new Document("_id", JOB_ID)
+                .append("cutoff", cutoff)
+                .append("lastId", lastId)
+                .append("processed", processed)
+                .append("completed", completed)
+                .append("updatedAt", new Date());
+        mongoTemplate.getCollection(CHECKPOINT_COLLECTION)
+                .replaceOne(Filters.eq("_id", JOB_ID), checkpoint, new ReplaceOptions().upsert(true));
+    }
+}
@@ -0,0 +1,210 @@
+package com.ideaspark.api.service;
+
+import com.ideaspark.api.repository.UserActivityRepository;
+import com.ideaspark.api.service.interfaces.ExportStatsService;
+import com.ideaspark.shared.entity.UserActivity;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind pipeline for {@link UserActivity} documents.
+ * Request threads only enqueue; a single background worker drains the bounded queue and
+ * writes batches with one insertMany, flushing when a batch is full or the flush interval
+ * has elapsed. Whatever is still queued is flushed on shutdown.
+ */
+@Component
+@Slf4j
+public class UserActivityWriter {
+
+    public enum OverflowPolicy { DROP, BLOCK }
+
+    private final MongoTemplate mongoTemplate;
+    private final UserActivityRepository userActivityRepository;
+    private final ExportStatsService exportStatsService;
+
+    private final boolean asyncEnabled;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutMillis;
+    private final BlockingQueue<UserActivity> queue;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+    private final AtomicLong lastFlushNanos = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public UserActivityWriter(
+            MongoTemplate mongoTemplate,
+            UserActivityRepository userActivityRepository,
+            ExportStatsService exportStatsService,
+            @Value("${activity.writer.async-enabled:true}") boolean asyncEnabled,
+            @Value("${activity.writer.queue-capacity:10000}") int queueCapacity,
+            @Value("${activity.writer.batch-size:500}") int batchSize,
+            @Value("${activity.writer.flush-interval:PT1S}") Duration flushInterval,
+            @Value("${activity.writer.overflow-policy:DROP}") OverflowPolicy overflowPolicy,
+            @Value("${activity.writer.block-timeout:PT0.05S}") Duration blockTimeout) {
+        this.mongoTemplate = mongoTemplate;
+        this.userActivityRepository = userActivityRepository;
+        this.exportStatsService = exportStatsService;
+        this.asyncEnabled = asyncEnabled;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushInterval.toMillis();
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutMillis = blockTimeout.toMillis();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!asyncEnabled) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::drainLoop, "user-activity-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Queue an activity for writing. Never throws; when the queue is full the activity is
+     * dropped (DROP) or the caller waits up to the block timeout first (BLOCK).
+     */
+    public void submit(UserActivity activity) {
+        if (!asyncEnabled) {
+            userActivityRepository.save(activity);
+            written.incrementAndGet();
+            exportStatsService.recordActivities(List.of(activity));
+            return;
+        }
+
+        boolean accepted;
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            try {
+                accepted = queue.offer(activity, blockTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                accepted = false;
+            }
+        } else {
+            accepted = queue.offer(activity);
+        }
+
+        if (!accepted) {
+            long total = dropped.incrementAndGet();
+            if (total == 1 || total % 1000 == 0) {
+                log.warn("User activity queue full, {} activities dropped so far", total);
+            }
+        }
+    }
+
+    private void drainLoop() {
+        List<UserActivity> buffer = new ArrayList<>(batchSize);
+        long lastFlush = System.currentTimeMillis();
+
+        while (running) {
+            try {
+                UserActivity first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    buffer.add(first);
+                    queue.drainTo(buffer, batchSize - buffer.size());
+                }
+            } catch (InterruptedException e) {
+                // Shutdown requested; the final flush below must run with the flag cleared
+                break;
+            }
+
+            long now = System.currentTimeMillis();
+            if (buffer.size() >= batchSize || (!buffer.isEmpty() && now - lastFlush >= flushIntervalMillis)) {
+                flush(buffer);
+                lastFlush = now;
+            }
+        }
+
+        // An interrupt that arrived outside poll() would make the driver abort the insert
+        boolean interrupted = Thread.interrupted();
+        queue.drainTo(buffer);
+        if (!buffer.isEmpty()) {
+            flush(buffer);
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flush(List<UserActivity> buffer) {
+        long start = System.nanoTime();
+        try {
+            List<UserActivity> batch = new ArrayList<>(buffer);
+            mongoTemplate.insert(batch, UserActivity.class);
+            written.addAndGet(batch.size());
+            batches.incrementAndGet();
+            exportStatsService.recordActivities(batch);
+        } catch (Exception e) {
+            failed.addAndGet(buffer.size());
+            log.error("Error writing batch of {} user activities: {}", buffer.size(), e.getMessage());
+        } finally {
+            buffer.clear();
+            long elapsed = System.nanoTime() - start;
+            lastFlushNanos.set(elapsed);
+            totalFlushNanos.addAndGet(elapsed);
+            maxFlushNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (worker == null) {
+            return;
+        }
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("{} user activities were still queued at shutdown", queue.size());
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public Map<String, Object> getStats() {
+        long batchCount = batches.get();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("asyncEnabled", asyncEnabled);
+        stats.put("queueDepth", queue.size());
+        stats.put("written", written.get());
+        stats.put("dropped", dropped.get());
+        stats.put("failed", failed.get());
+        stats.put("batches", batchCount);
+        stats.put("lastFlushMillis", lastFlushNanos.get() / 1_000_000.0);
+        stats.put("maxFlushMillis", maxFlushNanos.get() / 1_000_000.0);
+        stats.put("avgFlushMillis", batchCount == 0 ? 0.0 : totalFlushNanos.get() / 1_000_000.0 / batchCount);
+        return stats;
+    }
+}
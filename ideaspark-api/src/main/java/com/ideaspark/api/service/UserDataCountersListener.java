@@ -0,0 +1,31 @@
+package com.ideaspark.api.service;
+
+import com.ideaspark.api.service.interfaces.ExportStatsService;
+import com.ideaspark.shared.entity.AIGeneration;
+import com.ideaspark.shared.entity.Idea;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops a user's stored data counters whenever one of their ideas or AI generations is
+ * saved; an update may change a status or type bucket, so they are rebuilt on next read.
+ * Deletes are not tracked per user and are covered by the counters' max age.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserDataCountersListener extends AbstractMongoEventListener<Object> {
+
+    private final ExportStatsService exportStatsService;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        Object source = event.getSource();
+        if (source instanceof Idea idea) {
+            exportStatsService.invalidate(idea.getUserId());
+        } else if (source instanceof AIGeneration generation) {
+            exportStatsService.invalidate(generation.getUserId());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.ideaspark.api.service;
+
+import com.ideaspark.shared.dto.UserDTO;
+import com.ideaspark.shared.entity.User;
+import com.ideaspark.shared.enums.SubscriptionType;
+
+/**
+ * User entity to API representation, shared by the auth and user services.
+ */
+public final class UserMapper {
+
+    private UserMapper() {
+    }
+
+    public static UserDTO toUserDTO(User user) {
+        return UserDTO.builder()
+                .id(user.getId())
+                .email(user.getEmail())
+                .fullName(user.getFullName())
+                .profileImageUrl(user.getProfileImageUrl())
+                .phone(user.getPhone())
+                .country(user.getCountry())
+                .language(user.getLanguage())
+                .role(user.getRole())
+                .status(user.getStatus())
+                .isActive(user.getIsActive())
+                .isVerified(user.getIsVerified())
+                .isPremium(user.getIsPremium())
+                .subscriptionType(user.getIsPremium() ? SubscriptionType.PREMIUM : SubscriptionType.FREE)
+                .premiumExpiresAt(user.getPremiumExpiresAt())
+                .lastLoginAt(user.getLastLoginAt())
+                .createdAt(user.getCreatedAt())
+                .build();
+    }
+}
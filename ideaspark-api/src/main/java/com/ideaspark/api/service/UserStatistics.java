@@ -0,0 +1,141 @@
+package com.ideaspark.api.service;
+
+import com.ideaspark.api.event.UserStatsChangedEvent;
+import com.ideaspark.api.repository.UserRepository;
+import com.ideaspark.shared.enums.UserStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-memory admin user statistics. Counters are seeded from the users collection,
+ * moved by {@link UserStatsChangedEvent} deltas (local and relayed from other nodes)
+ * and periodically recounted to correct any drift, e.g. from writes that bypass the
+ * services or events lost between nodes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserStatistics {
+
+    private final UserRepository userRepository;
+
+    private long totalUsers;
+    private long activeUsers;
+    private long premiumUsers;
+    private long freeUsers;
+    private long newUsersToday;
+    private long newUsersThisMonth;
+
+    private LocalDate countedDay;
+    private volatile LocalDateTime reconciledAt;
+    private LocalDateTime updatedAt;
+
+    /**
+     * @return current counters with "asOf" (last change) and "reconciledAt" (last full recount)
+     */
+    public Map<String, Object> snapshot() {
+        if (reconciledAt == null) {
+            reconcile();
+        }
+        synchronized (this) {
+            if (reconciledAt == null) {
+                throw new IllegalStateException("User statistics are not available yet");
+            }
+            rollOver(LocalDate.now());
+
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("totalUsers", totalUsers);
+            stats.put("activeUsers", activeUsers);
+            stats.put("premiumUsers", premiumUsers);
+            stats.put("freeUsers", freeUsers);
+            stats.put("newUsersToday", newUsersToday);
+            stats.put("newUsersThisMonth", newUsersThisMonth);
+            stats.put("asOf", updatedAt);
+            stats.put("reconciledAt", reconciledAt);
+            return stats;
+        }
+    }
+
+    @EventListener
+    public synchronized void onUserStatsChanged(UserStatsChangedEvent event) {
+        if (event.isEmpty() || reconciledAt == null) {
+            // Nothing counted yet; the first recount will include this change
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        rollOver(today);
+
+        totalUsers += event.getTotalDelta();
+        activeUsers += event.getActiveDelta();
+        premiumUsers += event.getPremiumDelta();
+        freeUsers += event.getFreeDelta();
+
+        if (event.getCreatedAt() != null) {
+            LocalDate createdOn = event.getCreatedAt().toLocalDate();
+            if (createdOn.equals(today)) {
+                newUsersToday += event.getTotalDelta();
+            }
+            if (YearMonth.from(createdOn).equals(YearMonth.from(today))) {
+                newUsersThisMonth += event.getTotalDelta();
+            }
+        }
+        updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Recount every statistic from the users collection. Deltas applied while the
+     * counts run may be counted twice or missed; the next recount corrects them.
+     */
+    @Scheduled(fixedDelayString = "${stats.users.reconcile-interval:PT10M}", initialDelayString = "${stats.users.reconcile-interval:PT10M}")
+    public void reconcile() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime today = now.toLocalDate().atStartOfDay();
+            LocalDateTime monthStart = today.withDayOfMonth(1);
+
+            long total = userRepository.count();
+            long active = userRepository.countByStatus(UserStatus.ACTIVE);
+            long premium = userRepository.countByIsPremium(true);
+            long free = userRepository.countByIsPremium(false);
+            long newToday = userRepository.countByCreatedAtAfter(today);
+            long newThisMonth = userRepository.countByCreatedAtAfter(monthStart);
+
+            synchronized (this) {
+                if (reconciledAt != null && totalUsers != total) {
+                    log.info("User statistics drifted by {} users, corrected", total - totalUsers);
+                }
+                totalUsers = total;
+                activeUsers = active;
+                premiumUsers = premium;
+                freeUsers = free;
+                newUsersToday = newToday;
+                newUsersThisMonth = newThisMonth;
+                countedDay = now.toLocalDate();
+                reconciledAt = now;
+                updatedAt = now;
+            }
+        } catch (Exception e) {
+            log.error("Error reconciling user statistics: {}", e.getMessage());
+        }
+    }
+
+    private void rollOver(LocalDate today) {
+        if (countedDay == null || countedDay.equals(today)) {
+            return;
+        }
+        if (!YearMonth.from(countedDay).equals(YearMonth.from(today))) {
+            newUsersThisMonth = 0;
+        }
+        newUsersToday = 0;
+        countedDay = today;
+    }
+}
@@ -1,10 +1,16 @@
 package com.ideaspark.api.service.impl;
 
+import com.ideaspark.api.cache.UserNearCache;
+import com.ideaspark.api.event.TokenRevokedEvent;
+import com.ideaspark.api.event.UserChangedEvent;
+import com.ideaspark.api.event.UserStatsChangedEvent;
 import com.ideaspark.api.exception.ExceptionUtils;
+import com.ideaspark.api.security.JwtClaimsCache;
 import com.ideaspark.api.repository.UserRepository;
 import com.ideaspark.api.service.interfaces.AuthService;
 import com.ideaspark.api.service.interfaces.UserService;
 import com.ideaspark.api.service.JwtService;
+import com.ideaspark.api.service.UserMapper;
 import com.ideaspark.shared.dto.*;
 import com.ideaspark.shared.entity.User;
 import com.ideaspark.shared.enums.UserRole;
@@ -12,8 +18,15 @@ import com.ideaspark.shared.enums.UserStatus;
 import com.ideaspark.shared.exception.AuthenticationException;
 import com.ideaspark.shared.exception.UserBlockedException;
 import com.ideaspark.shared.exception.UserNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -24,6 +37,7 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -32,13 +46,18 @@ public class AuthServiceImpl implements AuthService {
     private final com.ideaspark.api.service.interfaces.CloudinaryService cloudinaryService;
 
     private final UserRepository userRepository;
+    private final UserNearCache userNearCache;
+    private final MongoTemplate mongoTemplate;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
     private final UserService userService;
+    private final com.ideaspark.api.service.interfaces.UserBlockingService userBlockingService;
     private final com.ideaspark.api.service.interfaces.EmailService emailService;
     private final com.ideaspark.api.service.interfaces.OtpService otpService;
     private final com.ideaspark.api.service.interfaces.SmsService smsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
 
     @Override
     public ResponseDTO<UserDTO> register(String email, String password, String fullName, String username, String phone, String role, org.springframework.web.multipart.MultipartFile profileImage) {
@@ -81,6 +100,7 @@ public class AuthServiceImpl implements AuthService {
                     .build();
 
             User savedUser = userRepository.save(user);
+            eventPublisher.publishEvent(UserStatsChangedEvent.between(null, savedUser));
             
             // Log registration activity
             userService.logUserActivity(savedUser, "REGISTER", "auth", "User registered", null, null);
@@ -96,7 +116,7 @@ public class AuthServiceImpl implements AuthService {
                 log.warn("Failed to send verification email: {}", e.getMessage());
             }
 
-            UserDTO userDTO = convertToUserDTO(savedUser);
+            UserDTO userDTO = UserMapper.toUserDTO(savedUser);
             return ResponseDTO.success("User registered successfully. Verification OTP sent to email.", userDTO);
 
         } catch (Exception e) {
@@ -107,6 +127,10 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public ResponseDTO<Object> login(LoginRequest loginRequest) {
+        return timed("login", () -> passwordLogin(loginRequest));
+    }
+
+    private ResponseDTO<Object> passwordLogin(LoginRequest loginRequest) {
         try {
         String identifier = loginRequest.getIdentifier();
         String password = loginRequest.getPassword();
@@ -119,6 +143,9 @@ public class AuthServiceImpl implements AuthService {
         user = userRepository.findByPhone(identifier).orElseThrow(() -> new RuntimeException("User not found"));
         }
 
+        // The password is checked against the stored hash, not a cached copy that may predate a change
+        userNearCache.invalidate(user.getEmail());
+
         // Authenticate using email as principal (AuthenticationManager expects username)
         Authentication authentication = authenticationManager.authenticate(
             new UsernamePasswordAuthenticationToken(
@@ -131,7 +158,9 @@ public class AuthServiceImpl implements AuthService {
 
             // Update last login
             user.setLastLoginAt(LocalDateTime.now());
-            userRepository.save(user);
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(user.getId())),
+                    Update.update("lastLoginAt", user.getLastLoginAt()), User.class);
+            eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail(), "LOGIN"));
 
             // Generate tokens
             Map<String, Object> extraClaims = new HashMap<>();
@@ -148,7 +177,7 @@ public class AuthServiceImpl implements AuthService {
             Map<String, Object> response = new HashMap<>();
             response.put("token", token);
             response.put("refreshToken", refreshToken);
-            response.put("user", convertToUserDTO(user));
+            response.put("user", UserMapper.toUserDTO(user));
 
             return ResponseDTO.success("Login successful", response);
 
@@ -160,9 +189,13 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public ResponseDTO<Object> refreshToken(String refreshToken) {
+        return timed("refresh", () -> rotateTokens(refreshToken));
+    }
+
+    private ResponseDTO<Object> rotateTokens(String refreshToken) {
         try {
             String email = jwtService.extractUsername(refreshToken);
-            User user = userRepository.findByEmail(email)
+            User user = userNearCache.findByEmail(email)
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
             if (jwtService.validateToken(refreshToken, 
@@ -205,13 +238,15 @@ public class AuthServiceImpl implements AuthService {
     public ResponseDTO<String> logout(String token) {
         try {
             String email = jwtService.extractUsername(token);
-            User user = userRepository.findByEmail(email).orElse(null);
+            User user = userNearCache.findByEmail(email).orElse(null);
             
             if (user != null) {
                 userService.logUserActivity(user, "LOGOUT", "auth", "User logged out", null, null);
             }
-            
-            // In a real implementation, you'd add the token to a blacklist
+
+            // Revoke this token for the rest of its lifetime
+            eventPublisher.publishEvent(new TokenRevokedEvent(
+                    JwtClaimsCache.digest(token), jwtService.extractExpiration(token).getTime()));
             return ResponseDTO.success("Logout successful");
 
         } catch (Exception e) {
@@ -246,7 +281,10 @@ public class AuthServiceImpl implements AuthService {
 
             user.setPasswordHash(passwordEncoder.encode(newPassword));
             user.setUpdatedAt(LocalDateTime.now());
-            userRepository.save(user);
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(user.getId())),
+                    new Update().set("passwordHash", user.getPasswordHash()).set("updatedAt", user.getUpdatedAt()),
+                    User.class);
+            eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail(), "PASSWORD_CHANGE"));
 
             userService.logUserActivity(user, "PASSWORD_CHANGE", "auth", "Password changed", null, null);
 
@@ -262,7 +300,7 @@ public class AuthServiceImpl implements AuthService {
     public boolean validateToken(String token) {
         try {
             String email = jwtService.extractUsername(token);
-            User user = userRepository.findByEmail(email).orElse(null);
+            User user = userNearCache.findByEmail(email).orElse(null);
             if (user == null) return false;
 
             UserDetails userDetails = org.springframework.security.core.userdetails.User.builder()
@@ -284,41 +322,28 @@ public class AuthServiceImpl implements AuthService {
     
     @Override
     public boolean isUserBlocked(String userId) {
-        try {
-            User user = userService.findByEmail(userId);
-            return user != null && user.isBlocked();
-        } catch (Exception e) {
-            log.error("Error checking if user is blocked: {}", e.getMessage());
-            return false;
-        }
+        return userBlockingService.isUserBlocked(userId);
     }
 
-    private UserDTO convertToUserDTO(User user) {
-    return UserDTO.builder()
-        .id(user.getId())
-                .email(user.getEmail())
-                .fullName(user.getFullName())
-                .profileImageUrl(user.getProfileImageUrl())
-                .phone(user.getPhone())
-                .country(user.getCountry())
-                .language(user.getLanguage())
-                .role(user.getRole())
-                .status(user.getStatus())
-                .isActive(user.getIsActive())
-                .isVerified(user.getIsVerified())
-                .isPremium(user.getIsPremium())
-                .subscriptionType(user.getIsPremium() ? 
-                    com.ideaspark.shared.enums.SubscriptionType.PREMIUM : 
-                    com.ideaspark.shared.enums.SubscriptionType.FREE)
-                .premiumExpiresAt(user.getPremiumExpiresAt())
-                .lastLoginAt(user.getLastLoginAt())
-                .createdAt(user.getCreatedAt())
-                .build();
+    // Latency per auth flow, tagged with whether it succeeded
+    private <T> ResponseDTO<T> timed(String flow, Supplier<ResponseDTO<T>> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        ResponseDTO<T> response = call.get();
+        sample.stop(Timer.builder("ideaspark.auth.requests")
+                .tag("flow", flow)
+                .tag("outcome", response.isSuccess() ? "success" : "failure")
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        return response;
     }
     
     // Enhanced authentication methods implementation
 
     public ResponseDTO<Object> multiLogin(MultiLoginRequest request) {
+        return timed("multi_login", () -> identifierLogin(request));
+    }
+
+    private ResponseDTO<Object> identifierLogin(MultiLoginRequest request) {
         try {
             String identifier = request.getLoginIdentifier();
             String password = request.getPassword();
@@ -380,7 +405,7 @@ public class AuthServiceImpl implements AuthService {
             Map<String, Object> response = new HashMap<>();
             response.put("token", token);
             response.put("refreshToken", refreshToken);
-            response.put("user", convertToUserDTO(user));
+            response.put("user", UserMapper.toUserDTO(user));
 
             return ResponseDTO.success("Login successful", response);
 
@@ -430,6 +455,7 @@ public class AuthServiceImpl implements AuthService {
             user.setPasswordHash(passwordEncoder.encode(newPassword));
             user.setUpdatedAt(LocalDateTime.now());
             userRepository.save(user);
+            eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail(), "PASSWORD_RESET"));
 
             userService.logUserActivity(user, "PASSWORD_RESET", "auth", "Password reset via OTP", null, null);
 
@@ -516,7 +542,7 @@ public class AuthServiceImpl implements AuthService {
             Map<String, Object> response = new HashMap<>();
             response.put("token", token);
             response.put("refreshToken", refreshToken);
-            response.put("user", convertToUserDTO(user));
+            response.put("user", UserMapper.toUserDTO(user));
 
             return ResponseDTO.success("Login successful", response);
         } catch (Exception e) {
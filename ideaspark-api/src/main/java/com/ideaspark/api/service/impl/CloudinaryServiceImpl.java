@@ -6,6 +6,9 @@ import com.cloudinary.utils.ObjectUtils;
 import com.ideaspark.api.exception.ExceptionUtils;
 import com.ideaspark.api.service.interfaces.CloudinaryService;
 import com.ideaspark.shared.exception.CloudinaryException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -20,6 +23,7 @@ import java.util.Map;
 public class CloudinaryServiceImpl implements CloudinaryService {
 
     private final Cloudinary cloudinary;
+    private final MeterRegistry meterRegistry;
 
     @Override
     public Map<String, Object> uploadImage(MultipartFile file, String folder) throws IOException {
@@ -34,7 +38,23 @@ public class CloudinaryServiceImpl implements CloudinaryService {
             "transformation", new Transformation().quality("auto").fetchFormat("auto")
         );
 
-            Map<String, Object> uploadResult = cloudinary.uploader().upload(file.getBytes(), uploadParams);
+            byte[] bytes = file.getBytes();
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String outcome = "failure";
+            Map<String, Object> uploadResult;
+            try {
+                uploadResult = cloudinary.uploader().upload(bytes, uploadParams);
+                outcome = "success";
+            } finally {
+                sample.stop(Timer.builder("ideaspark.cloudinary.upload")
+                        .tag("outcome", outcome)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+            }
+            DistributionSummary.builder("ideaspark.cloudinary.upload.size")
+                    .baseUnit("bytes")
+                    .register(meterRegistry)
+                    .record(bytes.length);
             log.info("Image uploaded successfully to Cloudinary: {}", uploadResult.get("public_id"));
             
             return uploadResult;
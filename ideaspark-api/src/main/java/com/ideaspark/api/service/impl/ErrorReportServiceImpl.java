@@ -0,0 +1,486 @@
+package com.ideaspark.api.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ideaspark.api.service.interfaces.ErrorReportService;
+import com.ideaspark.shared.dto.ResponseDTO;
+import com.ideaspark.shared.entity.ErrorReport;
+import com.ideaspark.shared.entity.ErrorRollup;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.count;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.facet;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.limit;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.sort;
+
+/**
+ * Errors are fingerprinted by type and top stack frames. Every occurrence is counted into
+ * minute and hour rollups, but only the first few per fingerprint and minute (then a random
+ * sample) are kept as full reports, so an error storm costs a counter increment per
+ * occurrence. Reports and counts are buffered and written in batches; statistics, top
+ * errors and trends are read from the rollups. Both collections expire through TTL indexes.
+ */
+@Service
+@Slf4j
+public class ErrorReportServiceImpl implements ErrorReportService {
+
+    private static final String MINUTE = "MINUTE";
+    private static final String HOUR = "HOUR";
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+    private static final int MAX_STACK_TRACE_LENGTH = 16 * 1024;
+
+    // Parts of frame names that differ between runs (generated proxies and lambdas, line numbers)
+    private static final Pattern VOLATILE_FRAME_PARTS = Pattern.compile(
+            "\\$\\$SpringCGLIB\\$\\$\\d+|\\$\\$Lambda\\$?[\\w/]*|\\$Proxy\\d+|\\(.*\\)$|^[\\w.]+/");
+
+    private final MongoTemplate mongoTemplate;
+    private final int fingerprintFrames;
+    private final int fullReportsPerMinute;
+    private final double sampleRate;
+    private final Duration minuteRetention;
+    private final Duration hourRetention;
+    private final Duration minuteRange;
+    private final Duration commonErrorsWindow;
+
+    private final BlockingQueue<ErrorReport> pendingReports;
+    private final ReadWriteLock pendingCountsLock = new ReentrantReadWriteLock();
+    private Map<String, Occurrences> pendingCounts = new ConcurrentHashMap<>();
+    private final Cache<String, FingerprintWindow> windows;
+    private final Cache<Throwable, Boolean> reportedExceptions;
+    private final AtomicLong droppedReports = new AtomicLong();
+
+    public ErrorReportServiceImpl(
+            MongoTemplate mongoTemplate,
+            @Value("${errors.report.fingerprint-frames:8}") int fingerprintFrames,
+            @Value("${errors.report.full-reports-per-minute:10}") int fullReportsPerMinute,
+            @Value("${errors.report.sample-rate:0.01}") double sampleRate,
+            @Value("${errors.report.buffer-capacity:1000}") int bufferCapacity,
+            @Value("${errors.rollup.minute-retention:P2D}") Duration minuteRetention,
+            @Value("${errors.rollup.hour-retention:P90D}") Duration hourRetention,
+            @Value("${errors.rollup.minute-range:PT6H}") Duration minuteRange,
+            @Value("${errors.common.window:P7D}") Duration commonErrorsWindow) {
+        this.mongoTemplate = mongoTemplate;
+        this.fingerprintFrames = fingerprintFrames;
+        this.fullReportsPerMinute = fullReportsPerMinute;
+        this.sampleRate = sampleRate;
+        this.minuteRetention = minuteRetention;
+        this.hourRetention = hourRetention;
+        this.minuteRange = minuteRange;
+        this.commonErrorsWindow = commonErrorsWindow;
+        this.pendingReports = new ArrayBlockingQueue<>(bufferCapacity);
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterAccess(Duration.ofMinutes(5))
+                .build();
+        this.reportedExceptions = Caffeine.newBuilder()
+                .weakKeys()
+                .maximumSize(1_000)
+                .build();
+    }
+
+    @Override
+    public void reportError(String errorType, String message, String stackTrace, String userId, String endpoint) {
+        List<String> frames = new ArrayList<>(fingerprintFrames);
+        if (stackTrace != null) {
+            for (String line : stackTrace.split("\n")) {
+                String trimmed = line.trim();
+                if (trimmed.startsWith("at ")) {
+                    frames.add(trimmed.substring(3));
+                    if (frames.size() == fingerprintFrames) {
+                        break;
+                    }
+                }
+            }
+        }
+        record(errorType, message, frames, () -> stackTrace, userId, endpoint);
+    }
+
+    @Override
+    public void reportException(Throwable exception, String userId, String endpoint) {
+        try {
+            if (reportedExceptions.asMap().putIfAbsent(exception, Boolean.TRUE) != null) {
+                return;
+            }
+            StackTraceElement[] stack = exception.getStackTrace();
+            List<String> frames = new ArrayList<>(fingerprintFrames);
+            for (int i = 0; i < stack.length && i < fingerprintFrames; i++) {
+                frames.add(stack[i].getClassName() + "." + stack[i].getMethodName());
+            }
+            record(exception.getClass().getName(), exception.getMessage(), frames,
+                    () -> stackTraceOf(exception), userId, endpoint);
+        } catch (Exception e) {
+            log.warn("Failed to report error: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public ResponseDTO<Map<String, Object>> getErrorStatistics(LocalDateTime startDate, LocalDateTime endDate) {
+        try {
+            LocalDateTime end = endDate != null ? endDate : LocalDateTime.now();
+            LocalDateTime start = startDate != null ? startDate : end.minusDays(1);
+            String granularity = granularityFor(start, end);
+
+            Document facets = mongoTemplate.aggregate(Aggregation.newAggregation(
+                            match(inRange(granularity, start, end)),
+                            facet(group().sum("count").as("count").sum("stored").as("stored")).as("totals")
+                                    .and(group("severity").sum("count").as("count")).as("bySeverity")
+                                    .and(group("errorType").sum("count").as("count")).as("byType")
+                                    .and(group("fingerprint"), count().as("count")).as("unique")),
+                    ErrorRollup.class, Document.class).getUniqueMappedResult();
+            if (facets == null) {
+                facets = new Document();
+            }
+
+            List<Document> totals = facets.getList("totals", Document.class, List.of());
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("totalErrors", totals.isEmpty() ? 0L : ((Number) totals.get(0).get("count")).longValue());
+            stats.put("storedReports", totals.isEmpty() ? 0L : ((Number) totals.get(0).get("stored")).longValue());
+            stats.put("uniqueErrors", firstCount(facets, "unique"));
+            stats.put("errorsBySeverity", grouped(facets, "bySeverity"));
+            stats.put("errorsByType", grouped(facets, "byType"));
+            stats.put("droppedReports", droppedReports.get());
+            stats.put("granularity", granularity);
+            stats.put("startDate", start);
+            stats.put("endDate", end);
+
+            return ResponseDTO.success(stats);
+
+        } catch (Exception e) {
+            log.error("Error getting error statistics: {}", e.getMessage());
+            return ResponseDTO.error("STATS_FAILED", "Failed to get error statistics");
+        }
+    }
+
+    @Override
+    public ResponseDTO<Map<String, Object>> getMostCommonErrors(int limit) {
+        try {
+            LocalDateTime since = LocalDateTime.now().minus(commonErrorsWindow);
+
+            List<Document> rows = mongoTemplate.aggregate(Aggregation.newAggregation(
+                            match(Criteria.where("granularity").is(HOUR).and("bucketStart").gte(since)),
+                            group("fingerprint")
+                                    .sum("count").as("count")
+                                    .first("errorType").as("errorType")
+                                    .first("message").as("message")
+                                    .first("severity").as("severity")
+                                    .max("lastSeenAt").as("lastSeenAt"),
+                            sort(Sort.Direction.DESC, "count"),
+                            limit(Math.max(1, limit))),
+                    ErrorRollup.class, Document.class).getMappedResults();
+
+            List<Map<String, Object>> errors = new ArrayList<>();
+            for (Document row : rows) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("fingerprint", row.get("_id"));
+                error.put("errorType", row.get("errorType"));
+                error.put("message", row.get("message"));
+                error.put("severity", row.get("severity"));
+                error.put("count", row.get("count"));
+                error.put("lastSeenAt", row.get("lastSeenAt"));
+                errors.add(error);
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("errors", errors);
+            response.put("since", since);
+            return ResponseDTO.success(response);
+
+        } catch (Exception e) {
+            log.error("Error getting most common errors: {}", e.getMessage());
+            return ResponseDTO.error("STATS_FAILED", "Failed to get most common errors");
+        }
+    }
+
+    @Override
+    public ResponseDTO<Map<String, Object>> getErrorTrends(LocalDateTime startDate, LocalDateTime endDate) {
+        try {
+            LocalDateTime end = endDate != null ? endDate : LocalDateTime.now();
+            LocalDateTime start = startDate != null ? startDate : end.minusDays(1);
+            String granularity = granularityFor(start, end);
+
+            List<Document> rows = mongoTemplate.aggregate(Aggregation.newAggregation(
+                            match(inRange(granularity, start, end)),
+                            group("bucketStart").sum("count").as("count"),
+                            sort(Sort.Direction.ASC, "_id")),
+                    ErrorRollup.class, Document.class).getMappedResults();
+
+            List<Map<String, Object>> points = new ArrayList<>();
+            for (Document row : rows) {
+                Map<String, Object> point = new HashMap<>();
+                point.put("time", row.get("_id"));
+                point.put("count", row.get("count"));
+                points.add(point);
+            }
+
+            Map<String, Object> trends = new HashMap<>();
+            trends.put("granularity", granularity);
+            trends.put("points", points);
+            trends.put("startDate", start);
+            trends.put("endDate", end);
+            return ResponseDTO.success(trends);
+
+        } catch (Exception e) {
+            log.error("Error getting error trends: {}", e.getMessage());
+            return ResponseDTO.error("STATS_FAILED", "Failed to get error trends");
+        }
+    }
+
+    /**
+     * Writes buffered reports in one insert and the pending counts as one bulk of
+     * minute and hour rollup upserts.
+     */
+    @Scheduled(fixedDelayString = "${errors.report.flush-interval:PT5S}", initialDelayString = "${errors.report.flush-interval:PT5S}")
+    public void flush() {
+        List<ErrorReport> reports = new ArrayList<>();
+        pendingReports.drainTo(reports);
+
+        Map<String, Occurrences> counts;
+        pendingCountsLock.writeLock().lock();
+        try {
+            counts = pendingCounts;
+            pendingCounts = new ConcurrentHashMap<>();
+        } finally {
+            pendingCountsLock.writeLock().unlock();
+        }
+        if (reports.isEmpty() && counts.isEmpty()) {
+            return;
+        }
+
+        try {
+            if (!reports.isEmpty()) {
+                mongoTemplate.insert(reports, ErrorReport.class);
+            }
+            if (!counts.isEmpty()) {
+                writeRollups(counts.values());
+            }
+        } catch (Exception e) {
+            log.error("Failed to write {} error reports and {} rollups: {}",
+                    reports.size(), counts.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    private void record(String errorType, String message, List<String> frames,
+                        Supplier<String> stackTrace, String userId, String endpoint) {
+        String fingerprint = fingerprint(errorType, frames);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime minute = now.truncatedTo(ChronoUnit.MINUTES);
+        boolean store = windows.get(fingerprint, key -> new FingerprintWindow()).admit(minute, fullReportsPerMinute)
+                || ThreadLocalRandom.current().nextDouble() < sampleRate;
+
+        if (store) {
+            ErrorReport report = ErrorReport.builder()
+                    .errorType(errorType)
+                    .fingerprint(fingerprint)
+                    .message(truncate(message, MAX_MESSAGE_LENGTH))
+                    .stackTrace(truncate(stackTrace.get(), MAX_STACK_TRACE_LENGTH))
+                    .userId(userId)
+                    .endpoint(endpoint)
+                    .timestamp(now)
+                    .severity(severityOf(errorType))
+                    .build();
+            if (!pendingReports.offer(report)) {
+                droppedReports.incrementAndGet();
+                store = false;
+            }
+        }
+
+        pendingCountsLock.readLock().lock();
+        try {
+            pendingCounts.computeIfAbsent(minute + "|" + fingerprint,
+                            key -> new Occurrences(minute, fingerprint, errorType, truncate(message, MAX_MESSAGE_LENGTH)))
+                    .add(store, now);
+        } finally {
+            pendingCountsLock.readLock().unlock();
+        }
+    }
+
+    private void writeRollups(Iterable<Occurrences> minutes) {
+        Map<String, Occurrences> hours = new HashMap<>();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ErrorRollup.class);
+        for (Occurrences minute : minutes) {
+            upsert(bulk, MINUTE, minute.bucketStart, minute, minuteRetention);
+
+            LocalDateTime hour = minute.bucketStart.truncatedTo(ChronoUnit.HOURS);
+            hours.computeIfAbsent(hour + "|" + minute.fingerprint,
+                    key -> new Occurrences(hour, minute.fingerprint, minute.errorType, minute.message))
+                    .merge(minute);
+        }
+        for (Occurrences hour : hours.values()) {
+            upsert(bulk, HOUR, hour.bucketStart, hour, hourRetention);
+        }
+        bulk.execute();
+    }
+
+    private void upsert(BulkOperations bulk, String granularity, LocalDateTime bucketStart,
+                        Occurrences occurrences, Duration retention) {
+        bulk.upsert(
+                Query.query(Criteria.where("_id").is(granularity + "|" + bucketStart + "|" + occurrences.fingerprint)),
+                new Update()
+                        .inc("count", occurrences.count)
+                        .inc("stored", occurrences.stored)
+                        .max("lastSeenAt", occurrences.lastSeenAt)
+                        .setOnInsert("granularity", granularity)
+                        .setOnInsert("bucketStart", bucketStart)
+                        .setOnInsert("fingerprint", occurrences.fingerprint)
+                        .setOnInsert("errorType", occurrences.errorType)
+                        .setOnInsert("message", occurrences.message)
+                        .setOnInsert("severity", severityOf(occurrences.errorType))
+                        .setOnInsert("expireAt", bucketStart.plus(retention)));
+    }
+
+    // Minute rollups answer short, recent ranges; anything else is read at hour resolution
+    private String granularityFor(LocalDateTime start, LocalDateTime end) {
+        boolean recent = start.isAfter(LocalDateTime.now().minus(minuteRetention));
+        boolean shortRange = Duration.between(start, end).compareTo(minuteRange) <= 0;
+        return recent && shortRange ? MINUTE : HOUR;
+    }
+
+    private Criteria inRange(String granularity, LocalDateTime start, LocalDateTime end) {
+        LocalDateTime from = start.truncatedTo(MINUTE.equals(granularity) ? ChronoUnit.MINUTES : ChronoUnit.HOURS);
+        return Criteria.where("granularity").is(granularity).and("bucketStart").gte(from).lt(end);
+    }
+
+    private long firstCount(Document facets, String facet) {
+        List<Document> rows = facets.getList(facet, Document.class, List.of());
+        return rows.isEmpty() ? 0L : ((Number) rows.get(0).get("count")).longValue();
+    }
+
+    private Map<String, Long> grouped(Document facets, String facet) {
+        Map<String, Long> counts = new HashMap<>();
+        for (Document bucket : facets.getList(facet, Document.class, List.of())) {
+            Object key = bucket.get("_id");
+            if (key != null) {
+                counts.put(key.toString(), ((Number) bucket.get("count")).longValue());
+            }
+        }
+        return counts;
+    }
+
+    private String fingerprint(String errorType, List<String> frames) {
+        StringBuilder source = new StringBuilder(errorType);
+        for (String frame : frames) {
+            source.append('\n').append(VOLATILE_FRAME_PARTS.matcher(frame).replaceAll(""));
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(source.toString().getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private String severityOf(String errorType) {
+        if (errorType.endsWith("Error")) {
+            return "CRITICAL"; // java.lang.Error, e.g. OutOfMemoryError
+        }
+        if (errorType.contains("DataAccess") || errorType.contains("Mongo") || errorType.contains("Redis")) {
+            return "HIGH";
+        }
+        if (errorType.contains("Validation") || errorType.contains("NotFound") || errorType.contains("IllegalArgument")) {
+            return "LOW";
+        }
+        return "MEDIUM";
+    }
+
+    private String stackTraceOf(Throwable exception) {
+        StringWriter writer = new StringWriter();
+        exception.printStackTrace(new PrintWriter(writer));
+        return writer.toString();
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    // Full reports stored for one fingerprint in the current minute
+    private static final class FingerprintWindow {
+
+        private LocalDateTime minute;
+        private int stored;
+
+        synchronized boolean admit(LocalDateTime currentMinute, int limit) {
+            if (!currentMinute.equals(minute)) {
+                minute = currentMinute;
+                stored = 0;
+            }
+            return stored++ < limit;
+        }
+    }
+
+    // Occurrences of one fingerprint in one bucket that have not been written yet
+    private static final class Occurrences {
+
+        private final LocalDateTime bucketStart;
+        private final String fingerprint;
+        private final String errorType;
+        private final String message;
+        private long count;
+        private long stored;
+        private LocalDateTime lastSeenAt;
+
+        private Occurrences(LocalDateTime bucketStart, String fingerprint, String errorType, String message) {
+            this.bucketStart = bucketStart;
+            this.fingerprint = fingerprint;
+            this.errorType = errorType;
+            this.message = message;
+        }
+
+        synchronized void add(boolean storedAsReport, LocalDateTime seenAt) {
+            count++;
+            if (storedAsReport) {
+                stored++;
+            }
+            lastSeenAt = seenAt;
+        }
+
+        synchronized void merge(Occurrences other) {
+            count += other.count;
+            stored += other.stored;
+            if (lastSeenAt == null || other.lastSeenAt.isAfter(lastSeenAt)) {
+                lastSeenAt = other.lastSeenAt;
+            }
+        }
+    }
+}
@@ -1,18 +1,28 @@
 package com.ideaspark.api.service.impl;
 
-import com.ideaspark.api.repository.UserRepository;
+import com.ideaspark.api.cache.UserNearCache;
+import com.ideaspark.api.repository.ExportJobRepository;
+import com.ideaspark.api.service.ExportFileStore;
+import com.ideaspark.api.service.ExportJobProcessor;
 import com.ideaspark.api.service.interfaces.ExportService;
 import com.ideaspark.api.service.interfaces.UserService;
 import com.ideaspark.shared.dto.ResponseDTO;
+import com.ideaspark.shared.entity.ExportJob;
 import com.ideaspark.shared.entity.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -20,35 +30,43 @@ import java.util.UUID;
 @Slf4j
 public class ExportServiceImpl implements ExportService {
 
-    private final UserRepository userRepository;
+    private static final Set<String> SUPPORTED_FORMATS = Set.of("JSON", "CSV", "PDF");
+    private static final Set<String> SUPPORTED_DATA_TYPES = Set.of("IDEAS", "AI_GENERATIONS", "CHAT_HISTORY", "USER_ACTIVITY");
+    private static final String DOWNLOAD_PATH = "/api/export-legacy/download/";
+    private static final String STATUS_PATH = "/api/export-legacy/status/";
+
+    private final UserNearCache userNearCache;
     private final UserService userService;
+    private final ExportJobRepository exportJobRepository;
+    private final ExportJobProcessor exportJobProcessor;
+    private final ExportFileStore exportFileStore;
+
+    @Value("${export.retention:PT24H}")
+    private Duration retention;
+
+    @Value("${export.storage.quota:1GB}")
+    private DataSize storageQuota;
+
+    @Value("${export.jobs.stale-after:PT30M}")
+    private Duration staleAfter;
 
     @Override
     public ResponseDTO<Map<String, Object>> exportUserData(String userEmail, String format) {
         try {
-            User user = userRepository.findByEmail(userEmail)
+            User user = userNearCache.findByEmail(userEmail)
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
-            String exportId = "exp_" + UUID.randomUUID().toString().substring(0, 8);
-            
-            // Log export activity
-            userService.logUserActivity(user, "EXPORT_USER_DATA", "export", 
-                "User data export initiated in " + format + " format", null, null);
+            ExportJob job = newJob(user, "USER_DATA", format,
+                    List.of("IDEAS", "AI_GENERATIONS", "USER_ACTIVITY"), null, null);
+            if (job == null) {
+                return ResponseDTO.error("UNSUPPORTED_FORMAT", "Supported formats: " + SUPPORTED_FORMATS);
+            }
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("exportId", exportId);
-            response.put("status", "PROCESSING");
-            response.put("estimatedTime", "2-3 minutes");
-            response.put("downloadUrl", null);
-
-            // In a real implementation, this would be processed asynchronously
-            // For demo purposes, we'll simulate immediate completion
-            response.put("status", "COMPLETED");
-            response.put("downloadUrl", "/api/export/download/" + exportId);
-            response.put("fileSize", "1.2 MB");
-            response.put("createdAt", LocalDateTime.now());
+            // Log export activity
+            userService.logUserActivity(user, "EXPORT_USER_DATA", "export",
+                "User data export initiated in " + job.getFormat() + " format", null, null);
 
-            return ResponseDTO.success("Export initiated", response);
+            return enqueue(job, "Export initiated");
 
         } catch (Exception e) {
             log.error("Error exporting user data: {}", e.getMessage());
@@ -59,23 +77,19 @@ public class ExportServiceImpl implements ExportService {
     @Override
     public ResponseDTO<Map<String, Object>> exportUsageStatistics(String userEmail, LocalDateTime startDate, LocalDateTime endDate, String format) {
         try {
-            User user = userRepository.findByEmail(userEmail)
+            User user = userNearCache.findByEmail(userEmail)
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
-            String exportId = "exp_" + UUID.randomUUID().toString().substring(0, 8);
-            
+            ExportJob job = newJob(user, "USAGE_STATS", format, List.of("USER_ACTIVITY"), startDate, endDate);
+            if (job == null) {
+                return ResponseDTO.error("UNSUPPORTED_FORMAT", "Supported formats: " + SUPPORTED_FORMATS);
+            }
+
             // Log export activity
-            userService.logUserActivity(user, "EXPORT_USAGE_STATS", "export", 
+            userService.logUserActivity(user, "EXPORT_USAGE_STATS", "export",
                 "Usage statistics export from " + startDate + " to " + endDate, null, null);
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("exportId", exportId);
-            response.put("status", "COMPLETED");
-            response.put("downloadUrl", "/api/export/download/" + exportId);
-            response.put("fileSize", "2.5 MB");
-            response.put("createdAt", LocalDateTime.now());
-
-            return ResponseDTO.success(response);
+            return enqueue(job, "Export initiated");
 
         } catch (Exception e) {
             log.error("Error exporting usage statistics: {}", e.getMessage());
@@ -86,21 +100,26 @@ public class ExportServiceImpl implements ExportService {
     @Override
     public ResponseDTO<Map<String, Object>> generateCustomExport(String userEmail, String exportType, List<String> dataTypes, String format, LocalDateTime startDate, LocalDateTime endDate) {
         try {
-            User user = userRepository.findByEmail(userEmail)
+            User user = userNearCache.findByEmail(userEmail)
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
-            String exportId = "exp_" + UUID.randomUUID().toString().substring(0, 8);
-            
-            // Log export activity
-            userService.logUserActivity(user, "CUSTOM_EXPORT", "export", 
-                "Custom export: " + exportType + " in " + format + " format", null, null);
+            List<String> requestedTypes = dataTypes == null || dataTypes.isEmpty()
+                    ? List.of("IDEAS", "AI_GENERATIONS", "USER_ACTIVITY")
+                    : dataTypes.stream().map(String::toUpperCase).distinct().toList();
+            if (!SUPPORTED_DATA_TYPES.containsAll(requestedTypes)) {
+                return ResponseDTO.error("UNSUPPORTED_DATA_TYPE", "Supported data types: " + SUPPORTED_DATA_TYPES);
+            }
+
+            ExportJob job = newJob(user, "CUSTOM", format, requestedTypes, startDate, endDate);
+            if (job == null) {
+                return ResponseDTO.error("UNSUPPORTED_FORMAT", "Supported formats: " + SUPPORTED_FORMATS);
+            }
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("exportId", exportId);
-            response.put("status", "PROCESSING");
-            response.put("estimatedTime", "5-10 minutes");
+            // Log export activity
+            userService.logUserActivity(user, "CUSTOM_EXPORT", "export",
+                "Custom export: " + exportType + " in " + job.getFormat() + " format", null, null);
 
-            return ResponseDTO.success("Custom export created", response);
+            return enqueue(job, "Custom export created");
 
         } catch (Exception e) {
             log.error("Error generating custom export: {}", e.getMessage());
@@ -109,28 +128,33 @@ public class ExportServiceImpl implements ExportService {
     }
 
     @Override
-    public ResponseDTO<byte[]> downloadExportFile(String exportId, String userEmail) {
+    public ResponseDTO<Resource> downloadExportFile(String exportId, String userEmail) {
         try {
-            User user = userRepository.findByEmail(userEmail)
+            User user = userNearCache.findByEmail(userEmail)
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
-            // In a real implementation, you'd retrieve the actual file from storage
-            // For demo purposes, return sample JSON data
-            String sampleData = """
-                {
-                    "user": {
-                        "email": "%s",
-                        "exportId": "%s",
-                        "exportDate": "%s",
-                        "data": "Sample export data would be here"
-                    }
-                }
-                """.formatted(userEmail, exportId, LocalDateTime.now());
+            ExportJob job = exportJobRepository.findByIdAndUserId(exportId, user.getId()).orElse(null);
+            if (job == null) {
+                return ResponseDTO.error("EXPORT_NOT_FOUND", "Export not found");
+            }
+            if (!"COMPLETED".equals(job.getStatus())) {
+                return ResponseDTO.error("EXPORT_NOT_READY", "Export is " + job.getStatus());
+            }
+            if (!exportFileStore.owns(job)) {
+                // Artifacts live on the disk of the node that generated them
+                log.warn("Export {} is stored on node {}, requested on {}", exportId, job.getNodeId(), exportFileStore.getNodeId());
+                return ResponseDTO.error("EXPORT_ON_OTHER_NODE", "Export file is stored on another server, please retry");
+            }
+
+            Resource artifact = exportFileStore.getResource(job.getFileName());
+            if (artifact == null) {
+                return ResponseDTO.error("EXPORT_EXPIRED", "Export file is no longer available");
+            }
 
-            userService.logUserActivity(user, "EXPORT_DOWNLOAD", "export", 
+            userService.logUserActivity(user, "EXPORT_DOWNLOAD", "export",
                 "Downloaded export file: " + exportId, null, null);
 
-            return ResponseDTO.success(sampleData.getBytes());
+            return ResponseDTO.success(artifact);
 
         } catch (Exception e) {
             log.error("Error downloading export file: {}", e.getMessage());
@@ -141,19 +165,15 @@ public class ExportServiceImpl implements ExportService {
     @Override
     public ResponseDTO<Map<String, Object>> getExportStatus(String exportId, String userEmail) {
         try {
-            User user = userRepository.findByEmail(userEmail)
+            User user = userNearCache.findByEmail(userEmail)
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
-            // In a real implementation, you'd check the actual export status
-            Map<String, Object> status = new HashMap<>();
-            status.put("exportId", exportId);
-            status.put("status", "COMPLETED");
-            status.put("progress", 100);
-            status.put("downloadUrl", "/api/export/download/" + exportId);
-            status.put("createdAt", LocalDateTime.now().minusMinutes(5));
-            status.put("completedAt", LocalDateTime.now().minusMinutes(2));
+            ExportJob job = exportJobRepository.findByIdAndUserId(exportId, user.getId()).orElse(null);
+            if (job == null) {
+                return ResponseDTO.error("EXPORT_NOT_FOUND", "Export not found");
+            }
 
-            return ResponseDTO.success(status);
+            return ResponseDTO.success(toStatus(job));
 
         } catch (Exception e) {
             log.error("Error getting export status: {}", e.getMessage());
@@ -161,13 +181,101 @@ public class ExportServiceImpl implements ExportService {
         }
     }
 
+    /**
+     * Expires artifacts older than the retention period, then the oldest remaining ones
+     * while the store is over quota. Both only look at jobs whose artifact is in this node's
+     * store, since every node runs the cleanup against its own disk. Running jobs whose worker
+     * died (no heartbeat for a while) are marked as failed, whichever node ran them.
+     */
     @Override
+    @Scheduled(fixedDelayString = "${export.cleanup.interval:PT15M}", initialDelayString = "${export.cleanup.interval:PT15M}")
     public void cleanupOldExports() {
         try {
-            // In a real implementation, you'd clean up old export files
-            log.info("Cleaning up old export files...");
+            int expired = 0;
+            String nodeId = exportFileStore.getNodeId();
+            for (ExportJob job : exportJobRepository.findByNodeIdAndStatusAndCompletedAtBefore(
+                    nodeId, "COMPLETED", LocalDateTime.now().minus(retention))) {
+                expire(job);
+                expired++;
+            }
+
+            long storeSize = exportFileStore.totalSize();
+            if (storeSize > storageQuota.toBytes()) {
+                for (ExportJob job : exportJobRepository.findByNodeIdAndStatusOrderByCompletedAtAsc(nodeId, "COMPLETED")) {
+                    if (storeSize <= storageQuota.toBytes()) {
+                        break;
+                    }
+                    storeSize -= job.getFileSize();
+                    expire(job);
+                    expired++;
+                }
+            }
+
+            long stale = exportJobProcessor.failStalledJobs(staleAfter);
+
+            log.info("Export cleanup: {} artifacts expired, {} stale jobs failed", expired, stale);
         } catch (Exception e) {
             log.error("Error cleaning up old exports: {}", e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    private ExportJob newJob(User user, String jobType, String format, List<String> dataTypes,
+                             LocalDateTime startDate, LocalDateTime endDate) {
+        String normalizedFormat = format != null ? format.toUpperCase() : "JSON";
+        if (!SUPPORTED_FORMATS.contains(normalizedFormat)) {
+            return null;
+        }
+        return ExportJob.builder()
+                .id("exp_" + UUID.randomUUID().toString().replace("-", ""))
+                .userId(user.getId())
+                .userEmail(user.getEmail())
+                .nodeId(exportFileStore.getNodeId())
+                .jobType(jobType)
+                .format(normalizedFormat)
+                .dataTypes(dataTypes)
+                .startDate(startDate)
+                .endDate(endDate)
+                .build();
+    }
+
+    private ResponseDTO<Map<String, Object>> enqueue(ExportJob job, String message) {
+        exportJobRepository.save(job);
+
+        if (!exportJobProcessor.submit(job)) {
+            job.setStatus("FAILED");
+            job.setErrorMessage("Export queue is full");
+            job.setUpdatedAt(LocalDateTime.now());
+            exportJobRepository.save(job);
+            return ResponseDTO.error("EXPORT_BUSY", "Too many exports in progress, please try again later");
+        }
+
+        return ResponseDTO.success(message, toStatus(job));
+    }
+
+    private void expire(ExportJob job) {
+        if (job.getFileName() != null) {
+            exportFileStore.delete(job.getFileName());
+        }
+        job.setStatus("EXPIRED");
+        job.setUpdatedAt(LocalDateTime.now());
+        exportJobRepository.save(job);
+    }
+
+    private Map<String, Object> toStatus(ExportJob job) {
+        Map<String, Object> status = new HashMap<>();
+        status.put("exportId", job.getId());
+        status.put("status", job.getStatus());
+        status.put("format", job.getFormat());
+        status.put("progress", job.getProgress());
+        status.put("processedItems", job.getProcessedItems());
+        status.put("totalItems", job.getTotalItems());
+        status.put("statusUrl", STATUS_PATH + job.getId());
+        status.put("downloadUrl", "COMPLETED".equals(job.getStatus()) ? DOWNLOAD_PATH + job.getId() : null);
+        status.put("fileSize", "COMPLETED".equals(job.getStatus()) ? job.getFileSize() : null);
+        status.put("error", job.getErrorMessage());
+        status.put("createdAt", job.getCreatedAt());
+        status.put("startedAt", job.getStartedAt());
+        status.put("completedAt", job.getCompletedAt());
+        return status;
+    }
+}
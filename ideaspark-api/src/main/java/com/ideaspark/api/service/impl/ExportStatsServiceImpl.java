@@ -0,0 +1,180 @@
+package com.ideaspark.api.service.impl;
+
+import com.ideaspark.api.service.interfaces.ExportStatsService;
+import com.ideaspark.shared.entity.AIGeneration;
+import com.ideaspark.shared.entity.Idea;
+import com.ideaspark.shared.entity.UserActivity;
+import com.ideaspark.shared.entity.UserDataCounters;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.count;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.facet;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+
+/**
+ * Answers the export statistics with one $facet aggregation per collection, the three
+ * running concurrently. With counters enabled the result is kept in a per-user counter
+ * document: activity inserts increment it, other writes drop it, and it is rebuilt from
+ * the aggregations once it is older than the configured max age.
+ */
+@Service
+@Slf4j
+public class ExportStatsServiceImpl implements ExportStatsService {
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean countersEnabled;
+    private final Duration countersMaxAge;
+    private final ExecutorService executor;
+
+    public ExportStatsServiceImpl(
+            MongoTemplate mongoTemplate,
+            @Value("${export.stats.counters.enabled:false}") boolean countersEnabled,
+            @Value("${export.stats.counters.max-age:PT10M}") Duration countersMaxAge,
+            @Value("${export.stats.parallelism:6}") int parallelism) {
+        this.mongoTemplate = mongoTemplate;
+        this.countersEnabled = countersEnabled;
+        this.countersMaxAge = countersMaxAge;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "export-stats-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public UserDataCounters getUserDataStats(String userId) {
+        if (countersEnabled) {
+            UserDataCounters stored = mongoTemplate.findById(userId, UserDataCounters.class);
+            if (stored != null && stored.getUpdatedAt() != null
+                    && stored.getUpdatedAt().isAfter(LocalDateTime.now().minus(countersMaxAge))) {
+                return stored;
+            }
+        }
+
+        UserDataCounters counters = aggregate(userId);
+        if (countersEnabled) {
+            mongoTemplate.save(counters);
+        }
+        return counters;
+    }
+
+    @Override
+    public void recordActivities(List<UserActivity> activities) {
+        if (!countersEnabled || activities.isEmpty()) {
+            return;
+        }
+        try {
+            Map<String, Long> perUser = activities.stream()
+                    .filter(activity -> activity.getUserId() != null)
+                    .collect(Collectors.groupingBy(UserActivity::getUserId, Collectors.counting()));
+            if (perUser.isEmpty()) {
+                return;
+            }
+
+            // Only existing counter documents are incremented; missing ones are built on read
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserDataCounters.class);
+            perUser.forEach((userId, added) -> bulk.updateOne(
+                    Query.query(Criteria.where("_id").is(userId)),
+                    new Update().inc("activitiesCount", added)));
+            bulk.execute();
+        } catch (Exception e) {
+            log.warn("Failed to update activity counters: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void invalidate(String userId) {
+        if (!countersEnabled || userId == null) {
+            return;
+        }
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(userId)), UserDataCounters.class);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private UserDataCounters aggregate(String userId) {
+        Criteria owner = Criteria.where("userId").is(userId);
+
+        CompletableFuture<Document> ideas = CompletableFuture.supplyAsync(() -> facetCounts(
+                Aggregation.newAggregation(
+                        match(owner),
+                        facet(group("status").count().as("count")).as("byStatus")
+                                .and(count().as("total")).as("total")),
+                Idea.class), executor);
+
+        CompletableFuture<Document> generations = CompletableFuture.supplyAsync(() -> facetCounts(
+                Aggregation.newAggregation(
+                        match(owner),
+                        facet(group("type").count().as("count")).as("byType")
+                                .and(count().as("total")).as("total")),
+                AIGeneration.class), executor);
+
+        CompletableFuture<Document> activities = CompletableFuture.supplyAsync(() -> facetCounts(
+                Aggregation.newAggregation(
+                        match(owner),
+                        facet(count().as("total")).as("total")),
+                UserActivity.class), executor);
+
+        CompletableFuture.allOf(ideas, generations, activities).join();
+
+        Map<String, Long> byType = grouped(generations.join(), "byType");
+        return UserDataCounters.builder()
+                .userId(userId)
+                .ideasCount(total(ideas.join()))
+                .ideasByStatus(grouped(ideas.join(), "byStatus"))
+                .aiGenerationsCount(total(generations.join()))
+                .aiGenerationsByType(byType)
+                .chatHistoryCount(byType.getOrDefault("CHAT", 0L))
+                .activitiesCount(total(activities.join()))
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private Document facetCounts(Aggregation aggregation, Class<?> collection) {
+        Document result = mongoTemplate.aggregate(aggregation, collection, Document.class).getUniqueMappedResult();
+        return result != null ? result : new Document();
+    }
+
+    private long total(Document facets) {
+        List<Document> total = facets.getList("total", Document.class, List.of());
+        return total.isEmpty() ? 0L : ((Number) total.get(0).get("total")).longValue();
+    }
+
+    private Map<String, Long> grouped(Document facets, String facet) {
+        Map<String, Long> counts = new HashMap<>();
+        for (Document bucket : facets.getList(facet, Document.class, List.of())) {
+            Object key = bucket.get("_id");
+            if (key != null) {
+                counts.put(key.toString(), ((Number) bucket.get("count")).longValue());
+            }
+        }
+        return counts;
+    }
+}
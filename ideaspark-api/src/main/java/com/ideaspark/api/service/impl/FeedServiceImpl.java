@@ -0,0 +1,141 @@
+package com.ideaspark.api.service.impl;
+
+import com.ideaspark.api.cache.UserNearCache;
+import com.ideaspark.api.service.FeedCursor;
+import com.ideaspark.api.service.interfaces.FeedService;
+import com.ideaspark.shared.dto.CursorPage;
+import com.ideaspark.shared.dto.ResponseDTO;
+import com.ideaspark.shared.entity.AIGeneration;
+import com.ideaspark.shared.entity.Idea;
+import com.ideaspark.shared.entity.UserActivity;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination over (createdAt, _id), newest first. A page continues strictly after
+ * the last item of the previous one, so Mongo seeks straight to it in the
+ * user_created_id_idx index instead of skipping over every earlier item.
+ */
+@Service
+@Slf4j
+public class FeedServiceImpl implements FeedService {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt")
+            .and(Sort.by(Sort.Direction.DESC, "_id"));
+
+    private final MongoTemplate mongoTemplate;
+    private final UserNearCache userNearCache;
+    private final int defaultSize;
+    private final int maxSize;
+
+    public FeedServiceImpl(
+            MongoTemplate mongoTemplate,
+            UserNearCache userNearCache,
+            @Value("${feed.page.default-size:20}") int defaultSize,
+            @Value("${feed.page.max-size:100}") int maxSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.userNearCache = userNearCache;
+        this.defaultSize = defaultSize;
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public ResponseDTO<CursorPage<Idea>> getIdeas(String email, String cursor, Integer limit) {
+        return page(email, cursor, limit, Idea.class, new Query(),
+                Idea::getCreatedAt, Idea::getId, Function.identity());
+    }
+
+    @Override
+    public ResponseDTO<CursorPage<AIGeneration>> getAIGenerations(String email, String cursor, Integer limit) {
+        return page(email, cursor, limit, AIGeneration.class, new Query(),
+                AIGeneration::getCreatedAt, AIGeneration::getId, Function.identity());
+    }
+
+    @Override
+    public ResponseDTO<CursorPage<Map<String, Object>>> getActivity(String email, String cursor, Integer limit) {
+        // Only the fields the API returns, as in the offset-paged activity listing
+        Query query = new Query();
+        query.fields().include("action", "createdAt", "ipAddress", "deviceInfo", "details");
+        return page(email, cursor, limit, UserActivity.class, query,
+                UserActivity::getCreatedAt, UserActivity::getId, activity -> {
+                    Map<String, Object> data = new HashMap<>();
+                    data.put("id", activity.getId());
+                    data.put("action", activity.getAction());
+                    data.put("timestamp", activity.getCreatedAt());
+                    data.put("ipAddress", activity.getIpAddress());
+                    data.put("deviceInfo", activity.getDeviceInfo());
+                    data.put("details", activity.getDetails());
+                    return data;
+                });
+    }
+
+    private <T, R> ResponseDTO<CursorPage<R>> page(
+            String email, String cursor, Integer limit, Class<T> type, Query query,
+            Function<T, LocalDateTime> createdAt, Function<T, String> id, Function<T, R> mapper) {
+        FeedCursor after;
+        try {
+            after = cursor != null && !cursor.isBlank() ? FeedCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseDTO.error("INVALID_CURSOR", "Invalid cursor");
+        }
+
+        try {
+            String userId = userNearCache.findIdByEmail(email)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            int size = Math.max(1, Math.min(limit != null ? limit : defaultSize, maxSize));
+
+            // One extra row tells whether another page follows
+            query.addCriteria(seek(userId, after)).with(NEWEST_FIRST).limit(size + 1);
+            List<T> rows = mongoTemplate.find(query, type);
+
+            boolean hasMore = rows.size() > size;
+            if (hasMore) {
+                rows = rows.subList(0, size);
+            }
+            List<R> items = new ArrayList<>(rows.size());
+            for (T row : rows) {
+                items.add(mapper.apply(row));
+            }
+
+            T last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+            return ResponseDTO.success(CursorPage.<R>builder()
+                    .items(items)
+                    .nextCursor(hasMore ? FeedCursor.encode(createdAt.apply(last), id.apply(last)) : null)
+                    .hasMore(hasMore)
+                    .build());
+
+        } catch (Exception e) {
+            log.error("Error listing {} page: {}", type.getSimpleName(), e.getMessage());
+            return ResponseDTO.error("FEED_FAILED", "Failed to load items");
+        }
+    }
+
+    /**
+     * Items of the user after the cursor in (createdAt desc, _id desc) order. The createdAt
+     * upper bound keeps the index scan tight; the $or only separates items sharing the
+     * cursor's timestamp.
+     */
+    private Criteria seek(String userId, FeedCursor after) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (after == null) {
+            return criteria;
+        }
+        return criteria.and("createdAt").lte(after.getCreatedAt())
+                .orOperator(
+                        Criteria.where("createdAt").lt(after.getCreatedAt()),
+                        Criteria.where("_id").lt(new ObjectId(after.getId())));
+    }
+}
@@ -0,0 +1,80 @@
+package com.ideaspark.api.service.impl;
+
+import com.ideaspark.api.repository.OtpVerificationRepository;
+import com.ideaspark.api.service.interfaces.OtpStore;
+import com.ideaspark.shared.entity.OtpVerification;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * OTPs in the Mongo "otps" collection. Attempts are counted with a read-modify-write,
+ * so concurrent guesses are not strictly bounded by the attempt limit.
+ */
+@Service
+@ConditionalOnProperty(name = "otp.store", havingValue = "mongo")
+@RequiredArgsConstructor
+@Slf4j
+public class MongoOtpStore implements OtpStore {
+
+    private final OtpVerificationRepository otpRepository;
+
+    @Override
+    public void save(OtpVerification otpVerification) {
+        // Remove any existing OTP for this phone/email+purpose to avoid duplicate key errors
+        otpRepository.deleteByPhoneOrEmailAndPurpose(otpVerification.getPhoneOrEmail(), otpVerification.getPurpose());
+        otpRepository.save(otpVerification);
+    }
+
+    @Override
+    public boolean verify(String phoneOrEmail, String purpose, String otp, int maxAttempts) {
+        Optional<OtpVerification> otpVerificationOpt =
+                otpRepository.findByPhoneOrEmailAndPurposeAndVerifiedFalse(phoneOrEmail, purpose);
+
+        if (otpVerificationOpt.isEmpty()) {
+            log.warn("No pending OTP found for {} with purpose {}", phoneOrEmail, purpose);
+            return false;
+        }
+
+        OtpVerification otpVerification = otpVerificationOpt.get();
+
+        // Check if OTP has expired
+        if (LocalDateTime.now().isAfter(otpVerification.getExpiresAt())) {
+            log.warn("OTP expired for {} with purpose {}", phoneOrEmail, purpose);
+            otpRepository.delete(otpVerification);
+            return false;
+        }
+
+        // Check attempts
+        if (otpVerification.getAttempts() >= maxAttempts) {
+            log.warn("Maximum OTP attempts exceeded for {} with purpose {}", phoneOrEmail, purpose);
+            otpRepository.delete(otpVerification);
+            return false;
+        }
+
+        // Increment attempts
+        otpVerification.setAttempts(otpVerification.getAttempts() + 1);
+
+        // Verify OTP
+        if (!otp.equals(otpVerification.getOtp())) {
+            otpRepository.save(otpVerification);
+            log.warn("Invalid OTP provided for {} with purpose {}", phoneOrEmail, purpose);
+            return false;
+        }
+
+        // Mark as verified
+        otpVerification.setVerified(true);
+        otpVerification.setVerifiedAt(LocalDateTime.now());
+        otpRepository.save(otpVerification);
+        return true;
+    }
+
+    @Override
+    public void deleteExpired() {
+        otpRepository.deleteByExpiresAtBefore(LocalDateTime.now());
+    }
+}
@@ -1,10 +1,12 @@
 package com.ideaspark.api.service.impl;
 
-import com.ideaspark.api.repository.OtpVerificationRepository;
 import com.ideaspark.api.service.interfaces.EmailService;
 import com.ideaspark.api.service.interfaces.OtpService;
+import com.ideaspark.api.service.interfaces.OtpStore;
 import com.ideaspark.api.service.interfaces.SmsService;
 import com.ideaspark.shared.entity.OtpVerification;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,7 +14,7 @@ import org.springframework.stereotype.Service;
 
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 @Service
@@ -20,9 +22,10 @@ import java.util.regex.Pattern;
 @Slf4j
 public class OtpServiceImpl implements OtpService {
     
-    private final OtpVerificationRepository otpRepository;
+    private final OtpStore otpStore;
     private final EmailService emailService;
     private final SmsService smsService;
+    private final MeterRegistry meterRegistry;
     
     @Value("${otp.expiration.minutes:5}")
     private int otpExpirationMinutes;
@@ -36,6 +39,9 @@ public class OtpServiceImpl implements OtpService {
     private static final String PHONE_PATTERN = 
             "^[+]?[1-9]\\d{1,14}$"; // E.164 format
     
+    private static final Set<String> KNOWN_PURPOSES =
+            Set.of("PASSWORD_RESET", "EMAIL_VERIFICATION", "PHONE_VERIFICATION", "LOGIN");
+
     private final Pattern emailPattern = Pattern.compile(EMAIL_PATTERN);
     private final Pattern phonePattern = Pattern.compile(PHONE_PATTERN);
     
@@ -48,10 +54,14 @@ public class OtpServiceImpl implements OtpService {
     
     @Override
     public boolean sendOTP(String phoneOrEmail, String purpose) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean sent = deliverOTP(phoneOrEmail, purpose);
+        sample.stop(otpTimer("ideaspark.otp.send", phoneOrEmail, purpose, sent ? "sent" : "failed"));
+        return sent;
+    }
+
+    private boolean deliverOTP(String phoneOrEmail, String purpose) {
         try {
-            // Clean up any existing OTP for this phone/email and purpose
-            otpRepository.deleteByPhoneOrEmailAndPurpose(phoneOrEmail, purpose);
-            
             // Generate new OTP
             String otp = generateOTP();
             
@@ -86,7 +96,7 @@ public class OtpServiceImpl implements OtpService {
                 return false;
             }
 
-            // Save OTP to database only after successful send
+            // Store OTP only after successful send
             OtpVerification otpVerification = OtpVerification.builder()
                     .phoneOrEmail(phoneOrEmail)
                     .otp(otp)
@@ -98,20 +108,11 @@ public class OtpServiceImpl implements OtpService {
                     .build();
 
             try {
-                // Remove any existing OTP for this phone/email+purpose to avoid duplicate key errors
-                try {
-                    otpRepository.deleteByPhoneOrEmailAndPurpose(phoneOrEmail, purpose);
-                } catch (Exception ignore) {
-                    // ignore deletion errors, we'll attempt save and log if it fails
-                    log.debug("No existing OTP to delete or delete failed for {}: {}", phoneOrEmail, ignore.getMessage());
-                }
-
-                otpRepository.save(otpVerification);
+                otpStore.save(otpVerification);
                 log.info("OTP sent and saved successfully to {} for purpose: {}", phoneOrEmail, purpose);
                 return true;
             } catch (Exception e) {
-                log.error("Failed to save OTP to DB for {}: {}", phoneOrEmail, e.getMessage(), e);
-                // Optionally attempt to delete if partial state
+                log.error("Failed to save OTP for {}: {}", phoneOrEmail, e.getMessage(), e);
                 return false;
             }
             
@@ -123,46 +124,18 @@ public class OtpServiceImpl implements OtpService {
     
     @Override
     public boolean verifyOTP(String phoneOrEmail, String otp, String purpose) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean verified = checkOTP(phoneOrEmail, otp, purpose);
+        sample.stop(otpTimer("ideaspark.otp.verify", phoneOrEmail, purpose, verified ? "verified" : "failed"));
+        return verified;
+    }
+
+    private boolean checkOTP(String phoneOrEmail, String otp, String purpose) {
         try {
-            Optional<OtpVerification> otpVerificationOpt = 
-                    otpRepository.findByPhoneOrEmailAndPurposeAndVerifiedFalse(phoneOrEmail, purpose);
-            
-            if (otpVerificationOpt.isEmpty()) {
-                log.warn("No pending OTP found for {} with purpose {}", phoneOrEmail, purpose);
+            if (!otpStore.verify(phoneOrEmail, purpose, otp, maxAttempts)) {
                 return false;
             }
             
-            OtpVerification otpVerification = otpVerificationOpt.get();
-            
-            // Check if OTP has expired
-            if (LocalDateTime.now().isAfter(otpVerification.getExpiresAt())) {
-                log.warn("OTP expired for {} with purpose {}", phoneOrEmail, purpose);
-                otpRepository.delete(otpVerification);
-                return false;
-            }
-            
-            // Check attempts
-            if (otpVerification.getAttempts() >= maxAttempts) {
-                log.warn("Maximum OTP attempts exceeded for {} with purpose {}", phoneOrEmail, purpose);
-                otpRepository.delete(otpVerification);
-                return false;
-            }
-            
-            // Increment attempts
-            otpVerification.setAttempts(otpVerification.getAttempts() + 1);
-            
-            // Verify OTP
-            if (!otp.equals(otpVerification.getOtp())) {
-                otpRepository.save(otpVerification);
-                log.warn("Invalid OTP provided for {} with purpose {}", phoneOrEmail, purpose);
-                return false;
-            }
-            
-            // Mark as verified
-            otpVerification.setVerified(true);
-            otpVerification.setVerifiedAt(LocalDateTime.now());
-            otpRepository.save(otpVerification);
-            
             log.info("OTP verified successfully for {} with purpose {}", phoneOrEmail, purpose);
             return true;
             
@@ -180,13 +153,25 @@ public class OtpServiceImpl implements OtpService {
     @Override
     public void cleanupExpiredOTPs() {
         try {
-            otpRepository.deleteByExpiresAtBefore(LocalDateTime.now());
+            otpStore.deleteExpired();
             log.info("Cleaned up expired OTPs");
         } catch (Exception e) {
             log.error("Error cleaning up expired OTPs: {}", e.getMessage());
         }
     }
     
+    // Tags are limited to known values so arbitrary input cannot create new series
+    private Timer otpTimer(String name, String phoneOrEmail, String purpose, String outcome) {
+        String channel = phoneOrEmail == null ? "invalid"
+                : isEmail(phoneOrEmail) ? "email"
+                : isPhone(phoneOrEmail) ? "sms" : "invalid";
+        return Timer.builder(name)
+                .tag("channel", channel)
+                .tag("purpose", KNOWN_PURPOSES.contains(purpose) ? purpose : "OTHER")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
     private boolean isEmail(String input) {
         return emailPattern.matcher(input).matches();
     }
@@ -0,0 +1,90 @@
+package com.ideaspark.api.service.impl;
+
+import com.ideaspark.api.service.interfaces.OtpStore;
+import com.ideaspark.shared.entity.OtpVerification;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * OTPs as Redis hashes ("otp:{purpose}:{phoneOrEmail}") that expire with the OTP.
+ * Verification runs as one script, so the attempt limit holds under concurrent guesses.
+ */
+@Service
+@ConditionalOnProperty(name = "otp.store", havingValue = "redis", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class RedisOtpStore implements OtpStore {
+
+    private static final String KEY_PREFIX = "otp:";
+
+    // Replace the pending OTP and set its expiry in one step
+    private static final RedisScript<Long> SAVE_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('DEL', KEYS[1]) "
+            + "redis.call('HSET', KEYS[1], 'otp', ARGV[1], 'attempts', 0, 'verified', 0, 'createdAt', ARGV[2]) "
+            + "redis.call('PEXPIRE', KEYS[1], ARGV[3]) "
+            + "return 1",
+            Long.class);
+
+    // 1 = verified, 0 = no pending OTP, -1 = attempts used up, -2 = wrong OTP
+    private static final RedisScript<Long> VERIFY_SCRIPT = new DefaultRedisScript<>(
+            "local otp = redis.call('HGET', KEYS[1], 'otp') "
+            + "if not otp or redis.call('HGET', KEYS[1], 'verified') == '1' then return 0 end "
+            + "if tonumber(redis.call('HGET', KEYS[1], 'attempts')) >= tonumber(ARGV[2]) then "
+            + "  redis.call('DEL', KEYS[1]) return -1 end "
+            + "redis.call('HINCRBY', KEYS[1], 'attempts', 1) "
+            + "if otp ~= ARGV[1] then return -2 end "
+            + "redis.call('HSET', KEYS[1], 'verified', 1, 'verifiedAt', ARGV[3]) "
+            + "return 1",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Override
+    public void save(OtpVerification otpVerification) {
+        long ttlMillis = Duration.between(LocalDateTime.now(), otpVerification.getExpiresAt()).toMillis();
+        if (ttlMillis <= 0) {
+            return;
+        }
+        stringRedisTemplate.execute(SAVE_SCRIPT,
+                List.of(key(otpVerification.getPhoneOrEmail(), otpVerification.getPurpose())),
+                otpVerification.getOtp(),
+                String.valueOf(otpVerification.getCreatedAt()),
+                String.valueOf(ttlMillis));
+    }
+
+    @Override
+    public boolean verify(String phoneOrEmail, String purpose, String otp, int maxAttempts) {
+        Long result = stringRedisTemplate.execute(VERIFY_SCRIPT,
+                List.of(key(phoneOrEmail, purpose)),
+                otp,
+                String.valueOf(maxAttempts),
+                String.valueOf(LocalDateTime.now()));
+
+        if (result == null || result == 0) {
+            log.warn("No pending OTP found for {} with purpose {}", phoneOrEmail, purpose);
+        } else if (result == -1) {
+            log.warn("Maximum OTP attempts exceeded for {} with purpose {}", phoneOrEmail, purpose);
+        } else if (result == -2) {
+            log.warn("Invalid OTP provided for {} with purpose {}", phoneOrEmail, purpose);
+        }
+        return result != null && result == 1;
+    }
+
+    @Override
+    public void deleteExpired() {
+        // Keys expire on their own
+    }
+
+    private String key(String phoneOrEmail, String purpose) {
+        return KEY_PREFIX + purpose + ":" + phoneOrEmail;
+    }
+}
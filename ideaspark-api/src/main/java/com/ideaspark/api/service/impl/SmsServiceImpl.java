@@ -1,11 +1,9 @@
 package com.ideaspark.api.service.impl;
 
+import com.ideaspark.api.notification.NotificationDispatcher;
 import com.ideaspark.api.service.interfaces.SmsService;
-import com.twilio.rest.api.v2010.account.Message;
-import com.twilio.type.PhoneNumber;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -13,8 +11,7 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class SmsServiceImpl implements SmsService {
     
-    @Value("${twilio.phoneNumber}")
-    private String twilioPhoneNumber;
+    private final NotificationDispatcher notificationDispatcher;
     
     @Override
     public boolean sendPhoneVerificationOTP(String phoneNumber, String otp) {
@@ -87,24 +84,15 @@ public class SmsServiceImpl implements SmsService {
     }
     
     private boolean sendSMS(String toPhoneNumber, String messageBody) {
-        try {
-            // Ensure phone number is in E.164 format
-            if (!toPhoneNumber.startsWith("+")) {
-                toPhoneNumber = "+91" + toPhoneNumber; // Default to India country code
-            }
-            
-            Message message = Message.creator(
-                    new PhoneNumber(toPhoneNumber),
-                    new PhoneNumber(twilioPhoneNumber),
-                    messageBody
-            ).create();
-            
-            log.info("SMS sent successfully to {}. Message SID: {}", toPhoneNumber, message.getSid());
-            return true;
-            
-        } catch (Exception e) {
-            log.error("Error sending SMS to {}: {}", toPhoneNumber, e.getMessage());
-            return false;
+        // Ensure phone number is in E.164 format
+        if (!toPhoneNumber.startsWith("+")) {
+            toPhoneNumber = "+91" + toPhoneNumber; // Default to India country code
+        }
+        
+        boolean accepted = notificationDispatcher.dispatch("SMS", toPhoneNumber, null, messageBody);
+        if (accepted) {
+            log.info("SMS queued for delivery to {}", toPhoneNumber);
         }
+        return accepted;
     }
 }
\ No newline at end of file
@@ -0,0 +1,242 @@
+package com.ideaspark.api.service.impl;
+
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.kernel.colors.Color;
+import com.itextpdf.kernel.colors.DeviceRgb;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.borders.SolidBorder;
+import com.itextpdf.layout.element.Div;
+import com.itextpdf.layout.element.Image;
+import com.itextpdf.layout.element.List;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Text;
+import com.itextpdf.layout.properties.TextAlignment;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+
+/**
+ * Thin wrapper around an iText layout {@link Document} opened in immediate-flush mode.
+ * Every element is laid out and written to the output stream as soon as it is added,
+ * so finished pages are not kept in memory and callers can feed items one at a time
+ * straight from a database cursor.
+ */
+@Slf4j
+final class StreamingPdfReport implements AutoCloseable {
+
+    private final PdfWriter writer;
+    private final PdfDocument pdfDocument;
+    private final Document document;
+    private final Theme theme;
+    private final RenderCallback callback;
+    private final long startedAt = System.nanoTime();
+
+    private StreamingPdfReport(OutputStream out, String templateStyle, RenderCallback callback) throws IOException {
+        this.writer = new PdfWriter(out);
+        this.callback = callback;
+        // The caller owns the target stream (usually the servlet response)
+        writer.setCloseStream(false);
+        this.pdfDocument = new PdfDocument(writer);
+        this.document = new Document(pdfDocument, PageSize.A4, true);
+        this.theme = Theme.of(templateStyle);
+        document.setFont(theme.bodyFont);
+        document.setFontSize(10);
+    }
+
+    static StreamingPdfReport open(OutputStream out, String title, String templateStyle) {
+        return open(out, title, templateStyle, null);
+    }
+
+    /**
+     * @param callback told the render time and the number of bytes written once the report is closed
+     */
+    static StreamingPdfReport open(OutputStream out, String title, String templateStyle, RenderCallback callback) {
+        try {
+            StreamingPdfReport report = new StreamingPdfReport(out, templateStyle, callback);
+            report.pdfDocument.getDocumentInfo().setTitle(title);
+            return report;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void title(String text) {
+        document.add(new Paragraph(safe(text))
+                .setFont(theme.headingFont)
+                .setFontSize(20)
+                .setFontColor(theme.titleColor)
+                .setBorderBottom(new SolidBorder(theme.accentColor, 2))
+                .setPaddingBottom(6));
+    }
+
+    void subtitle(String text) {
+        document.add(new Paragraph(safe(text))
+                .setFont(theme.headingFont)
+                .setFontSize(15)
+                .setFontColor(theme.headingColor));
+    }
+
+    void heading(String text) {
+        document.add(new Paragraph(safe(text))
+                .setFont(theme.headingFont)
+                .setFontSize(13)
+                .setFontColor(theme.headingColor)
+                .setMarginTop(12));
+    }
+
+    void summary(String text) {
+        document.add(new Paragraph(safe(text))
+                .setFont(theme.headingFont)
+                .setFontColor(theme.summaryColor));
+    }
+
+    void exportDate(String text) {
+        document.add(new Paragraph(safe(text))
+                .setFontColor(theme.metaColor)
+                .setFontSize(9)
+                .setTextAlignment(TextAlignment.RIGHT));
+    }
+
+    void bullets(java.util.List<String> lines) {
+        List list = new List();
+        lines.forEach(line -> list.add(safe(line)));
+        document.add(list);
+    }
+
+    /**
+     * Start a bordered item block. Populate it with {@link #line}, {@link #meta} and
+     * {@link #image}, then pass it to {@link #add(Div)}.
+     */
+    Div item(String heading) {
+        Div item = new Div()
+                .setBorderLeft(new SolidBorder(theme.accentColor, 3))
+                .setPaddingLeft(10)
+                .setMarginTop(10)
+                .setKeepTogether(false);
+        if (heading != null) {
+            item.add(new Paragraph(safe(heading))
+                    .setFont(theme.headingFont)
+                    .setFontSize(12)
+                    .setFontColor(theme.headingColor)
+                    .setMarginBottom(2));
+        }
+        return item;
+    }
+
+    Div meta(Div item, String text) {
+        return item.add(new Paragraph(safe(text))
+                .setFontColor(theme.metaColor)
+                .setFontSize(9)
+                .setMargin(0));
+    }
+
+    Div line(Div item, String label, String text) {
+        if (text == null) {
+            return item;
+        }
+        Paragraph paragraph = new Paragraph().setMarginTop(3);
+        if (label != null) {
+            paragraph.add(new Text(label + ": ").setFont(theme.headingFont));
+        }
+        paragraph.add(text);
+        return item.add(paragraph);
+    }
+
+    Div image(Div item, String url) {
+        if (url == null) {
+            return item;
+        }
+        try {
+            Image image = new Image(ImageDataFactory.create(new URL(url)));
+            image.setAutoScaleWidth(true);
+            item.add(image.setMarginTop(5));
+        } catch (Exception e) {
+            // A broken image should not fail the whole export
+            log.warn("Skipping image {} in PDF export: {}", url, e.getMessage());
+        }
+        return item;
+    }
+
+    void add(Div item) {
+        document.add(item);
+    }
+
+    @Override
+    public void close() {
+        document.add(new Paragraph("Generated by IdeaSpark - Your AI-Powered Creativity Platform")
+                .setFontColor(theme.metaColor)
+                .setTextAlignment(TextAlignment.CENTER)
+                .setMarginTop(24)
+                .setBorderTop(new SolidBorder(theme.metaColor, 0.5f))
+                .setPaddingTop(8));
+        document.add(new Paragraph("© 2025 IdeaSpark. All rights reserved.")
+                .setFontColor(theme.metaColor)
+                .setTextAlignment(TextAlignment.CENTER));
+        document.close();
+        if (callback != null) {
+            callback.rendered(System.nanoTime() - startedAt, writer.getCurrentPos());
+        }
+    }
+
+    @FunctionalInterface
+    interface RenderCallback {
+        void rendered(long elapsedNanos, long bytes);
+    }
+
+    private static String safe(String text) {
+        return text != null ? text : "";
+    }
+
+    // Layout counterparts of the former MODERN / CLASSIC / MINIMAL stylesheets
+    private static final class Theme {
+        private final PdfFont bodyFont;
+        private final PdfFont headingFont;
+        private final Color titleColor;
+        private final Color headingColor;
+        private final Color accentColor;
+        private final Color metaColor;
+        private final Color summaryColor;
+
+        private Theme(String bodyFont, String headingFont, Color titleColor, Color headingColor,
+                      Color accentColor, Color metaColor, Color summaryColor) throws IOException {
+            // Fonts are bound to a PdfDocument, so each report gets its own instances
+            this.bodyFont = PdfFontFactory.createFont(bodyFont);
+            this.headingFont = PdfFontFactory.createFont(headingFont);
+            this.titleColor = titleColor;
+            this.headingColor = headingColor;
+            this.accentColor = accentColor;
+            this.metaColor = metaColor;
+            this.summaryColor = summaryColor;
+        }
+
+        static Theme of(String templateStyle) throws IOException {
+            String style = templateStyle != null ? templateStyle.toLowerCase() : "modern";
+            switch (style) {
+                case "classic":
+                    return new Theme(StandardFonts.TIMES_ROMAN, StandardFonts.TIMES_BOLD,
+                            new DeviceRgb(0x8b, 0x45, 0x13), new DeviceRgb(0x65, 0x43, 0x21),
+                            new DeviceRgb(0x8b, 0x45, 0x13), new DeviceRgb(0x66, 0x66, 0x66),
+                            new DeviceRgb(0x2c, 0x2c, 0x2c));
+                case "minimal":
+                    return new Theme(StandardFonts.HELVETICA, StandardFonts.HELVETICA,
+                            new DeviceRgb(0x22, 0x22, 0x22), new DeviceRgb(0x33, 0x33, 0x33),
+                            new DeviceRgb(0xf0, 0xf0, 0xf0), new DeviceRgb(0x88, 0x88, 0x88),
+                            new DeviceRgb(0x66, 0x66, 0x66));
+                default:
+                    return new Theme(StandardFonts.HELVETICA, StandardFonts.HELVETICA_BOLD,
+                            new DeviceRgb(0x2c, 0x3e, 0x50), new DeviceRgb(0x34, 0x49, 0x5e),
+                            new DeviceRgb(0x34, 0x98, 0xdb), new DeviceRgb(0x7f, 0x8c, 0x8d),
+                            new DeviceRgb(0x27, 0xae, 0x60));
+            }
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package com.ideaspark.api.service.impl;
 
+import com.ideaspark.api.cache.EntitlementCache;
+import com.ideaspark.api.cache.UserNearCache;
+import com.ideaspark.api.event.UserChangedEvent;
+import com.ideaspark.api.event.UserStatsChangedEvent;
 import com.ideaspark.api.repository.SubscriptionRepository;
 import com.ideaspark.api.repository.UserRepository;
+import com.ideaspark.api.service.SubscriptionExpiryProcessor;
 import com.ideaspark.api.service.interfaces.SubscriptionService;
 import com.ideaspark.api.service.interfaces.UserService;
 import com.ideaspark.shared.dto.ResponseDTO;
@@ -10,6 +15,7 @@ import com.ideaspark.shared.entity.User;
 import com.ideaspark.shared.enums.SubscriptionType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -22,7 +28,11 @@ public class SubscriptionServiceImpl implements SubscriptionService {
 
     private final SubscriptionRepository subscriptionRepository;
     private final UserRepository userRepository;
+    private final UserNearCache userNearCache;
+    private final EntitlementCache entitlementCache;
     private final UserService userService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SubscriptionExpiryProcessor subscriptionExpiryProcessor;
 
     @Override
     public ResponseDTO<Object> getAvailablePlans() {
@@ -77,10 +87,13 @@ public class SubscriptionServiceImpl implements SubscriptionService {
             subscriptionRepository.save(subscription);
 
             // Update user premium status
+            User before = user.toBuilder().build();
             user.setIsPremium(planId == 2);
             user.setPremiumExpiresAt(subscription.getExpiresAt());
             user.setUpdatedAt(LocalDateTime.now());
             userRepository.save(user);
+            eventPublisher.publishEvent(UserStatsChangedEvent.between(before, user));
+            eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail(), "SUBSCRIPTION_CHANGE"));
 
             // Log activity
             userService.logUserActivity(user, "SUBSCRIPTION", "subscription", 
@@ -105,7 +118,7 @@ public class SubscriptionServiceImpl implements SubscriptionService {
     @Override
     public ResponseDTO<Map<String, Object>> getSubscriptionStatus(String userEmail) {
         try {
-            User user = userRepository.findByEmail(userEmail)
+            User user = userNearCache.findByEmail(userEmail)
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
             Optional<Subscription> subscription = subscriptionRepository.findByUserAndStatus(user, "active");
@@ -161,12 +174,15 @@ public class SubscriptionServiceImpl implements SubscriptionService {
                 LocalDateTime endDate = sub.getExpiresAt();
                 if (cancelImmediately) {
                     endDate = LocalDateTime.now();
+                    User before = user.toBuilder().build();
                     user.setIsPremium(false);
                     user.setPremiumExpiresAt(null);
                     userRepository.save(user);
+                    eventPublisher.publishEvent(UserStatsChangedEvent.between(before, user));
                 }
                 
                 subscriptionRepository.save(sub);
+                eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail(), "SUBSCRIPTION_CHANGE"));
 
                 // Log activity
                 userService.logUserActivity(user, "SUBSCRIPTION_CANCEL", "subscription", 
@@ -192,7 +208,7 @@ public class SubscriptionServiceImpl implements SubscriptionService {
     @Override
     public ResponseDTO<Object> getSubscriptionHistory(String userEmail) {
         try {
-            User user = userRepository.findByEmail(userEmail)
+            User user = userNearCache.findByEmail(userEmail)
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
             List<Subscription> subscriptions = subscriptionRepository.findByUserOrderByCreatedAtDesc(user);
@@ -246,17 +262,12 @@ public class SubscriptionServiceImpl implements SubscriptionService {
     @Override
     public boolean hasValidSubscription(String userEmail, SubscriptionType requiredType) {
         try {
-            User user = userRepository.findByEmail(userEmail).orElse(null);
-            if (user == null) return false;
+            String userId = userNearCache.findIdByEmail(userEmail).orElse(null);
+            if (userId == null) return false;
 
             if (requiredType == SubscriptionType.FREE) return true;
 
-            Optional<Subscription> subscription = subscriptionRepository.findByUserAndStatus(user, "active");
-            if (subscription.isEmpty()) return false;
-
-            Subscription sub = subscription.get();
-            return sub.getType() == requiredType && 
-                   (sub.getExpiresAt() == null || sub.getExpiresAt().isAfter(LocalDateTime.now()));
+            return entitlementCache.isEntitled(userId, requiredType);
 
         } catch (Exception e) {
             log.error("Error checking subscription validity: {}", e.getMessage());
@@ -266,27 +277,7 @@ public class SubscriptionServiceImpl implements SubscriptionService {
 
     @Override
     public void processExpiredSubscriptions() {
-        try {
-            List<Subscription> expiredSubscriptions = subscriptionRepository
-                    .findExpiredActiveSubscriptions(LocalDateTime.now());
-
-            for (Subscription subscription : expiredSubscriptions) {
-                subscription.setStatus("expired");
-                subscription.setUpdatedAt(LocalDateTime.now());
-                subscriptionRepository.save(subscription);
-
-                // Update user premium status
-                User user = subscription.getUser();
-                user.setIsPremium(false);
-                user.setPremiumExpiresAt(null);
-                userRepository.save(user);
-
-                log.info("Processed expired subscription: {}", subscription.getSubscriptionId());
-            }
-
-        } catch (Exception e) {
-            log.error("Error processing expired subscriptions: {}", e.getMessage());
-        }
+        subscriptionExpiryProcessor.run();
     }
 
     @Override
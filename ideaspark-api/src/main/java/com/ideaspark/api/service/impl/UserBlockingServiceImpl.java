@@ -0,0 +1,324 @@
+package com.ideaspark.api.service.impl;
+
+import com.ideaspark.api.event.UserBlockChangedEvent;
+import com.ideaspark.api.event.UserChangedEvent;
+import com.ideaspark.api.repository.BlockedUserRepository;
+import com.ideaspark.api.repository.UserRepository;
+import com.ideaspark.api.service.interfaces.UserBlockingService;
+import com.ideaspark.shared.dto.BlockUserRequest;
+import com.ideaspark.shared.dto.ResponseDTO;
+import com.ideaspark.shared.entity.BlockedUser;
+import com.ideaspark.shared.entity.User;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blocks are stored in Redis and mirrored on the user document. Every node keeps the
+ * blocked user ids with their unblock time in an immutable map that is replaced on each
+ * change, so the per-request check is one lookup in a (usually empty) map. Changes reach
+ * the other nodes through the cache invalidation relay, and the map is resynced from Redis
+ * periodically in case a message was lost. Temporary blocks are lifted by a hashed timer
+ * wheel when they expire instead of by scanning for expired blocks.
+ */
+@Service
+@Slf4j
+public class UserBlockingServiceImpl implements UserBlockingService {
+
+    // Redis keeps a temporary block a little longer than the timers need it
+    private static final Duration EXPIRY_GRACE = Duration.ofHours(1);
+
+    private final BlockedUserRepository blockedUserRepository;
+    private final UserRepository userRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HashedWheelTimer unblockTimer;
+
+    // userId -> unblock time in epoch millis, Long.MAX_VALUE for permanent blocks
+    private volatile Map<String, Long> blockedUntil = Map.of();
+    private final Map<String, Timeout> unblockTimeouts = new HashMap<>();
+
+    public UserBlockingServiceImpl(
+            BlockedUserRepository blockedUserRepository,
+            UserRepository userRepository,
+            MongoTemplate mongoTemplate,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${blocking.timer.tick:PT1S}") Duration tick,
+            @Value("${blocking.timer.ticks-per-wheel:512}") int ticksPerWheel) {
+        this.blockedUserRepository = blockedUserRepository;
+        this.userRepository = userRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+        this.unblockTimer = new HashedWheelTimer(runnable -> {
+            Thread thread = new Thread(runnable, "user-unblock-timer");
+            thread.setDaemon(true);
+            return thread;
+        }, tick.toMillis(), TimeUnit.MILLISECONDS, ticksPerWheel);
+    }
+
+    @PostConstruct
+    void loadBlockedUsers() {
+        resync();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        unblockTimer.stop();
+    }
+
+    @Override
+    public ResponseDTO<String> blockUser(BlockUserRequest request, String adminId) {
+        try {
+            if (!request.isPermanent() && request.getDurationHours() <= 0) {
+                return ResponseDTO.error("INVALID_DURATION", "Temporary blocks need a duration in hours");
+            }
+            User user = userRepository.findById(request.getUserId())
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime unblockAt = request.isPermanent() ? null : now.plusHours(request.getDurationHours());
+
+            blockedUserRepository.save(BlockedUser.builder()
+                    .userId(user.getId())
+                    .reason(request.getReason())
+                    .blockedByAdminId(adminId)
+                    .permanent(request.isPermanent())
+                    .blockedAt(now)
+                    .unblockAt(unblockAt)
+                    .timeToLive(unblockAt != null
+                            ? Duration.between(now, unblockAt).plus(EXPIRY_GRACE).getSeconds()
+                            : null)
+                    .build());
+
+            user.setBlocked(true);
+            user.setBlockedAt(now);
+            user.setBlockedReason(request.getReason());
+            user.setBlockedByAdminId(adminId);
+            user.setUpdatedAt(now);
+            userRepository.save(user);
+            eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail(), "BLOCK"));
+            eventPublisher.publishEvent(new UserBlockChangedEvent(user.getId(), true, toMillis(unblockAt)));
+
+            log.info("User {} blocked by {} {}", user.getId(), adminId,
+                    unblockAt != null ? "until " + unblockAt : "permanently");
+            return ResponseDTO.success("User blocked successfully");
+
+        } catch (Exception e) {
+            log.error("Error blocking user: {}", e.getMessage());
+            return ResponseDTO.error("BLOCK_FAILED", "Failed to block user");
+        }
+    }
+
+    @Override
+    public ResponseDTO<String> unblockUser(String userId, String adminId) {
+        try {
+            if (!lift(userId, "UNBLOCK")) {
+                return ResponseDTO.error("NOT_BLOCKED", "User is not blocked");
+            }
+            log.info("User {} unblocked by {}", userId, adminId);
+            return ResponseDTO.success("User unblocked successfully");
+
+        } catch (Exception e) {
+            log.error("Error unblocking user: {}", e.getMessage());
+            return ResponseDTO.error("UNBLOCK_FAILED", "Failed to unblock user");
+        }
+    }
+
+    @Override
+    public boolean isUserBlocked(String userId) {
+        if (userId == null) {
+            return false;
+        }
+        Long until = blockedUntil.get(userId);
+        return until != null && until > System.currentTimeMillis();
+    }
+
+    @Override
+    public ResponseDTO<List<Object>> getAllBlockedUsers() {
+        try {
+            List<Object> blockedUsers = new ArrayList<>();
+            for (BlockedUser blocked : blockedUserRepository.findAll()) {
+                if (blocked != null) {
+                    blockedUsers.add(blocked);
+                }
+            }
+            return ResponseDTO.success(blockedUsers);
+
+        } catch (Exception e) {
+            log.error("Error getting blocked users: {}", e.getMessage());
+            return ResponseDTO.error("FETCH_FAILED", "Failed to fetch blocked users");
+        }
+    }
+
+    @Override
+    public ResponseDTO<Object> getBlockingDetails(String userId) {
+        try {
+            return blockedUserRepository.findById(userId)
+                    .<ResponseDTO<Object>>map(ResponseDTO::success)
+                    .orElseGet(() -> ResponseDTO.error("NOT_BLOCKED", "User is not blocked"));
+
+        } catch (Exception e) {
+            log.error("Error getting blocking details: {}", e.getMessage());
+            return ResponseDTO.error("FETCH_FAILED", "Failed to fetch blocking details");
+        }
+    }
+
+    /**
+     * Resyncs the local set from Redis and lifts blocks whose timer did not fire here,
+     * e.g. because this node was down at the time. Timers lift blocks as they expire.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${blocking.resync-interval:PT5M}", initialDelayString = "${blocking.resync-interval:PT5M}")
+    public void autoUnblockExpiredUsers() {
+        resync();
+        long now = System.currentTimeMillis();
+        blockedUntil.forEach((userId, until) -> {
+            if (until <= now) {
+                expire(userId, until);
+            }
+        });
+    }
+
+    @EventListener
+    public void onUserBlockChanged(UserBlockChangedEvent event) {
+        if (event.isBlocked()) {
+            markBlocked(event.getUserId(), event.getBlockedUntilMillis());
+        } else {
+            markUnblocked(event.getUserId());
+        }
+    }
+
+    private synchronized void markBlocked(String userId, long until) {
+        Map<String, Long> next = new HashMap<>(blockedUntil);
+        next.put(userId, until);
+        cancelTimer(userId);
+        scheduleTimer(userId, until);
+        blockedUntil = Map.copyOf(next);
+    }
+
+    private synchronized void markUnblocked(String userId) {
+        if (!blockedUntil.containsKey(userId)) {
+            return;
+        }
+        Map<String, Long> next = new HashMap<>(blockedUntil);
+        next.remove(userId);
+        cancelTimer(userId);
+        blockedUntil = Map.copyOf(next);
+    }
+
+    private void resync() {
+        Map<String, Long> stored = new HashMap<>();
+        try {
+            for (BlockedUser blocked : blockedUserRepository.findAll()) {
+                if (blocked != null) {
+                    stored.put(blocked.getUserId(), unblockMillis(blocked));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to load blocked users, keeping the current set: {}", e.getMessage());
+            return;
+        }
+
+        synchronized (this) {
+            if (!stored.equals(blockedUntil)) {
+                log.info("Blocked user set resynced: {} -> {} users", blockedUntil.size(), stored.size());
+            }
+            unblockTimeouts.values().forEach(Timeout::cancel);
+            unblockTimeouts.clear();
+            stored.forEach(this::scheduleTimer);
+            blockedUntil = Map.copyOf(stored);
+        }
+    }
+
+    private void scheduleTimer(String userId, long until) {
+        if (until == Long.MAX_VALUE) {
+            return;
+        }
+        long delay = Math.max(0, until - System.currentTimeMillis());
+        unblockTimeouts.put(userId, unblockTimer.newTimeout(timeout -> expire(userId, until), delay, TimeUnit.MILLISECONDS));
+    }
+
+    private void cancelTimer(String userId) {
+        Timeout timeout = unblockTimeouts.remove(userId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    private void expire(String userId, long until) {
+        Long current = blockedUntil.get(userId);
+        if (current == null || current != until) {
+            // Lifted or replaced by a newer block in the meantime
+            return;
+        }
+        try {
+            // The local map may not have seen a re-block made on another node yet; only the
+            // block this timer was scheduled for may be removed from Redis
+            BlockedUser stored = blockedUserRepository.findById(userId).orElse(null);
+            if (stored != null && unblockMillis(stored) != until) {
+                log.debug("Block of user {} was replaced before its timer fired", userId);
+                return;
+            }
+            lift(userId, "BLOCK_EXPIRED");
+            log.info("Temporary block of user {} expired", userId);
+        } catch (Exception e) {
+            log.error("Error lifting expired block of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * Removes the block everywhere. Every node's timer fires for an expiring block; only
+     * the one that clears the flag on the user document reports the change as a user change.
+     *
+     * @return true if the user was blocked
+     */
+    private boolean lift(String userId, String reason) {
+        boolean knownLocally = blockedUntil.containsKey(userId);
+        blockedUserRepository.deleteById(userId);
+
+        User previous = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(userId).and("isBlocked").is(true)),
+                new Update()
+                        .set("isBlocked", false)
+                        .unset("blockedAt")
+                        .unset("blockedReason")
+                        .unset("blockedByAdminId")
+                        .set("updatedAt", LocalDateTime.now()),
+                User.class);
+        if (previous != null) {
+            eventPublisher.publishEvent(new UserChangedEvent(userId, previous.getEmail(), reason));
+        }
+        eventPublisher.publishEvent(new UserBlockChangedEvent(userId, false, 0));
+        return previous != null || knownLocally;
+    }
+
+    private static long unblockMillis(BlockedUser blocked) {
+        return blocked.isPermanent() ? Long.MAX_VALUE : toMillis(blocked.getUnblockAt());
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time != null
+                ? time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : Long.MAX_VALUE;
+    }
+}
@@ -1,7 +1,13 @@
 package com.ideaspark.api.service.impl;
 
+import com.ideaspark.api.cache.UserNearCache;
+import com.ideaspark.api.event.UserChangedEvent;
+import com.ideaspark.api.event.UserStatsChangedEvent;
 import com.ideaspark.api.repository.UserActivityRepository;
 import com.ideaspark.api.repository.UserRepository;
+import com.ideaspark.api.service.UserActivityWriter;
+import com.ideaspark.api.service.UserMapper;
+import com.ideaspark.api.service.UserStatistics;
 import com.ideaspark.api.service.interfaces.UserService;
 import com.ideaspark.shared.dto.ResponseDTO;
 import com.ideaspark.shared.dto.UserDTO;
@@ -11,6 +17,7 @@ import com.ideaspark.shared.enums.UserRole;
 import com.ideaspark.shared.enums.UserStatus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -27,15 +34,19 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final UserNearCache userNearCache;
     private final UserActivityRepository userActivityRepository;
+    private final UserActivityWriter userActivityWriter;
+    private final UserStatistics userStatistics;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public ResponseDTO<UserDTO> getUserProfile(String email) {
         try {
-            User user = userRepository.findByEmail(email)
+            User user = userNearCache.findByEmail(email)
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
-            UserDTO userDTO = convertToUserDTO(user);
+            UserDTO userDTO = UserMapper.toUserDTO(user);
             return ResponseDTO.success(userDTO);
 
         } catch (Exception e) {
@@ -47,6 +58,7 @@ public class UserServiceImpl implements UserService {
     @Override
     public ResponseDTO<UserDTO> updateUserProfile(String email, UserDTO userDTO) {
         try {
+            // Saved back whole, so read from the database rather than the near-cache
             User user = userRepository.findByEmail(email)
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -73,7 +85,7 @@ public class UserServiceImpl implements UserService {
             // Log activity
             logUserActivity(user, "PROFILE_UPDATE", "profile", "Profile updated", null, null);
 
-            return ResponseDTO.success("Profile updated successfully", convertToUserDTO(savedUser));
+            return ResponseDTO.success("Profile updated successfully", UserMapper.toUserDTO(savedUser));
 
         } catch (Exception e) {
             log.error("Error updating user profile: {}", e.getMessage());
@@ -99,7 +111,7 @@ public class UserServiceImpl implements UserService {
 
             Map<String, Object> response = new HashMap<>();
             response.put("users", userPage.getContent().stream()
-                    .map(this::convertToUserDTO)
+                    .map(UserMapper::toUserDTO)
                     .collect(Collectors.toList()));
             response.put("totalUsers", userPage.getTotalElements());
             response.put("totalPages", userPage.getTotalPages());
@@ -118,11 +130,14 @@ public class UserServiceImpl implements UserService {
         try {
             User user = userRepository.findById(userId)
                     .orElseThrow(() -> new RuntimeException("User not found"));
+            User before = user.toBuilder().build();
 
             user.setStatus(status);
             user.setIsActive(status == UserStatus.ACTIVE);
             user.setUpdatedAt(LocalDateTime.now());
             userRepository.save(user);
+            eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail(), "STATUS_UPDATE"));
+            eventPublisher.publishEvent(UserStatsChangedEvent.between(before, user));
 
             logUserActivity(user, "STATUS_UPDATE", "admin", "Status updated to " + status, null, null);
 
@@ -139,12 +154,15 @@ public class UserServiceImpl implements UserService {
         try {
             User user = userRepository.findById(userId)
                     .orElseThrow(() -> new RuntimeException("User not found"));
+            User before = user.toBuilder().build();
 
             // Soft delete - mark as inactive
             user.setStatus(UserStatus.INACTIVE);
             user.setIsActive(false);
             user.setUpdatedAt(LocalDateTime.now());
             userRepository.save(user);
+            eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail(), "USER_DELETE"));
+            eventPublisher.publishEvent(UserStatsChangedEvent.between(before, user));
 
             logUserActivity(user, "USER_DELETE", "admin", "User deleted by admin", null, null);
 
@@ -159,16 +177,7 @@ public class UserServiceImpl implements UserService {
     @Override
     public ResponseDTO<Map<String, Object>> getUserStatistics() {
         try {
-            LocalDateTime today = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
-            LocalDateTime monthStart = today.withDayOfMonth(1);
-
-            Map<String, Object> stats = new HashMap<>();
-            stats.put("totalUsers", userRepository.count());
-            stats.put("activeUsers", userRepository.countByStatus(UserStatus.ACTIVE));
-            stats.put("premiumUsers", userRepository.countByIsPremium(true));
-            stats.put("freeUsers", userRepository.countByIsPremium(false));
-            stats.put("newUsersToday", userRepository.countByCreatedAtAfter(today));
-            stats.put("newUsersThisMonth", userRepository.countByCreatedAtAfter(monthStart));
+            Map<String, Object> stats = userStatistics.snapshot();
 
             return ResponseDTO.success(stats);
 
@@ -181,11 +190,11 @@ public class UserServiceImpl implements UserService {
     @Override
     public ResponseDTO<Page<Map<String, Object>>> getUserActivity(String email, int limit) {
         try {
-            User user = userRepository.findByEmail(email)
+            User user = userNearCache.findByEmail(email)
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
             Pageable pageable = PageRequest.of(0, limit);
-            Page<UserActivity> activities = userActivityRepository.findByUserOrderByCreatedAtDesc(user, pageable);
+            Page<UserActivity> activities = userActivityRepository.findByUserIdOrderByCreatedAtDesc(user.getId(), pageable);
 
             Page<Map<String, Object>> activityData = activities.map(activity -> {
                 Map<String, Object> data = new HashMap<>();
@@ -208,7 +217,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User findByEmail(String email) {
-        return userRepository.findByEmail(email).orElse(null);
+        return userNearCache.findByEmail(email).orElse(null);
     }
 
     @Override
@@ -225,7 +234,7 @@ public class UserServiceImpl implements UserService {
     public void logUserActivity(User user, String action, String featureName, String details, String ipAddress, String userAgent) {
         try {
             UserActivity activity = UserActivity.builder()
-                    .user(user)
+                    .userId(user.getId())
                     .action(action)
                     .featureName(featureName)
                     .details(details)
@@ -234,32 +243,10 @@ public class UserServiceImpl implements UserService {
                     .createdAt(LocalDateTime.now())
                     .build();
 
-            userActivityRepository.save(activity);
+            // Written in batches by the background writer; never blocks on MongoDB here
+            userActivityWriter.submit(activity);
         } catch (Exception e) {
             log.error("Error logging user activity: {}", e.getMessage());
         }
     }
-
-    private UserDTO convertToUserDTO(User user) {
-    return UserDTO.builder()
-        .id(user.getId())
-                .email(user.getEmail())
-                .fullName(user.getFullName())
-                .profileImageUrl(user.getProfileImageUrl())
-                .phone(user.getPhone())
-                .country(user.getCountry())
-                .language(user.getLanguage())
-                .role(user.getRole())
-                .status(user.getStatus())
-                .isActive(user.getIsActive())
-                .isVerified(user.getIsVerified())
-                .isPremium(user.getIsPremium())
-                .subscriptionType(user.getIsPremium() ? 
-                    com.ideaspark.shared.enums.SubscriptionType.PREMIUM : 
-                    com.ideaspark.shared.enums.SubscriptionType.FREE)
-                .premiumExpiresAt(user.getPremiumExpiresAt())
-                .lastLoginAt(user.getLastLoginAt())
-                .createdAt(user.getCreatedAt())
-                .build();
-    }
 }
\ No newline at end of file
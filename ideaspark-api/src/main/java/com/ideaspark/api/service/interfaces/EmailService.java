@@ -6,7 +6,7 @@ public interface EmailService {
      * Send welcome email to new user
      * @param to Recipient email address
      * @param name User's name
-     * @return true if email sent successfully
+     * @return true if email accepted for delivery
      */
     boolean sendWelcomeEmail(String to, String name);
     
@@ -15,7 +15,7 @@ public interface EmailService {
      * @param to Recipient email address
      * @param otp OTP code
      * @param name User's name
-     * @return true if email sent successfully
+     * @return true if email accepted for delivery
      */
     boolean sendEmailVerificationOTP(String to, String otp, String name);
     
@@ -24,7 +24,7 @@ public interface EmailService {
      * @param to Recipient email address
      * @param otp OTP code
      * @param name User's name
-     * @return true if email sent successfully
+     * @return true if email accepted for delivery
      */
     boolean sendPasswordResetOTP(String to, String otp, String name);
     
@@ -33,7 +33,7 @@ public interface EmailService {
      * @param to Recipient email address
      * @param name User's name
      * @param planName Subscription plan name
-     * @return true if email sent successfully
+     * @return true if email accepted for delivery
      */
     boolean sendPremiumSubscriptionEmail(String to, String name, String planName);
     
@@ -42,7 +42,7 @@ public interface EmailService {
      * @param to Recipient email address
      * @param name User's name
      * @param reason Blocking reason
-     * @return true if email sent successfully
+     * @return true if email accepted for delivery
      */
     boolean sendAccountBlockedEmail(String to, String name, String reason);
     
@@ -51,7 +51,7 @@ public interface EmailService {
      * @param to Recipient email address
      * @param subject Email subject
      * @param content Email content (HTML)
-     * @return true if email sent successfully
+     * @return true if email accepted for delivery
      */
     boolean sendCustomEmail(String to, String subject, String content);
 }
\ No newline at end of file
@@ -15,6 +15,11 @@ public interface ErrorReportService {
      */
     void reportError(String errorType, String message, String stackTrace, String userId, String endpoint);
     
+    /**
+     * Report an exception; the same exception instance is only counted once
+     */
+    void reportException(Throwable exception, String userId, String endpoint);
+    
     /**
      * Get error statistics for admin dashboard
      */
@@ -29,9 +34,4 @@ public interface ErrorReportService {
      * Get error trends over time
      */
     ResponseDTO<Map<String, Object>> getErrorTrends(LocalDateTime startDate, LocalDateTime endDate);
-    
-    /**
-     * Clear old error reports
-     */
-    void cleanOldReports(int daysToKeep);
 }
\ No newline at end of file
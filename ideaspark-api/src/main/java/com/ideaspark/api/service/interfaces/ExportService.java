@@ -1,6 +1,7 @@
 package com.ideaspark.api.service.interfaces;
 
 import com.ideaspark.shared.dto.ResponseDTO;
+import org.springframework.core.io.Resource;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -14,7 +15,7 @@ public interface ExportService {
     
     ResponseDTO<Map<String, Object>> generateCustomExport(String userEmail, String exportType, List<String> dataTypes, String format, LocalDateTime startDate, LocalDateTime endDate);
     
-    ResponseDTO<byte[]> downloadExportFile(String exportId, String userEmail);
+    ResponseDTO<Resource> downloadExportFile(String exportId, String userEmail);
     
     ResponseDTO<Map<String, Object>> getExportStatus(String exportId, String userEmail);
     
@@ -0,0 +1,28 @@
+package com.ideaspark.api.service.interfaces;
+
+import com.ideaspark.shared.entity.UserActivity;
+import com.ideaspark.shared.entity.UserDataCounters;
+
+import java.util.List;
+
+public interface ExportStatsService {
+
+    /**
+     * Counts of everything a user can export, by collection, idea status and generation type
+     * @param userId User ID
+     * @return Counts as of {@link UserDataCounters#getUpdatedAt()}
+     */
+    UserDataCounters getUserDataStats(String userId);
+
+    /**
+     * Apply newly written activities to the stored counters (no-op when counters are disabled)
+     * @param activities Activities that were just inserted
+     */
+    void recordActivities(List<UserActivity> activities);
+
+    /**
+     * Drop the stored counters of a user so they are recomputed on next read
+     * @param userId User ID
+     */
+    void invalidate(String userId);
+}
@@ -0,0 +1,26 @@
+package com.ideaspark.api.service.interfaces;
+
+import com.ideaspark.shared.dto.CursorPage;
+import com.ideaspark.shared.dto.ResponseDTO;
+import com.ideaspark.shared.entity.AIGeneration;
+import com.ideaspark.shared.entity.Idea;
+
+import java.util.Map;
+
+/**
+ * Newest-first listings of a user's content, paged by continuation cursor. Every page
+ * costs the same whatever its depth.
+ */
+public interface FeedService {
+
+    /**
+     * @param email Owner's email
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @param limit Page size, capped by feed.page.max-size (null for the default)
+     */
+    ResponseDTO<CursorPage<Idea>> getIdeas(String email, String cursor, Integer limit);
+
+    ResponseDTO<CursorPage<AIGeneration>> getAIGenerations(String email, String cursor, Integer limit);
+
+    ResponseDTO<CursorPage<Map<String, Object>>> getActivity(String email, String cursor, Integer limit);
+}
@@ -0,0 +1,32 @@
+package com.ideaspark.api.service.interfaces;
+
+import com.ideaspark.shared.entity.OtpVerification;
+
+/**
+ * Storage for pending OTPs, keyed by phone/email and purpose.
+ * Selected with otp.store ("redis" or "mongo").
+ */
+public interface OtpStore {
+
+    /**
+     * Store an OTP, replacing any pending OTP for the same phone/email and purpose
+     * @param otpVerification OTP with phoneOrEmail, purpose, otp and expiresAt set
+     */
+    void save(OtpVerification otpVerification);
+
+    /**
+     * Count one attempt against the pending OTP and mark it verified if it matches.
+     * An OTP that is expired or has used up its attempts never verifies.
+     * @param phoneOrEmail Phone number or email address
+     * @param purpose Purpose of OTP
+     * @param otp OTP to verify
+     * @param maxAttempts Attempts allowed per OTP
+     * @return true if OTP is valid and now verified
+     */
+    boolean verify(String phoneOrEmail, String purpose, String otp, int maxAttempts);
+
+    /**
+     * Remove expired OTPs, for stores without native expiry
+     */
+    void deleteExpired();
+}
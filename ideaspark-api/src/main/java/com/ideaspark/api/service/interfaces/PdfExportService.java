@@ -4,15 +4,65 @@ import com.ideaspark.shared.dto.ExportDataDTO;
 import com.ideaspark.shared.dto.ExportRequest;
 
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface PdfExportService {
+
+    /**
+     * Stream PDF report for user's ideas
+     * @param userId User ID
+     * @param exportRequest Export configuration
+     * @param out Target stream; written incrementally and left open
+     */
+    void writeIdeasPdf(String userId, ExportRequest exportRequest, OutputStream out);
+
+    /**
+     * Stream PDF report for AI generations
+     * @param userId User ID
+     * @param exportRequest Export configuration
+     * @param out Target stream; written incrementally and left open
+     */
+    void writeAIGenerationsPdf(String userId, ExportRequest exportRequest, OutputStream out);
+
+    /**
+     * Stream PDF report for chat history
+     * @param userId User ID
+     * @param exportRequest Export configuration
+     * @param out Target stream; written incrementally and left open
+     */
+    void writeChatHistoryPdf(String userId, ExportRequest exportRequest, OutputStream out);
+
+    /**
+     * Stream comprehensive user activity PDF
+     * @param userId User ID
+     * @param exportRequest Export configuration
+     * @param out Target stream; written incrementally and left open
+     */
+    void writeUserActivityPdf(String userId, ExportRequest exportRequest, OutputStream out);
+
+    /**
+     * Stream complete user data export PDF
+     * @param userId User ID
+     * @param exportRequest Export configuration
+     * @param out Target stream; written incrementally and left open
+     */
+    void writeCompleteUserPdf(String userId, ExportRequest exportRequest, OutputStream out);
+
+    /**
+     * Stream custom PDF from provided data
+     * @param data List of export data
+     * @param exportRequest Export configuration
+     * @param title PDF title
+     * @param out Target stream; written incrementally and left open
+     */
+    void writeCustomPdf(List<ExportDataDTO> data, ExportRequest exportRequest, String title, OutputStream out);
     
     /**
      * Generate PDF report for user's ideas
      * @param userId User ID
      * @param exportRequest Export configuration
-     * @return PDF as byte array
+     * @return PDF buffered in memory (prefer the write* variants for large exports)
      */
     ByteArrayOutputStream generateIdeasPdf(String userId, ExportRequest exportRequest);
     
@@ -20,7 +70,7 @@ public interface PdfExportService {
      * Generate PDF report for AI generations
      * @param userId User ID
      * @param exportRequest Export configuration
-     * @return PDF as byte array
+     * @return PDF buffered in memory (prefer the write* variants for large exports)
      */
     ByteArrayOutputStream generateAIGenerationsPdf(String userId, ExportRequest exportRequest);
     
@@ -28,7 +78,7 @@ public interface PdfExportService {
      * Generate PDF report for chat history
      * @param userId User ID
      * @param exportRequest Export configuration
-     * @return PDF as byte array
+     * @return PDF buffered in memory (prefer the write* variants for large exports)
      */
     ByteArrayOutputStream generateChatHistoryPdf(String userId, ExportRequest exportRequest);
     
@@ -36,7 +86,7 @@ public interface PdfExportService {
      * Generate comprehensive user activity PDF
      * @param userId User ID
      * @param exportRequest Export configuration
-     * @return PDF as byte array
+     * @return PDF buffered in memory (prefer the write* variants for large exports)
      */
     ByteArrayOutputStream generateUserActivityPdf(String userId, ExportRequest exportRequest);
     
@@ -44,7 +94,7 @@ public interface PdfExportService {
      * Generate complete user data export PDF
      * @param userId User ID
      * @param exportRequest Export configuration
-     * @return PDF as byte array
+     * @return PDF buffered in memory (prefer the write* variants for large exports)
      */
     ByteArrayOutputStream generateCompleteUserPdf(String userId, ExportRequest exportRequest);
     
@@ -53,7 +103,7 @@ public interface PdfExportService {
      * @param data List of export data
      * @param exportRequest Export configuration
      * @param title PDF title
-     * @return PDF as byte array
+     * @return PDF buffered in memory (prefer the write* variants for large exports)
      */
     ByteArrayOutputStream generateCustomPdf(List<ExportDataDTO> data, ExportRequest exportRequest, String title);
 }
\ No newline at end of file
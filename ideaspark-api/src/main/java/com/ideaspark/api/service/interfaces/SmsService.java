@@ -6,7 +6,7 @@ public interface SmsService {
      * Send OTP via SMS for phone verification
      * @param phoneNumber Recipient phone number
      * @param otp OTP code
-     * @return true if SMS sent successfully
+     * @return true if SMS accepted for delivery
      */
     boolean sendPhoneVerificationOTP(String phoneNumber, String otp);
     
@@ -14,7 +14,7 @@ public interface SmsService {
      * Send OTP via SMS for password reset
      * @param phoneNumber Recipient phone number
      * @param otp OTP code
-     * @return true if SMS sent successfully
+     * @return true if SMS accepted for delivery
      */
     boolean sendPasswordResetOTP(String phoneNumber, String otp);
     
@@ -22,7 +22,7 @@ public interface SmsService {
      * Send welcome SMS to new user
      * @param phoneNumber Recipient phone number
      * @param name User's name
-     * @return true if SMS sent successfully
+     * @return true if SMS accepted for delivery
      */
     boolean sendWelcomeSMS(String phoneNumber, String name);
     
@@ -31,7 +31,7 @@ public interface SmsService {
      * @param phoneNumber Recipient phone number
      * @param name User's name
      * @param planName Subscription plan name
-     * @return true if SMS sent successfully
+     * @return true if SMS accepted for delivery
      */
     boolean sendPremiumSubscriptionSMS(String phoneNumber, String name, String planName);
     
@@ -39,7 +39,7 @@ public interface SmsService {
      * Send account blocked notification SMS
      * @param phoneNumber Recipient phone number
      * @param name User's name
-     * @return true if SMS sent successfully
+     * @return true if SMS accepted for delivery
      */
     boolean sendAccountBlockedSMS(String phoneNumber, String name);
     
@@ -47,7 +47,7 @@ public interface SmsService {
      * Send custom SMS
      * @param phoneNumber Recipient phone number
      * @param message SMS content
-     * @return true if SMS sent successfully
+     * @return true if SMS accepted for delivery
      */
     boolean sendCustomSMS(String phoneNumber, String message);
 }
\ No newline at end of file
@@ -25,6 +25,7 @@ public interface UserService {
     
     ResponseDTO<Page<Map<String, Object>>> getUserActivity(String email, int limit);
     
+    // Served from the near-cache and possibly stale: load through UserRepository before saving a user
     User findByEmail(String email);
     
     User saveUser(User user);
@@ -0,0 +1,99 @@
+package com.ideaspark.api.config;
+
+import com.ideaspark.api.security.JwtAuthenticationFilter;
+import com.ideaspark.api.security.UserAccessCache;
+import com.ideaspark.api.service.JwtService;
+import com.ideaspark.api.service.UserDetailsServiceImpl;
+import com.ideaspark.api.service.interfaces.UserBlockingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that requests arriving on the management port get no more access than the
+ * actuator endpoints.
+ */
+@WebMvcTest
+@ContextConfiguration(classes = SecurityConfigTest.Endpoints.class)
+@Import({SecurityConfig.class, JwtAuthenticationFilter.class})
+@TestPropertySource(properties = {"server.port=8080", "management.server.port=8081"})
+class SecurityConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private JwtService jwtService;
+
+    @MockBean
+    private UserDetailsServiceImpl userDetailsService;
+
+    @MockBean
+    private UserAccessCache userAccessCache;
+
+    @MockBean
+    private UserBlockingService userBlockingService;
+
+    @Test
+    void adminEndpointOnManagementPortRequiresAuthentication() throws Exception {
+        mockMvc.perform(get("/admin/users").with(localPort(8081)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void apiEndpointOnManagementPortRequiresAuthentication() throws Exception {
+        mockMvc.perform(get("/ideas").with(localPort(8081)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void publicEndpointStaysOpen() throws Exception {
+        mockMvc.perform(get("/subscription/plans").with(localPort(8080)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void refusesToStartWhenManagementPortIsServerPort() {
+        new WebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(SecurityAutoConfiguration.class))
+                .withUserConfiguration(SecurityConfig.class)
+                .withBean(JwtAuthenticationFilter.class, () -> mock(JwtAuthenticationFilter.class))
+                .withPropertyValues("server.port=8080", "management.server.port=8080")
+                .run(context -> assertThat(context).getFailure()
+                        .rootCause()
+                        .isInstanceOf(IllegalStateException.class)
+                        .hasMessageContaining("management.server.port must differ from server.port"));
+    }
+
+    private static RequestPostProcessor localPort(int port) {
+        return request -> {
+            request.setLocalPort(port);
+            return request;
+        };
+    }
+
+    @RestController
+    static class Endpoints {
+
+        @GetMapping({"/admin/users", "/ideas", "/subscription/plans"})
+        String ok() {
+            return "ok";
+        }
+    }
+}
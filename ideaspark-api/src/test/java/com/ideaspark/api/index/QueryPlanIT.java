@@ -0,0 +1,440 @@
+package com.ideaspark.api.index;
+
+import com.ideaspark.api.repository.AIGenerationRepository;
+import com.ideaspark.api.repository.IdeaRepository;
+import com.ideaspark.api.repository.SubscriptionRepository;
+import com.ideaspark.api.repository.UserActivityRepository;
+import com.ideaspark.api.repository.UserRepository;
+import com.ideaspark.api.support.TestMongo;
+import com.ideaspark.shared.entity.AIGeneration;
+import com.ideaspark.shared.entity.Idea;
+import com.ideaspark.shared.entity.Subscription;
+import com.ideaspark.shared.entity.User;
+import com.ideaspark.shared.entity.UserActivity;
+import com.ideaspark.shared.enums.SubscriptionType;
+import com.ideaspark.shared.enums.UserRole;
+import com.ideaspark.shared.enums.UserStatus;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Query-plan regression test for the Mongo repositories. Seeds a scratch database with
+ * users, ideas, AI generations, activities and subscriptions, builds the indexes declared
+ * in {@link IndexRegistry}, then calls every method declared by UserRepository,
+ * IdeaRepository, AIGenerationRepository, UserActivityRepository and SubscriptionRepository
+ * with the database profiler on. Each operation a method issues must be served by an index
+ * and examine at most {@value #MAX_KEY_RATIO} keys or documents per matched document (plus
+ * {@value #KEY_SLACK}); the query shapes declared in the registry are explained as well.
+ * A repository method without a check here fails the test too.
+ * <p>
+ * Runs in the integration-test phase of the {@code it} profile ({@code mvn verify -Pit})
+ * against the server described in {@link TestMongo}; the database is dropped before and
+ * after the run.
+ */
+class QueryPlanIT {
+
+    private static final String DATABASE = "ideaspark_plan_check";
+    private static final int USERS = 1000;
+    private static final int IDEAS_PER_USER = 20;
+    private static final int GENERATIONS_PER_USER = 30;
+    private static final int ACTIVITIES_PER_USER = 50;
+    private static final double MAX_KEY_RATIO = 2;
+    private static final long KEY_SLACK = 10;
+
+    private static final List<Class<?>> REPOSITORIES = List.of(
+            UserRepository.class, IdeaRepository.class, AIGenerationRepository.class,
+            UserActivityRepository.class, SubscriptionRepository.class);
+
+    private static final String[] CATEGORIES = {"product", "marketing", "tech", "design", "finance", "health", "education", "travel"};
+    private static final String[] IDEA_STATUSES = {"DRAFT", "ACTIVE", "COMPLETED", "ARCHIVED"};
+    private static final String[] GENERATION_TYPES = {"CHAT", "WRITER", "CODE", "IMAGE", "IDEA", "NEWS_DETECTION", "TEXT_TOOLS", "VOICE_TOOLS"};
+    private static final String[] FEATURES = {"chat", "writer", "code", "image", "ideas", "news", "text-tools", "voice", "export", "profile"};
+    private static final String[] ACTIONS = {"LOGIN", "LOGOUT", "VIEW", "CREATE", "UPDATE", "DELETE", "EXPORT", "GENERATE"};
+    private static final int TAGS = 20;
+    private static final int BATCH_SIZE = 5000;
+
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+    private static IndexManager indexManager;
+    private static Sample sample;
+
+    private final Map<Class<?>, Set<String>> checked = new HashMap<>();
+
+    @BeforeAll
+    static void seedAndBuildIndexes() {
+        client = MongoClients.create(TestMongo.uri());
+        mongoTemplate = new MongoTemplate(client, DATABASE);
+        mongoTemplate.getDb().drop();
+        sample = seed(USERS, IDEAS_PER_USER, GENERATIONS_PER_USER, ACTIVITIES_PER_USER);
+        indexManager = new IndexManager(mongoTemplate, new IndexRegistry(30), false, false);
+        indexManager.build(false);
+    }
+
+    @AfterAll
+    static void dropDatabase() {
+        if (client == null) {
+            return;
+        }
+        try {
+            setProfiling(mongoTemplate.getDb(), 0);
+            mongoTemplate.getDb().drop();
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void everyDeclaredIndexIsBuilt() {
+        List<String> failed = ((List<Map<String, Object>>) indexManager.getStatus().get("indexes")).stream()
+                .filter(index -> "FAILED".equals(index.get("outcome")) || "CONFLICT".equals(index.get("outcome")))
+                .map(index -> index.get("collection") + "." + index.get("index") + ": " + index.get("error"))
+                .collect(Collectors.toList());
+        assertTrue(failed.isEmpty(), "Indexes not built: " + failed);
+    }
+
+    @Test
+    void everyRepositoryMethodHasAPlanCheck() {
+        repositoryChecks();
+        List<String> unchecked = new ArrayList<>();
+        for (Class<?> repository : REPOSITORIES) {
+            Set<String> declared = new TreeSet<>();
+            for (Method method : repository.getDeclaredMethods()) {
+                if (!method.isSynthetic() && !method.isDefault()) {
+                    declared.add(method.getName());
+                }
+            }
+            declared.removeAll(checked.getOrDefault(repository, Set.of()));
+            declared.forEach(method -> unchecked.add(repository.getSimpleName() + "." + method));
+        }
+        assertTrue(unchecked.isEmpty(), "Repository methods without a query plan check: " + unchecked);
+    }
+
+    @TestFactory
+    List<DynamicTest> repositoryQueriesUseAnIndex() {
+        return repositoryChecks();
+    }
+
+    @TestFactory
+    List<DynamicTest> declaredQueryShapesUseAnIndex() {
+        List<DynamicTest> tests = new ArrayList<>();
+        for (QueryShape shape : new IndexRegistry(30).getQueryShapes()) {
+            tests.add(DynamicTest.dynamicTest(shape.getName(), () -> {
+                QueryPlan plan = indexManager.explain(shape, "executionStats");
+                assertTrue(plan.isIndexed(), shape.getName() + " is not served by an index: " + plan.getStages());
+            }));
+        }
+        return tests;
+    }
+
+    /**
+     * Data with the spread the queries filter on: most users active and free, a few
+     * premium, blocked, admin or signed up through Google; chats grouped into sessions.
+     */
+    private static Sample seed(int userCount, int ideasPerUser, int generationsPerUser, int activitiesPerUser) {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        Sample sample = new Sample();
+        int sampleIndex = userCount / 2;
+
+        List<User> users = new ArrayList<>(userCount);
+        List<Subscription> subscriptions = new ArrayList<>();
+        for (int i = 0; i < userCount; i++) {
+            boolean premium = i % 5 == 0;
+            User user = User.builder()
+                    .id(new ObjectId().toHexString())
+                    .username("user" + i)
+                    .email("user" + i + "@example.com")
+                    .phone(String.format(Locale.ROOT, "+1555%07d", i))
+                    .googleId(i % 3 == 0 ? "google-" + i : null)
+                    .resetPasswordToken(i % 50 == 0 ? "reset-" + i : null)
+                    .isBlocked(i % 100 == 7)
+                    .role(i % 100 == 0 ? UserRole.ADMIN : UserRole.USER)
+                    .status(i % 10 == 1 ? UserStatus.INACTIVE : i % 50 == 3 ? UserStatus.SUSPENDED
+                            : i % 10 == 2 ? UserStatus.PENDING_VERIFICATION : UserStatus.ACTIVE)
+                    .isPremium(premium)
+                    .premiumExpiresAt(premium ? now.plusDays(random.nextInt(60) - 10) : null)
+                    .createdAt(now.minusDays(random.nextInt(365)))
+                    .lastLoginAt(now.minusHours(random.nextInt(24 * 60)))
+                    .build();
+            users.add(user);
+
+            int count = 1 + random.nextInt(3);
+            for (int k = 0; k < count; k++) {
+                boolean current = k == count - 1;
+                LocalDateTime created = now.minusDays(30L * (count - k));
+                subscriptions.add(Subscription.builder()
+                        .user(user)
+                        .subscriptionId("sub_" + i + "_" + k)
+                        .type(premium && current ? SubscriptionType.PREMIUM : SubscriptionType.FREE)
+                        .status(current ? "active" : k % 2 == 0 ? "expired" : "cancelled")
+                        .startsAt(created)
+                        .expiresAt(current ? now.plusDays(random.nextInt(40) - 5) : created.plusDays(30))
+                        .createdAt(created)
+                        .updatedAt(created)
+                        .build());
+            }
+            if (i == sampleIndex) {
+                sample.user = user;
+            }
+            if (i == sampleIndex - sampleIndex % 3) {
+                sample.googleId = user.getGoogleId();
+            }
+            if (i == sampleIndex - sampleIndex % 50) {
+                sample.resetToken = user.getResetPasswordToken();
+                sample.subscriptionId = "sub_" + i + "_0";
+            }
+        }
+        mongoTemplate.insert(users, User.class);
+        insert(subscriptions, Subscription.class);
+
+        List<Idea> ideas = new ArrayList<>();
+        List<AIGeneration> generations = new ArrayList<>();
+        List<UserActivity> activities = new ArrayList<>();
+        for (User user : users) {
+            for (int k = 0; k < ideasPerUser; k++) {
+                List<String> tags = new ArrayList<>();
+                for (int t = 0, n = 1 + random.nextInt(3); t < n; t++) {
+                    tags.add("tag" + random.nextInt(TAGS));
+                }
+                ideas.add(Idea.builder()
+                        .userId(user.getId())
+                        .title("Idea " + k)
+                        .description("Seeded idea " + k + " of " + user.getUsername())
+                        .category(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                        .tags(tags)
+                        .status(IDEA_STATUSES[random.nextInt(IDEA_STATUSES.length)])
+                        .isFavorite(random.nextInt(10) == 0)
+                        .createdAt(now.minusMinutes(random.nextInt(365 * 24 * 60)))
+                        .build());
+            }
+            for (int k = 0; k < generationsPerUser; k++) {
+                String type = GENERATION_TYPES[random.nextInt(GENERATION_TYPES.length)];
+                generations.add(AIGeneration.builder()
+                        .userId(user.getId())
+                        .type(type)
+                        .prompt("Prompt " + k)
+                        .response("Response " + k)
+                        .model("GEMINI")
+                        .sessionId("CHAT".equals(type) ? user.getId() + "-" + (k / 5) : null)
+                        .isBookmarked(random.nextInt(20) == 0)
+                        .createdAt(now.minusMinutes(random.nextInt(365 * 24 * 60)))
+                        .build());
+            }
+            for (int k = 0; k < activitiesPerUser; k++) {
+                activities.add(UserActivity.builder()
+                        .userId(user.getId())
+                        .featureName(FEATURES[random.nextInt(FEATURES.length)])
+                        .action(ACTIONS[random.nextInt(ACTIONS.length)])
+                        .ipAddress("10.0.0." + random.nextInt(255))
+                        .createdAt(now.minusMinutes(random.nextInt(90 * 24 * 60)))
+                        .build());
+            }
+            if (ideas.size() >= BATCH_SIZE) {
+                insert(ideas, Idea.class);
+            }
+            if (generations.size() >= BATCH_SIZE) {
+                insert(generations, AIGeneration.class);
+            }
+            if (activities.size() >= BATCH_SIZE) {
+                insert(activities, UserActivity.class);
+            }
+        }
+        insert(ideas, Idea.class);
+        insert(generations, AIGeneration.class);
+        insert(activities, UserActivity.class);
+
+        Document chat = mongoTemplate.getCollection(mongoTemplate.getCollectionName(AIGeneration.class))
+                .find(Filters.and(Filters.eq("userId", sample.user.getId()), Filters.eq("type", "CHAT")))
+                .first();
+        sample.sessionId = chat != null ? chat.getString("sessionId") : "none";
+        return sample;
+    }
+
+    private List<DynamicTest> repositoryChecks() {
+        MongoRepositoryFactory factory = new MongoRepositoryFactory(mongoTemplate);
+        UserRepository users = factory.getRepository(UserRepository.class);
+        IdeaRepository ideas = factory.getRepository(IdeaRepository.class);
+        AIGenerationRepository generations = factory.getRepository(AIGenerationRepository.class);
+        UserActivityRepository activities = factory.getRepository(UserActivityRepository.class);
+        SubscriptionRepository subscriptions = factory.getRepository(SubscriptionRepository.class);
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime monthAgo = now.minusDays(30);
+        PageRequest page = PageRequest.of(0, 20);
+        User user = sample.user;
+        String userId = user.getId();
+        List<DynamicTest> checks = new ArrayList<>();
+
+        checks.add(check(UserRepository.class, "findByEmail", () -> users.findByEmail(user.getEmail())));
+        checks.add(check(UserRepository.class, "findByUsername", () -> users.findByUsername(user.getUsername())));
+        checks.add(check(UserRepository.class, "findByPhone", () -> users.findByPhone(user.getPhone())));
+        checks.add(check(UserRepository.class, "findByGoogleId", () -> users.findByGoogleId(sample.googleId)));
+        checks.add(check(UserRepository.class, "findByEmailOrUsernameOrPhone", () -> users.findByEmailOrUsernameOrPhone(user.getUsername())));
+        checks.add(check(UserRepository.class, "existsByEmail", () -> users.existsByEmail(user.getEmail())));
+        checks.add(check(UserRepository.class, "existsByUsername", () -> users.existsByUsername(user.getUsername())));
+        checks.add(check(UserRepository.class, "existsByPhone", () -> users.existsByPhone(user.getPhone())));
+        checks.add(check(UserRepository.class, "findByRole", () -> users.findByRole(UserRole.ADMIN, page)));
+        checks.add(check(UserRepository.class, "findByStatus", () -> users.findByStatus(UserStatus.SUSPENDED, page)));
+        checks.add(check(UserRepository.class, "findByRoleAndStatus", () -> users.findByRoleAndStatus(UserRole.USER, UserStatus.INACTIVE, page)));
+        checks.add(check(UserRepository.class, "countByRole", () -> users.countByRole(UserRole.ADMIN)));
+        checks.add(check(UserRepository.class, "countByStatus", () -> users.countByStatus(UserStatus.ACTIVE)));
+        checks.add(check(UserRepository.class, "countByIsPremium", () -> users.countByIsPremium(true)));
+        checks.add(check(UserRepository.class, "findByIsPremiumTrueAndPremiumExpiresAtBefore", () -> users.findByIsPremiumTrueAndPremiumExpiresAtBefore(now)));
+        checks.add(check(UserRepository.class, "findByResetPasswordToken", () -> users.findByResetPasswordToken(sample.resetToken)));
+        checks.add(check(UserRepository.class, "findByIsBlockedTrue", users::findByIsBlockedTrue));
+        checks.add(check(UserRepository.class, "countByCreatedAtAfter", () -> users.countByCreatedAtAfter(monthAgo)));
+        checks.add(check(UserRepository.class, "countByCreatedAtBetween", () -> users.countByCreatedAtBetween(now.minusDays(60), monthAgo)));
+        checks.add(check(UserRepository.class, "countByLastLoginAtAfter", () -> users.countByLastLoginAtAfter(now.minusDays(7))));
+
+        checks.add(check(IdeaRepository.class, "findByUserIdAndCreatedAtBetween", () -> ideas.findByUserIdAndCreatedAtBetween(userId, now.minusDays(90), now)));
+        checks.add(check(IdeaRepository.class, "findByUserIdAndCategory", () -> ideas.findByUserIdAndCategory(userId, CATEGORIES[0])));
+        checks.add(check(IdeaRepository.class, "findByUserIdAndStatus", () -> ideas.findByUserIdAndStatus(userId, "ACTIVE")));
+        checks.add(check(IdeaRepository.class, "findByUserIdAndIsFavoriteTrue", () -> ideas.findByUserIdAndIsFavoriteTrue(userId)));
+        checks.add(check(IdeaRepository.class, "findByUserIdAndTagsIn", () -> ideas.findByUserIdAndTagsIn(userId, List.of("tag1", "tag2"))));
+        checks.add(check(IdeaRepository.class, "countByUserId", () -> ideas.countByUserId(userId)));
+        checks.add(check(IdeaRepository.class, "countByUserIdAndStatus", () -> ideas.countByUserIdAndStatus(userId, "DRAFT")));
+
+        checks.add(check(AIGenerationRepository.class, "findByUserIdAndCreatedAtBetween", () -> generations.findByUserIdAndCreatedAtBetween(userId, now.minusDays(90), now)));
+        checks.add(check(AIGenerationRepository.class, "findByUserIdAndType", () -> generations.findByUserIdAndType(userId, "CODE")));
+        checks.add(check(AIGenerationRepository.class, "findByUserIdAndSessionId", () -> generations.findByUserIdAndSessionId(userId, sample.sessionId)));
+        checks.add(check(AIGenerationRepository.class, "findByUserIdAndIsBookmarkedTrue", () -> generations.findByUserIdAndIsBookmarkedTrue(userId)));
+        checks.add(check(AIGenerationRepository.class, "countByUserId", () -> generations.countByUserId(userId)));
+        checks.add(check(AIGenerationRepository.class, "countByUserIdAndType", () -> generations.countByUserIdAndType(userId, "CHAT")));
+        checks.add(check(AIGenerationRepository.class, "findByUserIdOrderByCreatedAtDesc", () -> generations.findByUserIdOrderByCreatedAtDesc(userId)));
+
+        checks.add(check(UserActivityRepository.class, "findByUserIdOrderByCreatedAtDesc", () -> activities.findByUserIdOrderByCreatedAtDesc(userId, page)));
+        checks.add(check(UserActivityRepository.class, "findByUserIdAndActionOrderByCreatedAtDesc", () -> activities.findByUserIdAndActionOrderByCreatedAtDesc(userId, "LOGIN")));
+        checks.add(check(UserActivityRepository.class, "countByFeatureNameAndCreatedAtAfter", () -> activities.countByFeatureNameAndCreatedAtAfter("chat", now.minusDays(7))));
+        checks.add(check(UserActivityRepository.class, "countByActionAndCreatedAtBetween", () -> activities.countByActionAndCreatedAtBetween("EXPORT", now.minusDays(14), now.minusDays(7))));
+        checks.add(check(UserActivityRepository.class, "countByUserId", () -> activities.countByUserId(userId)));
+        checks.add(check(UserActivityRepository.class, "findByUserIdAndTimestampBetween", () -> activities.findByUserIdAndTimestampBetween(userId, monthAgo, now)));
+        checks.add(check(UserActivityRepository.class, "findByUserIdOrderByTimestampDesc", () -> activities.findByUserIdOrderByTimestampDesc(userId)));
+
+        checks.add(check(SubscriptionRepository.class, "findByUserAndStatus", () -> subscriptions.findByUserAndStatus(user, "active")));
+        checks.add(check(SubscriptionRepository.class, "findByUserOrderByCreatedAtDesc", () -> subscriptions.findByUserOrderByCreatedAtDesc(user)));
+        checks.add(check(SubscriptionRepository.class, "findBySubscriptionId", () -> subscriptions.findBySubscriptionId(sample.subscriptionId)));
+        checks.add(check(SubscriptionRepository.class, "findByStatus", () -> subscriptions.findByStatus("cancelled")));
+        checks.add(check(SubscriptionRepository.class, "findByType", () -> subscriptions.findByType(SubscriptionType.PREMIUM)));
+        checks.add(check(SubscriptionRepository.class, "countByType", () -> subscriptions.countByType(SubscriptionType.FREE)));
+        checks.add(check(SubscriptionRepository.class, "countByStatus", () -> subscriptions.countByStatus("active")));
+        checks.add(check(SubscriptionRepository.class, "findExpiredActiveSubscriptions", () -> subscriptions.findExpiredActiveSubscriptions(now)));
+        checks.add(check(SubscriptionRepository.class, "findExpiringSubscriptions", () -> subscriptions.findExpiringSubscriptions(now, now.plusDays(7))));
+
+        // Last, since it removes the sample user's older activities
+        checks.add(check(UserActivityRepository.class, "deleteByUserIdAndCreatedAtBefore", () -> {
+            activities.deleteByUserIdAndCreatedAtBefore(userId, monthAgo);
+            return null;
+        }));
+        return checks;
+    }
+
+    /**
+     * Runs one repository method with the profiler on and checks every operation it issued.
+     */
+    private DynamicTest check(Class<?> repository, String method, Supplier<Object> call) {
+        String name = repository.getSimpleName() + "." + method;
+        checked.computeIfAbsent(repository, key -> new TreeSet<>()).add(method);
+        return DynamicTest.dynamicTest(name, () -> {
+            MongoDatabase db = mongoTemplate.getDb();
+            setProfiling(db, 0);
+            db.getCollection("system.profile").drop();
+            setProfiling(db, 2);
+            long matched;
+            try {
+                matched = matched(call.get());
+            } finally {
+                setProfiling(db, 0);
+            }
+            List<Document> operations = db.getCollection("system.profile")
+                    .find(Filters.and(Filters.exists("planSummary"), Filters.regex("ns", "^" + db.getName() + "\\.(?!system\\.)")))
+                    .sort(Sorts.ascending("ts"))
+                    .into(new ArrayList<>());
+            assertFalse(operations.isEmpty(), name + " issued no profiled query");
+
+            List<String> problems = new ArrayList<>();
+            for (Document operation : operations) {
+                QueryPlan plan = QueryPlan.fromProfile(operation);
+                long examined = Math.max(plan.getKeysExamined(), plan.getDocsExamined());
+                long allowed = (long) (MAX_KEY_RATIO * Math.max(matched, plan.getReturned())) + KEY_SLACK;
+                if (!plan.isIndexed()) {
+                    problems.add("not served by an index: " + operation.getString("planSummary"));
+                } else if (examined > allowed) {
+                    problems.add(String.format(Locale.ROOT, "examined %d keys/documents for %d matches (allowed %d): %s",
+                            examined, Math.max(matched, plan.getReturned()), allowed, operation.getString("planSummary")));
+                }
+            }
+            if (!problems.isEmpty()) {
+                fail(name + " " + String.join("; ", problems));
+            }
+        });
+    }
+
+    private static long matched(Object result) {
+        if (result instanceof Page<?> page) {
+            return page.getTotalElements();
+        } else if (result instanceof Collection<?> collection) {
+            return collection.size();
+        } else if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        } else if (result instanceof Number number) {
+            return number.longValue();
+        } else if (result instanceof Boolean found) {
+            return found ? 1 : 0;
+        }
+        return 0;
+    }
+
+    private static <T> void insert(List<T> batch, Class<T> type) {
+        if (!batch.isEmpty()) {
+            mongoTemplate.insert(batch, type);
+            batch.clear();
+        }
+    }
+
+    private static void setProfiling(MongoDatabase db, int level) {
+        db.runCommand(new Document("profile", level));
+    }
+
+    // Values picked from the seeded data, so each query has something to match
+    private static final class Sample {
+        private User user;
+        private String googleId;
+        private String resetToken;
+        private String subscriptionId;
+        private String sessionId;
+    }
+}
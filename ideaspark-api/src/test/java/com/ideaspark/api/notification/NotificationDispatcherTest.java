@@ -0,0 +1,219 @@
+package com.ideaspark.api.notification;
+
+import com.ideaspark.shared.entity.OutboundNotification;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Runs the dispatcher against an in-memory MongoDB (mongo-java-server) and the fake
+ * transport, so retries, backoff and outbox claims go through real outbox documents.
+ */
+class NotificationDispatcherTest {
+
+    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(10);
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private final List<NotificationDispatcher> dispatchers = new ArrayList<>();
+
+    @BeforeEach
+    void startMongo() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        mongoTemplate = new MongoTemplate(client, "notifications");
+    }
+
+    @AfterEach
+    void stopMongo() throws InterruptedException {
+        for (NotificationDispatcher dispatcher : dispatchers) {
+            dispatcher.shutdown();
+        }
+        client.close();
+        server.shutdownNow();
+    }
+
+    @Test
+    void deliversAcceptedNotificationAndMarksItSent() {
+        FakeNotificationTransport transport = new FakeNotificationTransport("EMAIL", 0);
+        NotificationDispatcher dispatcher = dispatcher(transport, 5);
+
+        assertThat(dispatcher.dispatch("EMAIL", "user@example.com", "Welcome", "<p>Hello</p>")).isTrue();
+
+        OutboundNotification sent = awaitStatus("SENT");
+        assertThat(sent.getAttempts()).isEqualTo(1);
+        assertThat(sent.getProviderMessageId()).startsWith("fake-");
+        assertThat(sent.getBody()).isNull();
+        assertThat(transport.getSent()).extracting(OutboundNotification::getRecipient).containsExactly("user@example.com");
+        assertThat(dispatcher.getStats()).containsEntry("accepted", 1L).containsEntry("sent", 1L);
+    }
+
+    @Test
+    void rejectsChannelWithoutTransport() {
+        NotificationDispatcher dispatcher = dispatcher(new FakeNotificationTransport("EMAIL", 0), 5);
+
+        assertThat(dispatcher.dispatch("SMS", "+15550000000", null, "code 123456")).isFalse();
+        assertThat(mongoTemplate.count(new Query(), OutboundNotification.class)).isZero();
+    }
+
+    @Test
+    void failedSendIsRetriedWithExponentialBackoff() {
+        NotificationDispatcher dispatcher = dispatcher(new FakeNotificationTransport("EMAIL", 1.0), 5);
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatch("EMAIL", "user@example.com", "Welcome", "<p>Hello</p>");
+        OutboundNotification first = awaitAttempts(1);
+        assertThat(first.getStatus()).isEqualTo("PENDING");
+        assertThat(first.getLastError()).contains("Simulated EMAIL provider failure");
+        assertThat(first.getBody()).isEqualTo("<p>Hello</p>");
+        // Equal jitter: between half and all of the initial backoff
+        assertThat(first.getNextAttemptAt())
+                .isAfterOrEqualTo(before.plus(INITIAL_BACKOFF.dividedBy(2)))
+                .isBefore(LocalDateTime.now().plus(INITIAL_BACKOFF).plusSeconds(1));
+
+        // Not due yet: the poller leaves it alone
+        dispatcher.pollOutbox();
+        assertThat(findOnly().getAttempts()).isEqualTo(1);
+
+        makeDue(first.getId());
+        before = LocalDateTime.now();
+        dispatcher.pollOutbox();
+        OutboundNotification second = awaitAttempts(2);
+        assertThat(second.getStatus()).isEqualTo("PENDING");
+        assertThat(second.getNextAttemptAt())
+                .isAfterOrEqualTo(before.plus(INITIAL_BACKOFF))
+                .isBefore(LocalDateTime.now().plus(INITIAL_BACKOFF.multipliedBy(2)).plusSeconds(1));
+        assertThat(dispatcher.getStats()).containsEntry("retried", 2L);
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        NotificationDispatcher dispatcher = dispatcher(new FakeNotificationTransport("EMAIL", 1.0), 2);
+
+        dispatcher.dispatch("EMAIL", "user@example.com", "Welcome", "<p>Hello</p>");
+        makeDue(awaitAttempts(1).getId());
+        dispatcher.pollOutbox();
+
+        OutboundNotification failed = awaitStatus("FAILED");
+        assertThat(failed.getAttempts()).isEqualTo(2);
+        assertThat(failed.getBody()).isNull();
+        assertThat(failed.getLastError()).isNotBlank();
+        assertThat(dispatcher.getStats()).containsEntry("failed", 1L).containsEntry("retried", 1L);
+    }
+
+    @Test
+    void dueNotificationIsClaimedBySingleDispatcher() throws Exception {
+        // Two nodes polling the same outbox
+        FakeNotificationTransport first = new FakeNotificationTransport("EMAIL", 0);
+        FakeNotificationTransport second = new FakeNotificationTransport("EMAIL", 0);
+        NotificationDispatcher firstDispatcher = dispatcher(first, 5);
+        NotificationDispatcher secondDispatcher = dispatcher(second, 5);
+        for (int i = 0; i < 20; i++) {
+            mongoTemplate.insert(OutboundNotification.builder()
+                    .channel("EMAIL")
+                    .recipient("user" + i + "@example.com")
+                    .subject("Digest")
+                    .body("<p>" + i + "</p>")
+                    .build());
+        }
+
+        ExecutorService pollers = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (NotificationDispatcher dispatcher : List.of(firstDispatcher, secondDispatcher)) {
+                pollers.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    dispatcher.pollOutbox();
+                });
+            }
+            start.countDown();
+        } finally {
+            pollers.shutdown();
+            assertThat(pollers.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        await().atMost(Duration.ofSeconds(10)).until(() ->
+                mongoTemplate.count(Query.query(Criteria.where("status").is("SENT")), OutboundNotification.class) == 20);
+        assertThat(first.getSent().size() + second.getSent().size()).isEqualTo(20);
+        assertThat(mongoTemplate.findAll(OutboundNotification.class))
+                .allSatisfy(notification -> assertThat(notification.getAttempts()).isEqualTo(1));
+    }
+
+    @Test
+    void recoversNotificationWhoseWorkerDiedMidSend() {
+        FakeNotificationTransport transport = new FakeNotificationTransport("EMAIL", 0);
+        NotificationDispatcher dispatcher = dispatcher(transport, 5);
+        LocalDateTime now = LocalDateTime.now();
+        OutboundNotification stale = mongoTemplate.insert(OutboundNotification.builder()
+                .channel("EMAIL").recipient("stale@example.com").subject("Reset").body("<p>stale</p>")
+                .status("SENDING").attempts(1).updatedAt(now.minusMinutes(10))
+                .build());
+        OutboundNotification inFlight = mongoTemplate.insert(OutboundNotification.builder()
+                .channel("EMAIL").recipient("busy@example.com").subject("Reset").body("<p>busy</p>")
+                .status("SENDING").attempts(1).updatedAt(now)
+                .build());
+
+        dispatcher.pollOutbox();
+
+        await().atMost(Duration.ofSeconds(10)).until(() ->
+                "SENT".equals(mongoTemplate.findById(stale.getId(), OutboundNotification.class).getStatus()));
+        assertThat(mongoTemplate.findById(inFlight.getId(), OutboundNotification.class).getStatus()).isEqualTo("SENDING");
+        assertThat(transport.getSent()).extracting(OutboundNotification::getRecipient).containsExactly("stale@example.com");
+    }
+
+    private NotificationDispatcher dispatcher(NotificationTransport transport, int maxAttempts) {
+        NotificationDispatcher dispatcher = new NotificationDispatcher(mongoTemplate, List.of(transport),
+                2, 2, 100, maxAttempts, INITIAL_BACKOFF, Duration.ofMinutes(5),
+                Duration.ofMinutes(2), Duration.ofDays(7), 100);
+        dispatchers.add(dispatcher);
+        return dispatcher;
+    }
+
+    private void makeDue(String id) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id)),
+                new Update().set("nextAttemptAt", LocalDateTime.now().minusSeconds(1)), OutboundNotification.class);
+    }
+
+    private OutboundNotification findOnly() {
+        List<OutboundNotification> all = mongoTemplate.findAll(OutboundNotification.class);
+        assertThat(all).hasSize(1);
+        return all.get(0);
+    }
+
+    private OutboundNotification awaitStatus(String status) {
+        return await().atMost(Duration.ofSeconds(10))
+                .until(this::findOnly, notification -> status.equals(notification.getStatus()));
+    }
+
+    // The attempt counter is raised on claim; wait until that attempt's outcome is recorded too
+    private OutboundNotification awaitAttempts(int attempts) {
+        return await().atMost(Duration.ofSeconds(10))
+                .until(this::findOnly, notification -> notification.getAttempts() == attempts
+                        && !"SENDING".equals(notification.getStatus()));
+    }
+}
@@ -0,0 +1,166 @@
+package com.ideaspark.api.notification;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.ideaspark.shared.entity.OutboundNotification;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Sends through the pooled transport to an in-process SMTP server (GreenMail), so
+ * connection reuse, retirement, eviction and reconnects happen on real SMTP sessions.
+ */
+class PooledSmtpEmailTransportTest {
+
+    private GreenMail smtpServer;
+    private PooledSmtpEmailTransport transport;
+
+    @BeforeEach
+    void startSmtpServer() {
+        smtpServer = new GreenMail(ServerSetupTest.SMTP.dynamicPort());
+        smtpServer.start();
+    }
+
+    @AfterEach
+    void stopSmtpServer() {
+        if (transport != null) {
+            transport.close();
+        }
+        smtpServer.stop();
+    }
+
+    @Test
+    void reusesOneConnectionForSequentialMessages() throws Exception {
+        transport = transport(2, Duration.ofMinutes(1), 100);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(transport.send(email("user" + i + "@example.com"))).isNotBlank();
+        }
+
+        assertThat(smtpServer.waitForIncomingEmail(5000, 5)).isTrue();
+        assertThat(transport.getStats())
+                .containsEntry("connectionsOpened", 1L)
+                .containsEntry("connectionsReused", 4L)
+                .containsEntry("messagesSent", 5L)
+                .containsEntry("idleConnections", 1);
+    }
+
+    @Test
+    void neverOpensMoreConnectionsThanPoolSize() throws Exception {
+        transport = transport(2, Duration.ofMinutes(1), 100);
+
+        ExecutorService senders = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < 20; i++) {
+                OutboundNotification notification = email("user" + i + "@example.com");
+                Callable<String> send = () -> {
+                    start.await();
+                    return transport.send(notification);
+                };
+                results.add(senders.submit(send));
+            }
+            start.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isNotBlank();
+            }
+        } finally {
+            senders.shutdownNow();
+        }
+
+        assertThat(smtpServer.waitForIncomingEmail(5000, 20)).isTrue();
+        assertThat((Long) transport.getStats().get("connectionsOpened")).isBetween(1L, 2L);
+        assertThat(transport.getStats()).containsEntry("messagesSent", 20L).containsEntry("sendFailures", 0L);
+    }
+
+    @Test
+    void retiresConnectionAfterMessageCap() throws Exception {
+        transport = transport(2, Duration.ofMinutes(1), 2);
+
+        for (int i = 0; i < 5; i++) {
+            transport.send(email("user" + i + "@example.com"));
+        }
+
+        assertThat(smtpServer.waitForIncomingEmail(5000, 5)).isTrue();
+        // 2 + 2 + 1 messages: the first two connections are closed on reaching the cap
+        assertThat(transport.getStats())
+                .containsEntry("connectionsOpened", 3L)
+                .containsEntry("connectionsClosed", 2L)
+                .containsEntry("idleConnections", 1)
+                .containsEntry("messagesSent", 5L);
+    }
+
+    @Test
+    void closesConnectionsIdleLongerThanTimeout() throws Exception {
+        transport = transport(2, Duration.ofMillis(200), 100);
+
+        transport.send(email("user@example.com"));
+        assertThat(transport.getStats()).containsEntry("idleConnections", 1);
+
+        // The evictor runs at least a second apart
+        await().atMost(Duration.ofSeconds(5)).until(() ->
+                Long.valueOf(1).equals(transport.getStats().get("connectionsClosed")));
+        assertThat(transport.getStats()).containsEntry("idleConnections", 0);
+
+        transport.send(email("user@example.com"));
+        assertThat(transport.getStats())
+                .containsEntry("connectionsOpened", 2L)
+                .containsEntry("connectionsReused", 0L);
+    }
+
+    @Test
+    void reconnectsWhenServerDroppedPooledConnection() throws Exception {
+        transport = transport(2, Duration.ofMinutes(1), 100);
+        transport.send(email("first@example.com"));
+        assertThat(smtpServer.waitForIncomingEmail(5000, 1)).isTrue();
+
+        // A server restart drops the session the pool still holds as idle
+        int port = smtpServer.getSmtp().getPort();
+        smtpServer.stop();
+        smtpServer = new GreenMail(new ServerSetup(port, null, ServerSetup.PROTOCOL_SMTP));
+        smtpServer.start();
+
+        assertThat(transport.send(email("second@example.com"))).isNotBlank();
+
+        assertThat(smtpServer.waitForIncomingEmail(5000, 1)).isTrue();
+        MimeMessage received = smtpServer.getReceivedMessages()[0];
+        assertThat(received.getAllRecipients()[0].toString()).isEqualTo("second@example.com");
+        assertThat(transport.getStats())
+                .containsEntry("connectionsOpened", 2L)
+                .containsEntry("connectionsReused", 1L)
+                .containsEntry("messagesSent", 2L)
+                .containsEntry("sendFailures", 0L);
+    }
+
+    private PooledSmtpEmailTransport transport(int poolSize, Duration idleTimeout, int maxMessagesPerConnection) {
+        return new PooledSmtpEmailTransport(new Properties(), "smtp", "127.0.0.1", smtpServer.getSmtp().getPort(),
+                null, null, poolSize, idleTimeout, maxMessagesPerConnection, Duration.ofSeconds(5));
+    }
+
+    private OutboundNotification email(String recipient) {
+        return OutboundNotification.builder()
+                .channel("EMAIL")
+                .recipient(recipient)
+                .subject("Welcome")
+                .body("<p>Hello</p>")
+                .build();
+    }
+}
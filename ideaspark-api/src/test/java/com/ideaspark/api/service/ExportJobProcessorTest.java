@@ -0,0 +1,91 @@
+package com.ideaspark.api.service;
+
+import com.ideaspark.shared.entity.ExportJob;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the stale-job sweep against an in-memory MongoDB (mongo-java-server).
+ */
+class ExportJobProcessorTest {
+
+    private static final Duration STALE_AFTER = Duration.ofMinutes(30);
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private ExportJobProcessor processor;
+
+    @BeforeEach
+    void startMongo() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        mongoTemplate = new MongoTemplate(client, "exports");
+        processor = new ExportJobProcessor(null, mongoTemplate, null, null, null,
+                1, 1, Duration.ofSeconds(1), 200);
+    }
+
+    @AfterEach
+    void stopMongo() {
+        processor.shutdown();
+        client.close();
+        server.shutdownNow();
+    }
+
+    @Test
+    void failsProcessingJobWithoutRecentHeartbeat() {
+        ExportJob stalled = insert("PROCESSING", LocalDateTime.now().minusHours(1));
+
+        assertThat(processor.failStalledJobs(STALE_AFTER)).isEqualTo(1);
+
+        ExportJob failed = mongoTemplate.findById(stalled.getId(), ExportJob.class);
+        assertThat(failed.getStatus()).isEqualTo("FAILED");
+        assertThat(failed.getErrorMessage()).isEqualTo("Export was interrupted");
+        assertThat(failed.getUpdatedAt()).isAfter(LocalDateTime.now().minusMinutes(1));
+    }
+
+    @Test
+    void leavesQueuedJobOlderThanCutoffWaiting() {
+        ExportJob queued = insert("QUEUED", LocalDateTime.now().minusHours(1));
+
+        assertThat(processor.failStalledJobs(STALE_AFTER)).isZero();
+
+        assertThat(mongoTemplate.findById(queued.getId(), ExportJob.class).getStatus()).isEqualTo("QUEUED");
+    }
+
+    @Test
+    void leavesJobsWithRecentHeartbeatOrFinishedAlone() {
+        ExportJob running = insert("PROCESSING", LocalDateTime.now().minusMinutes(1));
+        ExportJob completed = insert("COMPLETED", LocalDateTime.now().minusHours(1));
+
+        assertThat(processor.failStalledJobs(STALE_AFTER)).isZero();
+
+        assertThat(mongoTemplate.findById(running.getId(), ExportJob.class).getStatus()).isEqualTo("PROCESSING");
+        ExportJob stillCompleted = mongoTemplate.findById(completed.getId(), ExportJob.class);
+        assertThat(stillCompleted.getStatus()).isEqualTo("COMPLETED");
+        assertThat(stillCompleted.getFileName()).isEqualTo(completed.getFileName());
+    }
+
+    private ExportJob insert(String status, LocalDateTime updatedAt) {
+        return mongoTemplate.insert(ExportJob.builder()
+                .id("exp_" + UUID.randomUUID().toString().replace("-", ""))
+                .userId("user-1")
+                .format("JSON")
+                .status(status)
+                .fileName("COMPLETED".equals(status) ? "artifact.json" : null)
+                .updatedAt(updatedAt)
+                .build());
+    }
+}
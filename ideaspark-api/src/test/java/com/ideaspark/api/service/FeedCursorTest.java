@@ -0,0 +1,58 @@
+package com.ideaspark.api.service;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FeedCursorTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_000_000);
+
+    @Test
+    void decodesWhatItEncodes() {
+        String id = new ObjectId().toHexString();
+
+        FeedCursor cursor = FeedCursor.decode(FeedCursor.encode(CREATED_AT, id));
+
+        assertThat(cursor.getCreatedAt()).isEqualTo(CREATED_AT);
+        assertThat(cursor.getId()).isEqualTo(id);
+    }
+
+    @Test
+    void rejectsIdThatIsNotAnObjectId() {
+        assertThatThrownBy(() -> FeedCursor.decode(token("1|" + CREATED_AT + "|not-an-object-id")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FeedCursor.decode(token("1|" + CREATED_AT + "|")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsMissingCreatedAt() {
+        String id = new ObjectId().toHexString();
+
+        assertThatThrownBy(() -> FeedCursor.encode(null, id))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FeedCursor.decode(token("1|null|" + id)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsTokensItDidNotIssue() {
+        String id = new ObjectId().toHexString();
+
+        assertThatThrownBy(() -> FeedCursor.decode("%%%"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FeedCursor.decode(token("2|" + CREATED_AT + "|" + id)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,44 @@
+package com.ideaspark.api.support;
+
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Versions;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.embed.process.distribution.Version;
+import de.flapdoodle.reverse.TransitionWalker;
+
+/**
+ * A real MongoDB server for integration tests that depend on the server itself, such as
+ * query plans and the profiler. The server at {@code -Dmongo.test.uri} is used when given
+ * (e.g. a CI service container); otherwise an embedded mongod of release
+ * {@code -Dmongo.test.version} is started once per JVM. The embedded binary is downloaded
+ * from fastdl.mongodb.org on first use and cached in ~/.embedmongo.
+ */
+public final class TestMongo {
+
+    private static final String DEFAULT_VERSION = "7.0.12";
+
+    private static String uri;
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+
+    private TestMongo() {
+    }
+
+    public static synchronized String uri() {
+        if (uri != null) {
+            return uri;
+        }
+        String configured = System.getProperty("mongo.test.uri");
+        if (configured != null && !configured.isBlank()) {
+            uri = configured;
+            return uri;
+        }
+
+        String version = System.getProperty("mongo.test.version", DEFAULT_VERSION);
+        mongod = Mongod.instance().start(Versions.withFeatures(Version.of(version)));
+        Runtime.getRuntime().addShutdownHook(new Thread(mongod::close, "embedded-mongod-stop"));
+        ServerAddress address = mongod.current().getServerAddress();
+        uri = "mongodb://" + address.getHost() + ":" + address.getPort();
+        return uri;
+    }
+}
@@ -0,0 +1,161 @@
+package com.ideaspark.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load driver for comparing the pooled and the virtual-thread server
+ * modes: a fixed number of clients each send the next request as soon as the previous
+ * one completes, and the run reports throughput and latency percentiles. Start the API
+ * with the "loadtest" profile once per mode and run this against each with the same
+ * arguments, e.g.
+ * <pre>
+ * java -cp ideaspark-benchmarks/target/benchmarks.jar com.ideaspark.benchmarks.HttpLoadTest \
+ *     --url=http://localhost:8080/api/users/profile --token=$TOKEN \
+ *     --concurrency=400 --warmup=PT15S --duration=PT60S --json=virtual.json
+ * </pre>
+ * Concurrency above the server's request thread count is what separates the two modes.
+ */
+public final class HttpLoadTest {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private HttpLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        URI url = URI.create(required(options, "url"));
+        String token = options.get("token");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "200"));
+        Duration warmup = Duration.parse(options.getOrDefault("warmup", "PT10S"));
+        Duration duration = Duration.parse(options.getOrDefault("duration", "PT30S"));
+        Duration timeout = Duration.parse(options.getOrDefault("timeout", "PT10S"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(url).timeout(timeout).GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        HttpRequest request = builder.build();
+
+        Recorder latencies = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+        LongAdder succeeded = new LongAdder();
+        LongAdder failed = new LongAdder();
+        long warmupEnd = System.nanoTime() + warmup.toNanos();
+        long end = warmupEnd + duration.toNanos();
+        CountDownLatch done = new CountDownLatch(concurrency);
+
+        System.out.printf("%d clients against %s: %s warmup, %s measured%n", concurrency, url, warmup, duration);
+        for (int i = 0; i < concurrency; i++) {
+            Thread clientThread = new Thread(() -> {
+                try {
+                    while (true) {
+                        long start = System.nanoTime();
+                        if (start >= end) {
+                            return;
+                        }
+                        boolean ok = send(client, request);
+                        long finished = System.nanoTime();
+                        if (start < warmupEnd) {
+                            continue;
+                        }
+                        if (ok) {
+                            succeeded.increment();
+                        } else {
+                            failed.increment();
+                        }
+                        latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(finished - start), HIGHEST_TRACKABLE_MICROS));
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "load-client-" + i);
+            clientThread.setDaemon(true);
+            clientThread.start();
+        }
+
+        Thread.sleep(warmup.toMillis());
+        latencies.reset();
+        done.await();
+
+        Histogram histogram = latencies.getIntervalHistogram();
+        double seconds = duration.toNanos() / 1e9;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("url", url.toString());
+        result.put("concurrency", concurrency);
+        result.put("durationSeconds", seconds);
+        result.put("requests", histogram.getTotalCount());
+        result.put("errors", failed.sum());
+        result.put("throughputPerSecond", succeeded.sum() / seconds);
+        result.put("meanMillis", histogram.getMean() / 1000.0);
+        result.put("p50Millis", histogram.getValueAtPercentile(50) / 1000.0);
+        result.put("p90Millis", histogram.getValueAtPercentile(90) / 1000.0);
+        result.put("p99Millis", histogram.getValueAtPercentile(99) / 1000.0);
+        result.put("p999Millis", histogram.getValueAtPercentile(99.9) / 1000.0);
+        result.put("maxMillis", histogram.getMaxValue() / 1000.0);
+
+        System.out.printf(Locale.ROOT, "requests=%d errors=%d throughput=%.1f/s%n",
+                histogram.getTotalCount(), failed.sum(), succeeded.sum() / seconds);
+        System.out.printf(Locale.ROOT, "latency ms: mean=%.2f p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f%n",
+                result.get("meanMillis"), result.get("p50Millis"), result.get("p90Millis"),
+                result.get("p99Millis"), result.get("p999Millis"), result.get("maxMillis"));
+
+        String json = options.get("json");
+        if (json != null) {
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(new File(json), result);
+            System.out.println("Result saved to " + json);
+        }
+    }
+
+    private static boolean send(HttpClient client, HttpRequest request) {
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() < 400;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    private static String required(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing --" + name + "=...");
+        }
+        return value;
+    }
+}
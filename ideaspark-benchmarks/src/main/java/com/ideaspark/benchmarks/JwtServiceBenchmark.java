@@ -0,0 +1,85 @@
+package com.ideaspark.benchmarks;
+
+import com.ideaspark.api.security.JwtClaimsCache;
+import com.ideaspark.api.service.JwtService;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token signing and verification, with the verified-claims cache off (every parse checks
+ * the signature) and on (repeat requests with the same token).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hs256";
+
+    private JwtService uncached;
+    private JwtService cached;
+    private UserDetails userDetails;
+    private Map<String, Object> extraClaims;
+    private String token;
+
+    @Setup
+    public void setup() throws Exception {
+        uncached = jwtService(new JwtClaimsCache(false, 1, Duration.ofMinutes(15)));
+        cached = jwtService(new JwtClaimsCache(true, 10_000, Duration.ofMinutes(15)));
+        userDetails = User.withUsername("asha.verma@example.com").password("n/a").roles("USER").build();
+        extraClaims = Map.of("userId", "65f1c2a9e4b0a1b2c3d4e5f6", "role", "USER");
+        token = uncached.generateTokenWithClaims(userDetails, extraClaims);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return uncached.generateTokenWithClaims(userDetails, extraClaims);
+    }
+
+    @Benchmark
+    public Claims parseToken() {
+        return uncached.extractAllClaims(token);
+    }
+
+    @Benchmark
+    public Claims parseCachedToken() {
+        return cached.extractAllClaims(token);
+    }
+
+    // JwtService takes its key and expiry from @Value fields and derives the parser in init()
+    private static JwtService jwtService(JwtClaimsCache claimsCache) throws Exception {
+        JwtService service = new JwtService(claimsCache);
+        set(service, "secret", SECRET);
+        set(service, "expiration", TimeUnit.HOURS.toMillis(1));
+        Method init = JwtService.class.getDeclaredMethod("init");
+        init.setAccessible(true);
+        init.invoke(service);
+        return service;
+    }
+
+    private static void set(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,44 @@
+package com.ideaspark.benchmarks;
+
+import com.ideaspark.api.service.impl.OtpServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Email / phone classification of an OTP target (isEmail, then isPhone on a miss).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OtpValidationBenchmark {
+
+    @Param({"asha.verma@example.com", "+91 (98765) 43210", "not-an-email-or-phone"})
+    public String phoneOrEmail;
+
+    private OtpServiceImpl otpService;
+
+    @Setup
+    public void setup() {
+        // Validation does not touch the store, the senders or the meter registry
+        otpService = new OtpServiceImpl(null, null, null, null);
+    }
+
+    @Benchmark
+    public boolean isValidPhoneOrEmail() {
+        return otpService.isValidPhoneOrEmail(phoneOrEmail);
+    }
+}
@@ -0,0 +1,75 @@
+package com.ideaspark.benchmarks;
+
+import com.ideaspark.api.service.impl.PdfExportServiceImpl;
+import com.ideaspark.shared.dto.ExportDataDTO;
+import com.ideaspark.shared.dto.ExportRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering cost of a PDF export per number of exported items and template style. Uses
+ * the custom export, which lays out the same report elements as the collection exports
+ * without reading from Mongo.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PdfExportBenchmark {
+
+    @Param({"10", "200"})
+    public int items;
+
+    @Param({"MODERN", "MINIMAL"})
+    public String templateStyle;
+
+    private PdfExportServiceImpl pdfExportService;
+    private ExportRequest exportRequest;
+    private List<ExportDataDTO> data;
+
+    @Setup
+    public void setup() {
+        pdfExportService = new PdfExportServiceImpl(null, null, new SimpleMeterRegistry());
+        exportRequest = ExportRequest.builder()
+                .exportType("PDF")
+                .templateStyle(templateStyle)
+                .build();
+
+        data = new ArrayList<>(items);
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 14, 9, 30);
+        for (int i = 0; i < items; i++) {
+            data.add(ExportDataDTO.builder()
+                    .id("idea-" + i)
+                    .title("Idea #" + i + ": community tool library & repair café")
+                    .content("A neighbourhood lending library for tools, with monthly repair sessions "
+                            + "run by volunteers. Members book items online; a <small> deposit covers losses.")
+                    .category("Community")
+                    .type("IDEA")
+                    .createdAt(createdAt.plusHours(i))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream customPdf() {
+        return pdfExportService.generateCustomPdf(data, exportRequest, "Benchmark Export");
+    }
+}
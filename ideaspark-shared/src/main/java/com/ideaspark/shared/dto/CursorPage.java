@@ -0,0 +1,25 @@
+package com.ideaspark.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a newest-first listing. Pass {@code nextCursor} back to get the following
+ * page; it is null on the last one.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> items;
+
+    private String nextCursor;
+
+    private boolean hasMore;
+}
@@ -6,7 +6,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.data.mongodb.core.index.Indexed;
 
 import java.time.LocalDateTime;
 
@@ -20,7 +19,6 @@ public class AIGeneration {
     @Id
     private String id;
     
-    @Indexed
     private String userId;
     
     private String type; // "CHAT", "WRITER", "CODE", "IMAGE", "IDEA", "NEWS_DETECTION", "TEXT_TOOLS", "VOICE_TOOLS"
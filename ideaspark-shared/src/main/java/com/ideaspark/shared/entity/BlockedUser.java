@@ -6,10 +6,11 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.redis.core.RedisHash;
+import org.springframework.data.redis.core.TimeToLive;
 
 import java.time.LocalDateTime;
 
-@RedisHash(value = "blocked_users", timeToLive = 86400) // 24 hours default TTL
+@RedisHash("blocked_users")
 @Data
 @Builder
 @NoArgsConstructor
@@ -28,4 +29,7 @@ public class BlockedUser {
     private LocalDateTime blockedAt;
     
     private LocalDateTime unblockAt; // For temporary blocks
+    
+    @TimeToLive
+    private Long timeToLive; // Seconds; null keeps permanent blocks until they are lifted
 }
\ No newline at end of file
@@ -20,6 +20,7 @@ public class ErrorReport {
     private String id;
     
     private String errorType;
+    private String fingerprint; // Hash of the error type and top stack frames
     private String message;
     private String stackTrace;
     private String userId;
@@ -27,7 +28,7 @@ public class ErrorReport {
     private String httpMethod;
     private String userAgent;
     private String ipAddress;
-    private LocalDateTime timestamp;
+    private LocalDateTime timestamp; // TTL index "timestamp_ttl_idx", set from the configured retention
     private String severity; // LOW, MEDIUM, HIGH, CRITICAL
     private boolean resolved;
     private String resolution;
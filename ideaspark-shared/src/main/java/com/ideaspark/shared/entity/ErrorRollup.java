@@ -0,0 +1,45 @@
+package com.ideaspark.shared.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Occurrences of one error fingerprint within one minute or hour, including the ones
+ * that were not stored as full reports.
+ */
+@Document(collection = "error_rollups")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErrorRollup {
+
+    @Id
+    private String id; // granularity|bucketStart|fingerprint
+
+    private String granularity; // "MINUTE", "HOUR"
+
+    private LocalDateTime bucketStart;
+
+    private String fingerprint;
+
+    private String errorType;
+
+    private String message; // First message seen in the bucket
+
+    private String severity;
+
+    private long count;
+
+    private long stored; // Occurrences kept as full error reports
+
+    private LocalDateTime lastSeenAt;
+
+    private LocalDateTime expireAt;
+}
@@ -0,0 +1,63 @@
+package com.ideaspark.shared.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Document(collection = "export_jobs")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportJob {
+
+    @Id
+    private String id; // Public export id ("exp_...")
+
+    private String userId;
+
+    private String userEmail;
+
+    private String jobType; // "USER_DATA", "USAGE_STATS", "CUSTOM"
+
+    private String format; // "JSON", "CSV", "PDF"
+
+    private List<String> dataTypes; // "IDEAS", "AI_GENERATIONS", "CHAT_HISTORY", "USER_ACTIVITY"
+
+    private LocalDateTime startDate;
+
+    private LocalDateTime endDate;
+
+    @Builder.Default
+    private String status = "QUEUED"; // "QUEUED", "PROCESSING", "COMPLETED", "FAILED", "EXPIRED"
+
+    private int progress; // 0-100
+
+    private long processedItems;
+
+    private long totalItems;
+
+    private String nodeId; // Node whose export file store holds the artifact
+
+    private String fileName; // Artifact name inside the export file store
+
+    private long fileSize;
+
+    private String errorMessage;
+
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime completedAt;
+
+    @Builder.Default
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
@@ -6,16 +6,10 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.data.mongodb.core.index.Indexed;
-import org.springframework.data.mongodb.core.index.CompoundIndex;
-import org.springframework.data.mongodb.core.index.CompoundIndexes;
 
 import java.time.LocalDateTime;
 
 @Document(collection = "otps")
-@CompoundIndexes({
-    @CompoundIndex(name = "phone_purpose_idx", def = "{ 'phoneOrEmail': 1, 'purpose': 1}", unique = true)
-})
 @Data
 @Builder
 @NoArgsConstructor
@@ -25,7 +19,6 @@ public class OtpVerification {
     @Id
     private String id;
     
-    @Indexed
     private String phoneOrEmail;
     
     private String otp;
@@ -0,0 +1,49 @@
+package com.ideaspark.shared.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Document(collection = "notification_outbox")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboundNotification {
+
+    @Id
+    private String id;
+
+    private String channel; // "EMAIL", "SMS"
+
+    private String recipient; // Email address or E.164 phone number
+
+    private String subject; // Email only
+
+    private String body; // Cleared once delivered
+
+    @Builder.Default
+    private String status = "PENDING"; // "PENDING", "SENDING", "SENT", "FAILED"
+
+    private int attempts;
+
+    @Builder.Default
+    private LocalDateTime nextAttemptAt = LocalDateTime.now();
+
+    private String providerMessageId;
+
+    private String lastError;
+
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    private LocalDateTime sentAt;
+
+    @Builder.Default
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
@@ -2,7 +2,6 @@ package com.ideaspark.shared.entity;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Field;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -17,7 +16,7 @@ import java.time.LocalDateTime;
 
 @Document(collection = "users")
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
@@ -25,10 +24,8 @@ public class User {
     @Id
     private String id;
     
-    @Indexed(unique = true)
     private String username;
     
-    @Indexed(unique = true)
     @Email
     private String email;
     
@@ -42,7 +39,6 @@ public class User {
     
     private String profileImageUrl; // Updated field name
     
-    @Indexed(unique = true)
     private String phone;
     
     private LocalDateTime dateOfBirth;
@@ -2,7 +2,6 @@ package com.ideaspark.shared.entity;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.data.mongodb.core.mapping.DBRef;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -20,8 +19,7 @@ public class UserActivity {
     @Id
     private String id;
     
-    @DBRef
-    private User user;
+    private String userId; // Denormalized owner id; served by user_created_id_idx
     
     private String featureName;
     
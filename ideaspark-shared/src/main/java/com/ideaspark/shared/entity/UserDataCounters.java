@@ -0,0 +1,43 @@
+package com.ideaspark.shared.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-user data counts shown by the export screens. Also stored as a counter document
+ * (one per user, keyed by user id) when export.stats.counters.enabled is set.
+ */
+@Document(collection = "user_data_counters")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDataCounters {
+
+    @Id
+    private String userId;
+
+    private long ideasCount;
+
+    private long aiGenerationsCount;
+
+    private long chatHistoryCount;
+
+    private long activitiesCount;
+
+    @Builder.Default
+    private Map<String, Long> ideasByStatus = new HashMap<>();
+
+    @Builder.Default
+    private Map<String, Long> aiGenerationsByType = new HashMap<>();
+
+    private LocalDateTime updatedAt;
+}